@@ -0,0 +1,10 @@
+-- Change log of the blocklist read by BlackArtifactIndex on every node. The generated id is the blocklist revision.
+-- Revisions are read by id > last seen revision, which the primary key index serves.
+CREATE TABLE blackartifactrevision (
+    id bigserial NOT NULL,
+    type varchar(255) NOT NULL,
+    groupid varchar(255) NOT NULL,
+    artifactid varchar(255) NOT NULL,
+    version varchar(255) NOT NULL,
+    CONSTRAINT blackartifactrevision_pkey PRIMARY KEY (id)
+);
@@ -0,0 +1,23 @@
+-- Unique constraints backing the single-row lookups of GA and BlackArtifact. Duplicate rows are merged into the one
+-- with the lowest id first, otherwise the constraints can't be created.
+BEGIN;
+
+-- point the blocklisted artifacts of duplicate GAs to the GA that is kept
+UPDATE blackartifact b
+SET ga_id = k.keep_id
+FROM (SELECT id, min(id) OVER (PARTITION BY groupid, artifactid) AS keep_id FROM ga) k
+WHERE b.ga_id = k.id AND k.id <> k.keep_id;
+
+DELETE FROM ga g
+USING ga k
+WHERE g.groupid = k.groupid AND g.artifactid = k.artifactid AND g.id > k.id;
+
+DELETE FROM blackartifact b
+USING blackartifact k
+WHERE b.ga_id = k.ga_id AND b.version = k.version AND b.id > k.id;
+
+ALTER TABLE ga ADD CONSTRAINT uk_ga UNIQUE (groupid, artifactid);
+
+ALTER TABLE blackartifact ADD CONSTRAINT uk_blackartifact UNIQUE (ga_id, version);
+
+COMMIT;
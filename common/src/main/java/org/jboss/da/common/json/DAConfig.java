@@ -18,9 +18,81 @@ public class DAConfig extends AbstractModuleConfig {
     @JsonProperty(required = false)
     private Integer indyRequestTimeout = 600000;
 
+    @JsonProperty(required = false)
+    private Integer indyConnectTimeout = 10000;
+
+    @JsonProperty(required = false)
+    private Integer indyClientThreads = 8;
+
     @JsonProperty(required = false)
     private Integer indyRequestRetries = 10;
 
+    @JsonProperty(required = false)
+    private Integer indyMetadataCacheSize = 20000;
+
+    @JsonProperty(required = false)
+    private String indyMetadataCacheDir;
+
+    @JsonProperty(required = false)
+    private Integer versionsCacheSize = 10000;
+
+    @JsonProperty(required = false)
+    private Integer versionsCacheTtl = 600000;
+
+    @JsonProperty(required = false)
+    private Integer versionsCacheRefresh = 120000;
+
+    @JsonProperty(required = false)
+    private Integer pncClientPoolSize = 32;
+
+    @JsonProperty(required = false)
+    private Integer pncBatchSize = 100;
+
+    @JsonProperty(required = false)
+    private Integer pncBatchWindow = 20;
+
+    @JsonProperty(required = false)
+    private Integer pncBatchGroupThreshold = 0;
+
+    @JsonProperty(required = false)
+    private Integer pncBatchGroupMaxArtifacts = 1000;
+
+    @JsonProperty(required = false)
+    private Integer blocklistPollInterval = 5000;
+
+    @JsonProperty(required = false)
+    private Integer blocklistReloadInterval = 3600000;
+
+    @JsonProperty(required = false)
+    private Boolean virtualThreads = false;
+
+    @JsonProperty(required = false)
+    private Integer pncConcurrencyLimit = 64;
+
+    @JsonProperty(required = false)
+    private Integer indyConcurrencyLimit = 64;
+
+    @JsonProperty(required = false)
+    private Integer upstreamMinConcurrencyLimit = 4;
+
+    @JsonProperty(required = false)
+    private Integer pncLatencyThreshold = 30000;
+
+    @JsonProperty(required = false)
+    private Integer indyLatencyThreshold = 10000;
+
+    @JsonProperty(required = false)
+    private Integer lookupDeadline = 0;
+
+    @JsonProperty(required = false)
+    private Integer websocketConcurrencyLimit = 32;
+
+    @JsonProperty(required = false)
+    private Integer websocketSessionConcurrencyLimit = 8;
+
+    @JsonProperty(required = false)
+    private Integer reportThreads = 16;
+
     private List<LookupMode> modes;
 
 }
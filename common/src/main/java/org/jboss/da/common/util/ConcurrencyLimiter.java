@@ -0,0 +1,217 @@
+package org.jboss.da.common.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of concurrently running asynchronous tasks. Tasks submitted over the limit are queued, no thread is
+ * blocked while waiting. Queued tasks are grouped by a key, e.g. the user who submitted them, and the groups take turns
+ * when a running task completes, so a single user submitting many tasks can't starve the others.
+ *
+ * The limit can be adaptive (AIMD): it grows by one after each limit's worth of tasks that succeed within the latency
+ * threshold and it is multiplied by the backoff ratio when a task fails or exceeds the threshold. The adaptive limit
+ * never drops below the minimal limit nor exceeds the maximal one.
+ *
+ * Tasks are expected to complete asynchronously, e.g. by running on an executor. Cancelling the future returned for a
+ * queued task removes the task from the queue, so it is never started. Cancelling the future of a running task doesn't
+ * interrupt it, the task keeps its permit until it completes.
+ */
+public class ConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long latencyThresholdNanos;
+
+    private final Map<String, Queue<Runnable>> waiting = new LinkedHashMap<>();
+
+    private double limit;
+
+    private int active;
+
+    private int queued;
+
+    /**
+     * Creates limiter with fixed limit.
+     *
+     * @param name name of the limited resource, used in logs and metrics.
+     * @param limit maximal number of concurrently running tasks, zero or less means no limit.
+     */
+    public ConcurrencyLimiter(String name, int limit) {
+        this(name, limit, limit, 0);
+    }
+
+    /**
+     * Creates limiter with adaptive limit starting at the maximal limit.
+     *
+     * @param name name of the limited resource, used in logs and metrics.
+     * @param minLimit minimal number of concurrently running tasks.
+     * @param maxLimit maximal number of concurrently running tasks, zero or less means no limit.
+     * @param latencyThreshold duration in milliseconds after which the task is considered slow, zero or less means the
+     *        limit is not adaptive.
+     */
+    public ConcurrencyLimiter(String name, int minLimit, int maxLimit, long latencyThreshold) {
+        this.name = name;
+        this.minLimit = Math.max(1, Math.min(minLimit, maxLimit));
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThreshold);
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Starts the task when the limit allows it.
+     *
+     * @param task supplier starting the task and returning its result.
+     * @return future completed with the result of the task.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<? extends CompletionStage<T>> task) {
+        return submit("", task);
+    }
+
+    /**
+     * Starts the task when the limit allows it. Queued tasks with different keys are started in turns.
+     *
+     * @param key key grouping the tasks, e.g. name of the user.
+     * @param task supplier starting the task and returning its result.
+     * @return future completed with the result of the task, cancelling it while the task is queued dequeues the task.
+     */
+    public <T> CompletableFuture<T> submit(String key, Supplier<? extends CompletionStage<T>> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        String group = key == null ? "" : key;
+        Runnable start = () -> run(task, result);
+        boolean startNow;
+        synchronized (this) {
+            startNow = maxLimit <= 0 || active < getLimit();
+            if (startNow) {
+                active++;
+            } else {
+                waiting.computeIfAbsent(group, k -> new ArrayDeque<>()).add(start);
+                queued++;
+            }
+        }
+        if (startNow) {
+            start.run();
+        } else {
+            result.whenComplete((value, ex) -> {
+                if (result.isCancelled()) {
+                    dequeue(group, start);
+                }
+            });
+        }
+        return result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the current limit, zero or less means no limit.
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getActive() {
+        return active;
+    }
+
+    public synchronized int getQueued() {
+        return queued;
+    }
+
+    private <T> void run(Supplier<? extends CompletionStage<T>> task, CompletableFuture<T> result) {
+        if (result.isCancelled()) {
+            // cancelled after it was taken from the queue
+            release();
+            return;
+        }
+        long start = System.nanoTime();
+        CompletionStage<T> stage;
+        try {
+            stage = task.get();
+        } catch (RuntimeException ex) {
+            stage = CompletableFuture.failedFuture(ex);
+        }
+        stage.whenComplete((value, ex) -> {
+            release(System.nanoTime() - start, ex != null);
+            if (ex == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(ex);
+            }
+        });
+    }
+
+    private void release(long latency, boolean failed) {
+        synchronized (this) {
+            adjustLimit(latency, failed);
+        }
+        release();
+    }
+
+    private void release() {
+        List<Runnable> next = new ArrayList<>();
+        synchronized (this) {
+            active--;
+            while (queued > 0 && (maxLimit <= 0 || active < getLimit())) {
+                next.add(pollNext());
+                active++;
+            }
+        }
+        next.forEach(Runnable::run);
+    }
+
+    private void adjustLimit(long latency, boolean failed) {
+        if (maxLimit <= 0 || latencyThresholdNanos <= 0) {
+            return;
+        }
+        if (failed || latency > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        } else {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    /**
+     * Removes the task from the queue, does nothing when the task was already taken from the queue.
+     */
+    private synchronized void dequeue(String group, Runnable task) {
+        Queue<Runnable> tasks = waiting.get(group);
+        if (tasks != null && tasks.remove(task)) {
+            queued--;
+            if (tasks.isEmpty()) {
+                waiting.remove(group);
+            }
+        }
+    }
+
+    /**
+     * Takes the first task of the first group and moves the group to the end, so the groups take turns.
+     */
+    private Runnable pollNext() {
+        Iterator<Map.Entry<String, Queue<Runnable>>> it = waiting.entrySet().iterator();
+        Map.Entry<String, Queue<Runnable>> first = it.next();
+        Runnable task = first.getValue().poll();
+        it.remove();
+        if (!first.getValue().isEmpty()) {
+            waiting.put(first.getKey(), first.getValue());
+        }
+        queued--;
+        return task;
+    }
+}
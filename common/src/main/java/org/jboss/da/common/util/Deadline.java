@@ -0,0 +1,60 @@
+package org.jboss.da.common.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time until which a request should be completed. The deadline is created at the entry point of the request
+ * and passed down, so all the work done for the request is bounded by the same point in time.
+ */
+public final class Deadline {
+
+    /**
+     * Deadline that never expires.
+     */
+    public static final Deadline NONE = new Deadline(0, false);
+
+    private final long expiresAt;
+
+    private final boolean set;
+
+    private Deadline(long expiresAt, boolean set) {
+        this.expiresAt = expiresAt;
+        this.set = set;
+    }
+
+    /**
+     * Creates deadline expiring after the given time from now.
+     *
+     * @param millis time in milliseconds, zero or less means no deadline.
+     */
+    public static Deadline after(long millis) {
+        if (millis <= 0) {
+            return NONE;
+        }
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis), true);
+    }
+
+    public boolean isSet() {
+        return set;
+    }
+
+    public boolean isExpired() {
+        return set && expiresAt - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Returns the time remaining until the deadline expires, zero when it already expired and {@link Long#MAX_VALUE}
+     * when the deadline is not set.
+     */
+    public long remaining(TimeUnit unit) {
+        if (!set) {
+            return Long.MAX_VALUE;
+        }
+        return unit.convert(Math.max(0, expiresAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return set ? "Deadline{remaining=" + remaining(TimeUnit.MILLISECONDS) + "ms}" : "Deadline{none}";
+    }
+}
@@ -0,0 +1,138 @@
+package org.jboss.da.common.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrencyLimiterTest {
+
+    private final List<CompletableFuture<Integer>> started = new ArrayList<>();
+
+    @Test
+    public void testTasksOverLimitAreQueued() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 2);
+
+        CompletableFuture<Integer> first = limiter.submit(this::start);
+        CompletableFuture<Integer> second = limiter.submit(this::start);
+        CompletableFuture<Integer> third = limiter.submit(this::start);
+        assertEquals(2, started.size());
+        assertEquals(2, limiter.getActive());
+        assertEquals(1, limiter.getQueued());
+
+        started.get(0).complete(1);
+        assertEquals(Integer.valueOf(1), first.join());
+        assertEquals(3, started.size());
+        assertEquals(2, limiter.getActive());
+        assertEquals(0, limiter.getQueued());
+
+        started.get(1).complete(2);
+        started.get(2).complete(3);
+        assertEquals(Integer.valueOf(2), second.join());
+        assertEquals(Integer.valueOf(3), third.join());
+        assertEquals(0, limiter.getActive());
+    }
+
+    @Test
+    public void testFailedTaskReleasesPermit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 1);
+
+        CompletableFuture<Integer> failed = limiter.submit(() -> {
+            throw new IllegalStateException("failure");
+        });
+        assertTrue(failed.isCompletedExceptionally());
+
+        CompletableFuture<Integer> next = limiter.submit(this::start);
+        assertEquals(1, started.size());
+        assertFalse(next.isDone());
+        assertEquals(1, limiter.getActive());
+    }
+
+    @Test
+    public void testQueuedTasksOfDifferentKeysTakeTurns() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 1);
+        List<String> order = new ArrayList<>();
+
+        limiter.submit("alice", this::start);
+        for (int i = 0; i < 3; i++) {
+            limiter.submit("alice", () -> start("alice", order));
+        }
+        limiter.submit("bob", () -> start("bob", order));
+        limiter.submit("bob", () -> start("bob", order));
+
+        for (int i = 0; i < 5; i++) {
+            started.get(i).complete(i);
+        }
+        assertEquals(List.of("alice", "bob", "alice", "bob", "alice"), order);
+    }
+
+    @Test
+    public void testCancelledQueuedTaskIsNotStarted() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 1);
+        List<String> order = new ArrayList<>();
+
+        limiter.submit("alice", this::start);
+        CompletableFuture<Integer> cancelled = limiter.submit("alice", () -> start("cancelled", order));
+        limiter.submit("bob", () -> start("bob", order));
+        assertEquals(2, limiter.getQueued());
+
+        assertTrue(cancelled.cancel(false));
+        assertEquals(1, limiter.getQueued());
+
+        started.get(0).complete(0);
+        assertEquals(List.of("bob"), order);
+        assertEquals(1, limiter.getActive());
+        assertEquals(0, limiter.getQueued());
+
+        started.get(1).complete(1);
+        assertEquals(2, started.size());
+        assertEquals(0, limiter.getActive());
+    }
+
+    @Test
+    public void testCancelledRunningTaskKeepsPermit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 1);
+
+        CompletableFuture<Integer> running = limiter.submit(this::start);
+        CompletableFuture<Integer> queued = limiter.submit(this::start);
+        running.cancel(false);
+        assertEquals(1, limiter.getActive());
+        assertEquals(1, started.size());
+
+        started.get(0).complete(0);
+        assertEquals(2, started.size());
+        assertFalse(queued.isDone());
+    }
+
+    @Test
+    public void testAdaptiveLimitDecreasesOnFailureAndRecovers() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 2, 10, 60000);
+        assertEquals(10, limiter.getLimit());
+
+        for (int i = 0; i < 10; i++) {
+            limiter.submit(() -> CompletableFuture.failedFuture(new IllegalStateException("failure")));
+        }
+        assertEquals(3, limiter.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            limiter.submit(() -> CompletableFuture.completedFuture(1));
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    private CompletableFuture<Integer> start(String key, List<String> order) {
+        order.add(key);
+        return start();
+    }
+
+    private CompletableFuture<Integer> start() {
+        CompletableFuture<Integer> task = new CompletableFuture<>();
+        started.add(task);
+        return task;
+    }
+}
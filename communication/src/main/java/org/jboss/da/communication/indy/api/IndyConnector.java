@@ -3,6 +3,7 @@ package org.jboss.da.communication.indy.api;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.jboss.da.communication.pom.model.MavenProject;
 import org.jboss.da.communication.repository.api.RepositoryException;
@@ -13,23 +14,23 @@ public interface IndyConnector {
 
     /**
      * Finds available versions of specific groupId artifactId. If the provided groupId artifactId is not found in
-     * repository, returns empty list.
+     * repository, returns empty list. The request is processed asynchronously.
      *
      * @param ga
-     * @return list of versions for given groupId artifactId in repository.
-     * @throws RepositoryException When there is problem with communication.
+     * @return future list of versions for given groupId artifactId in repository. The future completes exceptionally
+     *         with {@link RepositoryException} when there is problem with communication.
      */
-    List<String> getVersionsOfGA(GA ga) throws RepositoryException;
+    CompletableFuture<List<String>> getVersionsOfGA(GA ga);
 
     /**
      * Finds available versions of specific npm package. If the provided package name is not found in repository,
-     * returns empty list.
+     * returns empty list. The request is processed asynchronously.
      *
      * @param packageName Name of the npm package
-     * @return list of versions for package in repository.
-     * @throws RepositoryException When there is problem with communication.
+     * @return future list of versions for package in repository. The future completes exceptionally with
+     *         {@link RepositoryException} when there is problem with communication.
      */
-    List<String> getVersionsOfNpm(String packageName) throws RepositoryException;
+    CompletableFuture<List<String>> getVersionsOfNpm(String packageName);
 
     Optional<MavenProject> getPom(GAV gav) throws RepositoryException;
 
@@ -10,6 +10,7 @@ import org.jboss.da.common.util.Configuration;
 import org.jboss.da.common.util.ConfigurationParseException;
 import org.jboss.da.communication.indy.api.IndyConnector;
 import org.jboss.da.communication.indy.model.VersionResponse;
+import org.jboss.da.communication.indy.model.npm.NpmMetadata;
 import org.jboss.da.communication.pom.api.PomAnalyzer;
 import org.jboss.da.communication.pom.model.MavenProject;
 import org.jboss.da.communication.repository.api.RepositoryException;
@@ -18,22 +19,41 @@ import org.jboss.da.model.rest.GAV;
 import org.jboss.pnc.common.log.MDCUtils;
 import org.jboss.pnc.pncmetrics.MetricsConfiguration;
 import org.slf4j.Logger;
+import org.slf4j.MDC;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedThreadFactory;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.xml.bind.JAXBException;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.HttpURLConnection;
+import java.net.URI;
 import java.net.URL;
 import java.net.URLConnection;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import org.jboss.da.common.util.UserLog;
 
@@ -42,6 +62,8 @@ public class IndyConnectorImpl implements IndyConnector {
 
     private static final String METRICS_KEY = "da.client.indy.timer";
 
+    private static final String METRICS_CACHE_KEY = "da.client.indy.cache";
+
     @Inject
     private Logger log;
 
@@ -62,6 +84,19 @@ public class IndyConnectorImpl implements IndyConnector {
     @Inject
     private MetricsConfiguration metricsConfiguration;
 
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    /**
+     * Runs the tasks of the HTTP client, including the completion of the responses. The pool is bounded and its
+     * threads are created by the managed thread factory, so they have the container context.
+     */
+    private ThreadPoolExecutor clientExecutor;
+
+    private HttpClient httpClient;
+
+    private final MetadataCache metadataCache;
+
     @Inject
     public IndyConnectorImpl(Configuration configuration) {
         try {
@@ -70,69 +105,121 @@ public class IndyConnectorImpl implements IndyConnector {
         } catch (ConfigurationParseException ex) {
             throw new IllegalStateException("Configuration failure, can't parse default repository group", ex);
         }
+        metadataCache = new MetadataCache(config.getIndyMetadataCacheSize(), config.getIndyMetadataCacheDir());
+    }
+
+    @PostConstruct
+    public void init() {
+        int threads = config.getIndyClientThreads();
+        clientExecutor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                threadFactory);
+        clientExecutor.allowCoreThreadTimeOut(true);
+        // the request timeout covers the whole response, connecting to Indy is expected to take much less
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(config.getIndyConnectTimeout()))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(clientExecutor)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        clientExecutor.shutdown();
     }
 
     @Override
-    public List<String> getVersionsOfGA(GA ga) throws RepositoryException {
+    public CompletableFuture<List<String>> getVersionsOfGA(GA ga) {
         String query = repositoryLink("maven", ga.getGroupId().replace(".", "/") + "/" + ga.getArtifactId());
 
         MetricRegistry registry = metricsConfiguration.getMetricRegistry();
-        Timer.Context context = null;
+        Timer.Context context = registry == null ? null : registry.timer(METRICS_KEY).time();
+
+        userLog.info("Retrieving versions for maven artifacts " + ga + " from " + query);
+        CompletableFuture<List<String>> versions = getVersions(
+                query,
+                "Maven",
+                ga.toString(),
+                body -> parseMetadataFile(body).getVersioning().getVersions().getVersion());
+        return handleFailure(versions, "Failed to obtain versions for " + ga + " from repository on url " + query)
+                .whenComplete((r, ex) -> {
+                    if (context != null) {
+                        context.stop();
+                    }
+                });
+    }
 
-        if (registry != null) {
-            Timer timer = registry.timer(METRICS_KEY);
-            context = timer.time();
-        }
+    @Override
+    public CompletableFuture<List<String>> getVersionsOfNpm(String packageName) {
+        String query = repositoryLink("npm", packageName);
+        userLog.info("Retrieving versions for npm artifacts " + packageName + " from " + query);
+        log.info("Retrieving npm metadata for " + packageName + " from " + query);
+        CompletableFuture<List<String>> versions = getVersions(
+                query,
+                "Npm",
+                packageName,
+                body -> new ArrayList<>(parseNpmMetadata(body).getVersions().keySet()));
+        return handleFailure(
+                versions,
+                "Failed to obtain versions for " + packageName + " from repository on url " + query);
+    }
 
-        try {
-            userLog.info("Retrieving versions for maven artifacts " + ga + " from " + query);
-            HttpURLConnection connection = getResponse(query);
-
-            final List<String> versions = parseMetadataFile(connection).getVersioning().getVersions().getVersion();
-            log.debug(
-                    "Maven metadata for {} found. Response: {}. Versions: {}",
-                    ga,
-                    connection.getResponseCode(),
-                    versions);
-            return versions;
-        } catch (FileNotFoundException ex) {
-            log.debug("Maven metadata for {} not found. Assuming empty version list.", ga);
-            return Collections.emptyList();
-        } catch (IOException | CommunicationException e) {
-            log.debug("Failed to obtain versions for " + ga + " from repository on url " + query, e);
-            throw new RepositoryException(
-                    "Failed to obtain versions for " + ga + " from repository on url " + query,
-                    e);
-        } finally {
-            if (context != null) {
-                context.stop();
+    /**
+     * Reads versions from the metadata file on given url. When the versions are cached, the request is conditional and
+     * the cached versions are used if the metadata file didn't change.
+     */
+    private CompletableFuture<List<String>> getVersions(
+            String query,
+            String type,
+            String name,
+            Function<byte[], List<String>> parser) {
+        Optional<MetadataCache.Entry> cached = metadataCache.get(query);
+        return getResponse(query, cached).thenApply(response -> {
+            int status = response.statusCode();
+            if (status == 304 && cached.isPresent()) {
+                MetadataCache.Entry entry = cached.get();
+                log.debug("{} metadata for {} not modified. Versions: {}", type, name, entry.getVersions());
+                markNotModified(entry.getSize());
+                return entry.getVersions();
             }
+            if (status == 404) {
+                log.debug("{} metadata for {} not found. Assuming empty version list.", type, name);
+                metadataCache.remove(query);
+                return Collections.<String> emptyList();
+            }
+            checkStatus(response);
+            List<String> versions = parser.apply(response.body());
+            log.debug("{} metadata for {} found. Response: {}. Versions: {}", type, name, status, versions);
+            cacheVersions(query, response, versions);
+            return versions;
+        });
+    }
+
+    private void cacheVersions(String query, HttpResponse<byte[]> response, List<String> versions) {
+        Optional<String> etag = response.headers().firstValue("ETag");
+        Optional<String> lastModified = response.headers().firstValue("Last-Modified");
+        if (etag.isPresent() || lastModified.isPresent()) {
+            metadataCache.put(
+                    query,
+                    new MetadataCache.Entry(
+                            query,
+                            etag.orElse(null),
+                            lastModified.orElse(null),
+                            response.body().length,
+                            versions));
         }
     }
 
-    @Override
-    public List<String> getVersionsOfNpm(String packageName) throws RepositoryException {
-        String query = repositoryLink("npm", packageName);
-        try {
-            userLog.info("Retrieving versions for npm artifacts " + packageName + " from " + query);
-            log.info("Retrieving npm metadata for " + packageName + " from " + query);
-            HttpURLConnection connection = getResponse(query);
-
-            final Set<String> versions = parser.parseNpmMetadata(connection).getVersions().keySet();
-            log.debug(
-                    "Npm metadata for {} found. Response: {}. Versions: {}",
-                    packageName,
-                    connection.getResponseCode(),
-                    versions);
-            return new ArrayList<>(versions);
-        } catch (FileNotFoundException ex) {
-            log.debug("Npm metadata for {} not found. Assuming empty version list.", packageName);
-            return Collections.emptyList();
-        } catch (IOException e) {
-            log.debug("Failed to obtain versions for " + packageName + " from repository on url " + query, e);
-            throw new RepositoryException(
-                    "Failed to obtain versions for " + packageName + " from repository on url " + query,
-                    e);
+    private void markNotModified(long bytesSaved) {
+        MetricRegistry registry = metricsConfiguration.getMetricRegistry();
+        if (registry != null) {
+            registry.meter(METRICS_CACHE_KEY + ".not-modified").mark();
+            registry.counter(METRICS_CACHE_KEY + ".bytes-saved").inc(bytesSaved);
         }
     }
 
@@ -158,33 +245,94 @@ public class IndyConnectorImpl implements IndyConnector {
         return query.toString();
     }
 
-    private HttpURLConnection getResponse(String query) throws IOException {
-        HttpURLConnection connection = (HttpURLConnection) new URL(query).openConnection();
-        MDCUtils.getHeadersFromMDC().forEach(connection::addRequestProperty);
-        connection.setConnectTimeout(config.getIndyRequestTimeout());
-        connection.setReadTimeout(config.getIndyRequestTimeout());
-        int retry = 0;
-        while ((connection.getResponseCode() == 504 || connection.getResponseCode() == 500)
-                && retry < config.getIndyRequestRetries()) {
+    private CompletableFuture<HttpResponse<byte[]>> getResponse(String query, Optional<MetadataCache.Entry> cached) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(query))
+                .timeout(Duration.ofMillis(config.getIndyRequestTimeout()))
+                .GET();
+        MDCUtils.getHeadersFromMDC().forEach(builder::header);
+        cached.ifPresent(entry -> {
+            if (entry.getEtag() != null) {
+                builder.header("If-None-Match", entry.getEtag());
+            }
+            if (entry.getLastModified() != null) {
+                builder.header("If-Modified-Since", entry.getLastModified());
+            }
+        });
+        return withLoggingContext(getResponse(builder.build(), 0));
+    }
 
-            userLog.warn("Connection to: {} failed with status: {}. retrying...", query, connection.getResponseCode());
-            log.warn("Connection to: {} failed with status: {}. retrying...", query, connection.getResponseCode());
+    /**
+     * Completes the returned future with the logging context of the caller, so the stages depending on the response
+     * log with the context of the request even though they run on the threads of the HTTP client.
+     */
+    private static <T> CompletableFuture<T> withLoggingContext(CompletableFuture<T> future) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((r, ex) -> {
+            Map<String, String> original = MDC.getCopyOfContextMap();
+            setContext(context);
+            try {
+                if (ex == null) {
+                    result.complete(r);
+                } else {
+                    result.completeExceptionally(ex);
+                }
+            } finally {
+                setContext(original);
+            }
+        });
+        return result;
+    }
 
-            retry++;
+    private static void setContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
 
-            try {
-                // Wait before retrying using Exponential back-off: 100ms, 200ms, 400ms, cap to 5000ms
-                Thread.sleep(Math.min((long) Math.pow(2, retry) * 100L, 5000L));
-            } catch (InterruptedException e) {
-                log.error(e.getMessage());
+    /**
+     * Sends the request and retries it when Indy fails with status 500 or 504. The retries are scheduled with
+     * exponential back-off (100ms, 200ms, 400ms, capped to 5000ms) without blocking any thread while waiting.
+     */
+    private CompletableFuture<HttpResponse<byte[]>> getResponse(HttpRequest request, int retry) {
+        return httpClient.sendAsync(request, BodyHandlers.ofByteArray()).thenCompose(response -> {
+            int status = response.statusCode();
+            if ((status == 504 || status == 500) && retry < config.getIndyRequestRetries()) {
+                userLog.warn("Connection to: {} failed with status: {}. retrying...", request.uri(), status);
+                log.warn("Connection to: {} failed with status: {}. retrying...", request.uri(), status);
+
+                long delay = Math.min((long) Math.pow(2, retry + 1) * 100L, 5000L);
+                Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+                return CompletableFuture.supplyAsync(() -> request, delayed)
+                        .thenCompose(r -> getResponse(r, retry + 1));
             }
+            return CompletableFuture.completedFuture(response);
+        });
+    }
 
-            connection = (HttpURLConnection) new URL(query).openConnection();
-            MDCUtils.getHeadersFromMDC().forEach(connection::addRequestProperty);
-            connection.setConnectTimeout(config.getIndyRequestTimeout());
-            connection.setReadTimeout(config.getIndyRequestTimeout());
+    private static void checkStatus(HttpResponse<?> response) {
+        if (response.statusCode() != 200) {
+            throw new CompletionException(
+                    new RepositoryException(
+                            "Server returned HTTP response code: " + response.statusCode() + " for URL: "
+                                    + response.uri()));
         }
-        return connection;
+    }
+
+    /**
+     * Translates failures of the future to {@link RepositoryException} with the given message.
+     */
+    private <T> CompletableFuture<T> handleFailure(CompletableFuture<T> future, String message) {
+        return future.handle((r, ex) -> {
+            if (ex == null) {
+                return r;
+            }
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            log.debug(message, cause);
+            throw new CompletionException(new RepositoryException(message, cause));
+        });
     }
 
     @Override
@@ -251,11 +399,19 @@ public class IndyConnectorImpl implements IndyConnector {
         }
     }
 
-    private VersionResponse parseMetadataFile(URLConnection connection) throws IOException, CommunicationException {
-        try (InputStream in = connection.getInputStream()) {
+    private VersionResponse parseMetadataFile(byte[] body) {
+        try (InputStream in = new ByteArrayInputStream(body)) {
             return MetadataFileParser.parseMavenMetadata(in);
-        } catch (JAXBException e) {
-            throw new RepositoryException("Failed to parse metadata file", e);
+        } catch (IOException | CommunicationException | JAXBException e) {
+            throw new CompletionException(new RepositoryException("Failed to parse metadata file", e));
+        }
+    }
+
+    private NpmMetadata parseNpmMetadata(byte[] body) {
+        try (InputStream in = new ByteArrayInputStream(body)) {
+            return parser.parseNpmMetadata(in);
+        } catch (IOException e) {
+            throw new CompletionException(new RepositoryException("Failed to parse npm metadata file", e));
         }
     }
 }
@@ -0,0 +1,227 @@
+package org.jboss.da.communication.indy.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cache of versions parsed from repository metadata files together with the validators (ETag and Last-Modified) of
+ * the response they were parsed from. The validators are used for conditional requests, so metadata that didn't change
+ * are neither downloaded nor parsed again.
+ *
+ * The cache holds at most the configured number of entries in memory, evicting the least recently used ones. When a
+ * directory is configured, entries are also stored there so they survive restarts. Files of evicted entries are
+ * deleted and the directory is trimmed to the newest files on start, so it holds about as many entries as the memory.
+ */
+@Slf4j
+class MetadataCache {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final int maxSize;
+
+    private final Path directory;
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * Urls of the entries evicted from memory whose files are yet to be deleted, guarded by the entries lock.
+     */
+    private final List<String> evicted = new ArrayList<>();
+
+    MetadataCache(int maxSize, String directory) {
+        this.maxSize = maxSize;
+        this.directory = directory == null || directory.isEmpty() ? null : Paths.get(directory);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean evict = size() > MetadataCache.this.maxSize;
+                if (evict) {
+                    evicted.add(eldest.getKey());
+                }
+                return evict;
+            }
+        };
+        if (this.directory != null) {
+            try {
+                Files.createDirectories(this.directory);
+                trimDirectory();
+            } catch (IOException ex) {
+                log.warn("Failed to create metadata cache directory " + directory, ex);
+            }
+        }
+    }
+
+    /**
+     * Deletes the oldest files over the maximal size of the cache, e.g. when the size was lowered.
+     */
+    private void trimDirectory() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(f -> f.getFileName().toString().endsWith(".json")).collect(Collectors.toList());
+        }
+        if (files.size() <= maxSize) {
+            return;
+        }
+        Map<Path, Long> modified = new HashMap<>();
+        for (Path file : files) {
+            modified.put(file, Files.getLastModifiedTime(file).toMillis());
+        }
+        files.sort(Comparator.comparing(modified::get, Comparator.reverseOrder()));
+        for (Path file : files.subList(Math.max(0, maxSize), files.size())) {
+            delete(file);
+        }
+        log.info("Trimmed metadata cache directory {} to {} entries.", directory, Math.max(0, maxSize));
+    }
+
+    boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    Optional<Entry> get(String url) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(url);
+        }
+        if (entry == null) {
+            entry = read(url);
+            if (entry != null) {
+                synchronized (entries) {
+                    entries.putIfAbsent(url, entry);
+                }
+                deleteEvicted();
+            }
+        }
+        return Optional.ofNullable(entry);
+    }
+
+    void put(String url, Entry entry) {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(url, entry);
+        }
+        write(url, entry);
+        deleteEvicted();
+    }
+
+    void remove(String url) {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (entries) {
+            entries.remove(url);
+        }
+        if (directory != null) {
+            delete(file(url));
+        }
+    }
+
+    private void deleteEvicted() {
+        List<String> urls;
+        synchronized (entries) {
+            if (evicted.isEmpty()) {
+                return;
+            }
+            urls = new ArrayList<>(evicted);
+            evicted.clear();
+        }
+        if (directory != null) {
+            urls.forEach(url -> delete(file(url)));
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.debug("Failed to remove cached metadata file " + file, ex);
+        }
+    }
+
+    private Entry read(String url) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = file(url);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            Entry entry = MAPPER.readValue(file.toFile(), Entry.class);
+            return url.equals(entry.getUrl()) ? entry : null;
+        } catch (IOException ex) {
+            log.debug("Failed to read cached metadata of " + url, ex);
+            return null;
+        }
+    }
+
+    private void write(String url, Entry entry) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Path file = file(url);
+            Path tmp = Files.createTempFile(directory, "metadata", ".tmp");
+            MAPPER.writeValue(tmp.toFile(), entry);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.debug("Failed to store cached metadata of " + url, ex);
+        }
+    }
+
+    private Path file(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder name = new StringBuilder();
+            for (byte b : digest.digest(url.getBytes(StandardCharsets.UTF_8))) {
+                name.append(String.format("%02x", b));
+            }
+            return directory.resolve(name.append(".json").toString());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Entry {
+
+        private String url;
+
+        private String etag;
+
+        private String lastModified;
+
+        /** Size of the metadata file in bytes. */
+        private long size;
+
+        private List<String> versions;
+    }
+}
@@ -10,7 +10,6 @@ import javax.xml.bind.Unmarshaller;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URLConnection;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import javax.enterprise.context.ApplicationScoped;
@@ -27,14 +26,31 @@ public class MetadataFileParser {
 
     public static VersionResponse parseMavenMetadata(InputStream in)
             throws IOException, CommunicationException, JAXBException {
-        JAXBContext jaxbContext = JAXBContext.newInstance(VersionResponse.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
+        Unmarshaller jaxbUnmarshaller = VersionResponseContext.getContext().createUnmarshaller();
         return (VersionResponse) jaxbUnmarshaller.unmarshal(in);
     }
 
-    public NpmMetadata parseNpmMetadata(URLConnection connection) throws IOException {
-        try (InputStream in = connection.getInputStream()) {
-            return om.readValue(in, NpmMetadata.class);
+    public NpmMetadata parseNpmMetadata(InputStream in) throws IOException {
+        return om.readValue(in, NpmMetadata.class);
+    }
+
+    /**
+     * Lazily created JAXB context of maven-metadata.xml, shared by all parses.
+     */
+    private static class VersionResponseContext {
+
+        private static final JAXBContext CONTEXT = createContext();
+
+        private static JAXBContext createContext() {
+            try {
+                return JAXBContext.newInstance(VersionResponse.class);
+            } catch (JAXBException ex) {
+                throw new IllegalStateException("Failed to create JAXB context for maven metadata", ex);
+            }
+        }
+
+        private static JAXBContext getContext() {
+            return CONTEXT;
         }
     }
 }
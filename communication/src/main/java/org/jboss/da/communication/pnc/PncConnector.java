@@ -7,6 +7,7 @@ import org.jboss.pnc.api.dependencyanalyzer.dto.QualifiedVersion;
 import org.jboss.pnc.dto.requests.QValue;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface PncConnector {
@@ -20,6 +21,17 @@ public interface PncConnector {
      */
     List<QualifiedVersion> getMavenVersions(GA ga, LookupMode mode, Set<QValue> qualifiers) throws RepositoryException;
 
+    /**
+     * Finds available versions for multiple artifacts (groupId:artifactId). Artifacts sharing the same groupId may be
+     * resolved by a single query.
+     *
+     * @param gas Maven G:As
+     * @return map with list of available versions for every requested groupId:artifactId, never {@code null}
+     * @throws RepositoryException When there is problem with communication.
+     */
+    Map<GA, List<QualifiedVersion>> getMavenVersionsBatch(Set<GA> gas, LookupMode mode, Set<QValue> qualifiers)
+            throws RepositoryException;
+
     /**
      * Finds available versions for given npm package.
      *
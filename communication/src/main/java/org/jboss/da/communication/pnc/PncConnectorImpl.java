@@ -1,5 +1,10 @@
 package org.jboss.da.communication.pnc;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import org.jboss.da.common.json.DAConfig;
 import org.jboss.da.common.json.GlobalConfig;
 import org.jboss.da.common.json.LookupMode;
 import org.jboss.da.common.util.ConfigurationParseException;
@@ -14,16 +19,26 @@ import org.jboss.pnc.common.logging.MDCUtils;
 import org.jboss.pnc.dto.requests.QValue;
 import org.jboss.pnc.dto.response.ArtifactInfo;
 import org.jboss.pnc.enums.RepositoryType;
+import org.jboss.pnc.pncmetrics.MetricsConfiguration;
 import org.slf4j.Logger;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * @author <a href="mailto:pkocandr@redhat.com">Petr Kocandrle</a>
@@ -31,26 +46,93 @@ import java.util.Set;
 @ApplicationScoped
 public class PncConnectorImpl implements PncConnector {
 
+    private static final String METRICS_POOL_KEY = "da.client.pnc.pool";
+
+    private static final String METRICS_GROUP_KEY = "da.client.pnc.group";
+
     @Inject
     private Logger log;
 
+    @Inject
+    private MetricsConfiguration metricsConfiguration;
+
     private GlobalConfig globalConfig;
 
+    /**
+     * Idle clients ready to be reused. Every client keeps its HTTP connection alive between the calls, so reusing them
+     * saves the connection setup and TLS handshake.
+     */
+    private BlockingQueue<ArtifactClient> idleClients;
+
+    private final AtomicInteger activeClients = new AtomicInteger();
+
+    private int groupQueryThreshold;
+
+    private int groupQueryMaxArtifacts;
+
+    /**
+     * Groups that had more artifacts than a group query may read, their artifacts are always queried one by one.
+     */
+    private final Set<String> largeGroups = ConcurrentHashMap.newKeySet();
+
+    private Counter groupQueries;
+
+    private Counter groupQueriesAborted;
+
+    private Histogram groupQueryArtifacts;
+
     @Inject
     public PncConnectorImpl(org.jboss.da.common.util.Configuration configuration) {
         try {
             globalConfig = configuration.getGlobalConfig();
+            DAConfig config = configuration.getConfig();
+            idleClients = new LinkedBlockingQueue<>(config.getPncClientPoolSize());
+            groupQueryThreshold = config.getPncBatchGroupThreshold();
+            groupQueryMaxArtifacts = config.getPncBatchGroupMaxArtifacts();
         } catch (ConfigurationParseException ex) {
             throw new IllegalStateException("Configuration failure, can't parse default repository group", ex);
         }
     }
 
-    private Collection<ArtifactInfo> getArtifacts(
+    @PostConstruct
+    void registerMetrics() {
+        MetricRegistry registry = metricsConfiguration.getMetricRegistry();
+        if (registry != null) {
+            register(registry, METRICS_POOL_KEY + ".idle", () -> idleClients.size());
+            register(registry, METRICS_POOL_KEY + ".active", activeClients::get);
+            register(registry, METRICS_GROUP_KEY + ".large", largeGroups::size);
+            groupQueries = registry.counter(METRICS_GROUP_KEY + ".queries");
+            groupQueriesAborted = registry.counter(METRICS_GROUP_KEY + ".aborted");
+            groupQueryArtifacts = registry.histogram(METRICS_GROUP_KEY + ".artifacts");
+        }
+    }
+
+    private static void register(MetricRegistry registry, String name, Gauge<Integer> gauge) {
+        registry.remove(name);
+        registry.register(name, gauge);
+    }
+
+    @PreDestroy
+    void closeClients() {
+        ArtifactClient client;
+        while ((client = idleClients.poll()) != null) {
+            close(client);
+        }
+    }
+
+    /**
+     * Reads artifacts matching the pattern page by page and passes each of them to the consumer, so the artifacts don't
+     * have to be held in memory all at once. Reading stops, without requesting further pages, as soon as the consumer
+     * returns {@code false}.
+     */
+    private void forEachArtifact(
             String identifierPattern,
             RepositoryType repoType,
             LookupMode mode,
-            Set<QValue> qualifiers) throws RepositoryException {
-        ArtifactClient artifactClient = getArtifactClient();
+            Set<QValue> qualifiers,
+            Predicate<ArtifactInfo> consumer) throws RepositoryException {
+        ArtifactClient artifactClient = borrowArtifactClient();
+        boolean reusable = false;
         RemoteCollection<ArtifactInfo> artCollection;
         try {
             if (qualifiers.isEmpty()) {
@@ -68,21 +150,27 @@ public class PncConnectorImpl implements PncConnector {
                         mode.getBuildCategories(),
                         qualifiers);
             }
+            for (ArtifactInfo art : artCollection) {
+                if (!consumer.test(art)) {
+                    break;
+                }
+            }
+            reusable = true;
         } catch (RemoteResourceException ex) {
             log.debug("Error when reading artifacts from PNC: " + ex, ex);
             throw new RepositoryException("Error when reading artifacts from PNC: " + ex, ex);
+        } finally {
+            returnArtifactClient(artifactClient, reusable);
         }
-        return artCollection.getAll();
     }
 
     @Override
     public List<QualifiedVersion> getMavenVersions(GA ga, LookupMode mode, Set<QValue> qualifiers)
             throws RepositoryException {
         String identifierPattern = ga.getGroupId() + ':' + ga.getArtifactId() + ":pom:*";
-        Collection<ArtifactInfo> arts = getArtifacts(identifierPattern, RepositoryType.MAVEN, mode, qualifiers);
 
-        List<QualifiedVersion> versions = new ArrayList<>(arts.size());
-        for (ArtifactInfo art : arts) {
+        List<QualifiedVersion> versions = new ArrayList<>();
+        forEachArtifact(identifierPattern, RepositoryType.MAVEN, mode, qualifiers, art -> {
             String[] parts = art.getIdentifier().split(":");
             if (parts.length == 4) {
                 // TODO filtering by target repository if necessary
@@ -90,18 +178,103 @@ public class PncConnectorImpl implements PncConnector {
             } else {
                 log.error("Cannot read version for artifact with identifier {}", art.getIdentifier());
             }
+            return true;
+        });
+        return versions;
+    }
+
+    @Override
+    public Map<GA, List<QualifiedVersion>> getMavenVersionsBatch(Set<GA> gas, LookupMode mode, Set<QValue> qualifiers)
+            throws RepositoryException {
+        Map<String, Set<GA>> gasByGroup = gas.stream()
+                .collect(Collectors.groupingBy(GA::getGroupId, Collectors.toSet()));
+
+        Map<GA, List<QualifiedVersion>> versions = new HashMap<>();
+        for (Map.Entry<String, Set<GA>> e : gasByGroup.entrySet()) {
+            Map<GA, List<QualifiedVersion>> groupVersions = null;
+            if (isGroupQueried(e.getKey(), e.getValue())) {
+                groupVersions = getMavenVersionsOfGroup(e.getKey(), e.getValue(), mode, qualifiers);
+            }
+            if (groupVersions != null) {
+                versions.putAll(groupVersions);
+            } else {
+                for (GA ga : e.getValue()) {
+                    versions.put(ga, getMavenVersions(ga, mode, qualifiers));
+                }
+            }
+        }
+        return versions;
+    }
+
+    private boolean isGroupQueried(String groupId, Set<GA> gas) {
+        return groupQueryThreshold > 0 && gas.size() >= groupQueryThreshold && !largeGroups.contains(groupId);
+    }
+
+    /**
+     * Finds available versions for artifacts from single group with one query for all artifacts in the group. Artifacts
+     * of the group that were not requested are skipped while the pages are read. The query is aborted when the group
+     * has more artifacts than the configured maximum, such a group is remembered and its artifacts are queried one by
+     * one from then on.
+     *
+     * @return versions of the artifacts or {@code null} when the query was aborted.
+     */
+    private Map<GA, List<QualifiedVersion>> getMavenVersionsOfGroup(
+            String groupId,
+            Set<GA> gas,
+            LookupMode mode,
+            Set<QValue> qualifiers) throws RepositoryException {
+        String identifierPattern = groupId + ":*:pom:*";
+
+        Map<GA, List<QualifiedVersion>> versions = new HashMap<>();
+        for (GA ga : gas) {
+            versions.put(ga, new ArrayList<>());
+        }
+        inc(groupQueries);
+        AtomicInteger read = new AtomicInteger();
+        forEachArtifact(identifierPattern, RepositoryType.MAVEN, mode, qualifiers, art -> {
+            if (groupQueryMaxArtifacts > 0 && read.incrementAndGet() > groupQueryMaxArtifacts) {
+                return false;
+            }
+            String[] parts = art.getIdentifier().split(":");
+            if (parts.length == 4) {
+                List<QualifiedVersion> gaVersions = versions.get(new GA(parts[0], parts[1]));
+                if (gaVersions != null) {
+                    gaVersions.add(new QualifiedVersion(parts[3], art.getQualifiers()));
+                }
+            } else {
+                log.error("Cannot read version for artifact with identifier {}", art.getIdentifier());
+            }
+            return true;
+        });
+        if (groupQueryArtifacts != null) {
+            groupQueryArtifacts.update(read.get());
         }
+        if (groupQueryMaxArtifacts > 0 && read.get() > groupQueryMaxArtifacts) {
+            log.info(
+                    "Group {} has more than {} artifacts, its artifacts will be queried one by one.",
+                    groupId,
+                    groupQueryMaxArtifacts);
+            largeGroups.add(groupId);
+            inc(groupQueriesAborted);
+            return null;
+        }
+        log.debug("Got versions of {} artifacts from group {} in one query.", gas.size(), groupId);
         return versions;
     }
 
+    private static void inc(Counter counter) {
+        if (counter != null) {
+            counter.inc();
+        }
+    }
+
     @Override
     public List<QualifiedVersion> getNpmVersions(String packageName, LookupMode mode, Set<QValue> qualifiers)
             throws RepositoryException {
         String identifierPattern = packageName + ":*";
-        Collection<ArtifactInfo> arts = getArtifacts(identifierPattern, RepositoryType.NPM, mode, qualifiers);
 
-        List<QualifiedVersion> versions = new ArrayList<>(arts.size());
-        for (ArtifactInfo art : arts) {
+        List<QualifiedVersion> versions = new ArrayList<>();
+        forEachArtifact(identifierPattern, RepositoryType.NPM, mode, qualifiers, art -> {
             String[] parts = art.getIdentifier().split(":");
             if (parts.length == 2) {
                 // TODO filtering by target repository if necessary
@@ -109,11 +282,44 @@ public class PncConnectorImpl implements PncConnector {
             } else {
                 log.error("Cannot read version for artifact with identifier {}", art.getIdentifier());
             }
-        }
+            return true;
+        });
         return versions;
     }
 
-    private ArtifactClient getArtifactClient() {
+    /**
+     * Returns an idle client from the pool or creates a new one when there is none. The client must not be used
+     * concurrently and has to be returned by {@link #returnArtifactClient(ArtifactClient, boolean)}.
+     */
+    private ArtifactClient borrowArtifactClient() {
+        activeClients.incrementAndGet();
+        ArtifactClient client = idleClients.poll();
+        if (client == null) {
+            client = createArtifactClient();
+        }
+        return client;
+    }
+
+    /**
+     * Puts the client back to the pool. The client is closed when the pool is already full or when the call failed and
+     * the client may be left with an unfinished response.
+     */
+    private void returnArtifactClient(ArtifactClient client, boolean reusable) {
+        activeClients.decrementAndGet();
+        if (!reusable || !idleClients.offer(client)) {
+            close(client);
+        }
+    }
+
+    private void close(ArtifactClient client) {
+        try {
+            client.close();
+        } catch (Exception ex) {
+            log.warn("Failed to close PNC client.", ex);
+        }
+    }
+
+    ArtifactClient createArtifactClient() {
         URI uri = URI.create(globalConfig.getPncUrl());
 
         Configuration config = getClientConfig(uri.getScheme(), uri.getHost(), uri.getPort());
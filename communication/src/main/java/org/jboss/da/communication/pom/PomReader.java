@@ -3,21 +3,23 @@ package org.jboss.da.communication.pom;
 import org.jboss.da.communication.pom.impl.NamespaceFilter;
 import org.jboss.da.communication.pom.model.MavenProject;
 import org.slf4j.Logger;
-import org.xml.sax.helpers.XMLReaderFactory;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.Source;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Optional;
 
@@ -28,10 +30,10 @@ public class PomReader {
     private Logger log;
 
     public Optional<MavenProject> analyze(File pomFile) {
-        try {
-            Source source = filterNamespace(new InputSource(new FileInputStream(pomFile)));
+        try (InputStream is = new FileInputStream(pomFile)) {
+            Source source = filterNamespace(new InputSource(is));
             return Optional.of(unmarshal(source));
-        } catch (JAXBException | SAXException | FileNotFoundException e) {
+        } catch (JAXBException | SAXException | ParserConfigurationException | IOException e) {
             log.warn("Exception parsing the pom.xml: " + pomFile, e);
             return Optional.empty();
         }
@@ -41,21 +43,50 @@ public class PomReader {
         try {
             Source source = filterNamespace(new InputSource(pom));
             return Optional.of(unmarshal(source));
-        } catch (JAXBException | SAXException e) {
+        } catch (JAXBException | SAXException | ParserConfigurationException e) {
             log.warn("Exception parsing the pom.xml from stream.", e);
             return Optional.empty();
         }
     }
 
-    private Source filterNamespace(InputSource is) throws SAXException {
+    private Source filterNamespace(InputSource is) throws SAXException, ParserConfigurationException {
         NamespaceFilter nf = new NamespaceFilter(MavenProject.NAMESPACE);
-        nf.setParent(XMLReaderFactory.createXMLReader());
+        nf.setParent(Parsers.newXMLReader());
         return new SAXSource(nf, is);
     }
 
     private MavenProject unmarshal(Source source) throws JAXBException {
-        JAXBContext jaxbContext = JAXBContext.newInstance(MavenProject.class);
-        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+        Unmarshaller unmarshaller = Parsers.CONTEXT.createUnmarshaller();
         return (MavenProject) unmarshaller.unmarshal(source);
     }
+
+    /**
+     * JAXB context and SAX parser factory shared by all pom parses, readers and unmarshallers are created per parse.
+     */
+    private static class Parsers {
+
+        private static final JAXBContext CONTEXT = createContext();
+
+        private static final SAXParserFactory PARSER_FACTORY = createParserFactory();
+
+        private static JAXBContext createContext() {
+            try {
+                return JAXBContext.newInstance(MavenProject.class);
+            } catch (JAXBException ex) {
+                throw new IllegalStateException("Failed to create JAXB context for pom.xml", ex);
+            }
+        }
+
+        private static SAXParserFactory createParserFactory() {
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setNamespaceAware(true);
+            return factory;
+        }
+
+        private static XMLReader newXMLReader() throws SAXException, ParserConfigurationException {
+            synchronized (PARSER_FACTORY) {
+                return PARSER_FACTORY.newSAXParser().getXMLReader();
+            }
+        }
+    }
 }
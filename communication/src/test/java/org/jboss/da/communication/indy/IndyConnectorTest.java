@@ -15,6 +15,7 @@ import org.jboss.pnc.pncmetrics.MetricsConfiguration;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -22,11 +23,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.when;
 
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.slf4j.Logger;
+import org.slf4j.MDC;
+
+import javax.enterprise.concurrent.ManagedThreadFactory;
 
 import java.util.List;
 
@@ -62,6 +67,9 @@ public class IndyConnectorTest {
     @Mock
     private MetricsConfiguration metricsConfiguration;
 
+    @Mock
+    private ManagedThreadFactory threadFactory;
+
     @Spy
     private ObjectMapper mapper = new ObjectMapper();
 
@@ -105,6 +113,16 @@ public class IndyConnectorTest {
         return config;
     }
 
+    @Before
+    public void setUp() {
+        when(threadFactory.newThread(any(Runnable.class))).thenAnswer(invocation -> {
+            Thread thread = new Thread((Runnable) invocation.getArguments()[0]);
+            thread.setDaemon(true);
+            return thread;
+        });
+        indyConnector.init();
+    }
+
     @Test
     public void testGetVersionsOfGA() throws ConfigurationParseException, CommunicationException {
         stubFor(
@@ -113,7 +131,7 @@ public class IndyConnectorTest {
                                 .withHeader("Content-Type", "text/xml")
                                 .withBody(FOOBAR_MAVEN_METADATA)));
 
-        List<String> versionsOfGA = indyConnector.getVersionsOfGA(GA);
+        List<String> versionsOfGA = indyConnector.getVersionsOfGA(GA).join();
 
         // verify
         assertTrue(
@@ -125,6 +143,67 @@ public class IndyConnectorTest {
         assertTrue(versionsOfGA.contains(REDHAT3));
     }
 
+    @Test
+    public void testGetVersionsOfGANotModified() throws ConfigurationParseException, CommunicationException {
+        String url = "/api/content/maven/group/DA-TEST-GROUP/foo/bar/baz/maven-metadata.xml";
+        stubFor(
+                get(urlEqualTo(url)).willReturn(
+                        aResponse().withStatus(200)
+                                .withHeader("Content-Type", "text/xml")
+                                .withHeader("ETag", "\"v1\"")
+                                .withBody(FOOBAR_MAVEN_METADATA)));
+        stubFor(
+                get(urlEqualTo(url)).withHeader("If-None-Match", equalTo("\"v1\""))
+                        .willReturn(aResponse().withStatus(304)));
+
+        List<String> first = indyConnector.getVersionsOfGA(GA).join();
+        List<String> second = indyConnector.getVersionsOfGA(GA).join();
+
+        // verify
+        verify(1, getRequestedFor(urlEqualTo(url)).withHeader("If-None-Match", equalTo("\"v1\"")));
+        assertEquals(3, first.size());
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void testGetVersionsOfGAFollowsRedirect() throws ConfigurationParseException, CommunicationException {
+        stubFor(
+                get(urlEqualTo("/api/content/maven/group/DA-TEST-GROUP/foo/bar/baz/maven-metadata.xml")).willReturn(
+                        aResponse().withStatus(302).withHeader("Location", "/moved/maven-metadata.xml")));
+        stubFor(
+                get(urlEqualTo("/moved/maven-metadata.xml")).willReturn(
+                        aResponse().withStatus(200)
+                                .withHeader("Content-Type", "text/xml")
+                                .withBody(FOOBAR_MAVEN_METADATA)));
+
+        List<String> versionsOfGA = indyConnector.getVersionsOfGA(GA).join();
+
+        // verify
+        assertEquals(3, versionsOfGA.size());
+    }
+
+    @Test
+    public void testGetVersionsOfGAKeepsLoggingContext() throws ConfigurationParseException, CommunicationException {
+        stubFor(
+                get(urlEqualTo("/api/content/maven/group/DA-TEST-GROUP/foo/bar/baz/maven-metadata.xml")).willReturn(
+                        aResponse().withStatus(200)
+                                .withHeader("Content-Type", "text/xml")
+                                .withBody(FOOBAR_MAVEN_METADATA)
+                                .withFixedDelay(200)));
+
+        // the response is delayed, so the stage runs on the thread completing the response
+        MDC.put("test-key", "test-value");
+        String contextValue;
+        try {
+            contextValue = indyConnector.getVersionsOfGA(GA).thenApply(v -> MDC.get("test-key")).join();
+        } finally {
+            MDC.remove("test-key");
+        }
+
+        // verify
+        assertEquals("test-value", contextValue);
+    }
+
     @Test
     public void testGetVersionsOfNpm() throws ConfigurationParseException, CommunicationException {
         stubFor(
@@ -133,7 +212,7 @@ public class IndyConnectorTest {
                                 .withHeader("Content-Type", "application/json")
                                 .withBodyFile("jquery-package.json")));
 
-        List<String> versionsOfGA = indyConnector.getVersionsOfNpm("jquery");
+        List<String> versionsOfGA = indyConnector.getVersionsOfNpm("jquery").join();
 
         // verify
         assertTrue(
@@ -0,0 +1,54 @@
+package org.jboss.da.communication.indy.impl;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+
+public class MetadataCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEvictionDeletesFile() throws IOException {
+        File dir = folder.newFolder();
+        MetadataCache cache = new MetadataCache(2, dir.getPath());
+
+        cache.put("a", entry("a"));
+        cache.put("b", entry("b"));
+        cache.put("c", entry("c"));
+
+        assertEquals(2, dir.list().length);
+        assertFalse(cache.get("a").isPresent());
+        assertTrue(cache.get("b").isPresent());
+        assertTrue(cache.get("c").isPresent());
+    }
+
+    @Test
+    public void testDirectoryTrimmedOnStart() throws IOException {
+        File dir = folder.newFolder();
+        MetadataCache cache = new MetadataCache(3, dir.getPath());
+        cache.put("a", entry("a"));
+        dir.listFiles()[0].setLastModified(1000);
+        cache.put("b", entry("b"));
+        cache.put("c", entry("c"));
+
+        MetadataCache smaller = new MetadataCache(2, dir.getPath());
+
+        assertEquals(2, dir.list().length);
+        assertFalse(smaller.get("a").isPresent());
+        assertTrue(smaller.get("b").isPresent());
+    }
+
+    private static MetadataCache.Entry entry(String url) {
+        return new MetadataCache.Entry(url, "etag", null, 10, Collections.singletonList("1.0"));
+    }
+}
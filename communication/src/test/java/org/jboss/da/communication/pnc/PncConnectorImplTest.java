@@ -0,0 +1,147 @@
+package org.jboss.da.communication.pnc;
+
+import org.jboss.da.common.json.DAConfig;
+import org.jboss.da.common.json.LookupMode;
+import org.jboss.da.common.util.Configuration;
+import org.jboss.da.model.rest.GA;
+import org.jboss.pnc.api.dependencyanalyzer.dto.QualifiedVersion;
+import org.jboss.pnc.client.ArtifactClient;
+import org.jboss.pnc.client.RemoteCollection;
+import org.jboss.pnc.dto.response.ArtifactInfo;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PncConnectorImplTest {
+
+    private static final String GROUP_PATTERN = "org.foo:*:pom:*";
+
+    private static final GA FIRST = new GA("org.foo", "first");
+
+    private static final GA SECOND = new GA("org.foo", "second");
+
+    private static final GA OTHER = new GA("org.bar", "other");
+
+    private final LookupMode mode = new LookupMode();
+
+    private ArtifactClient client;
+
+    private PncConnectorImpl connector;
+
+    @Before
+    public void setUp() throws Exception {
+        DAConfig config = new DAConfig();
+        config.setPncBatchGroupThreshold(2);
+        config.setPncBatchGroupMaxArtifacts(3);
+        Configuration configuration = mock(Configuration.class);
+        when(configuration.getConfig()).thenReturn(config);
+
+        client = mock(ArtifactClient.class);
+        connector = spy(new PncConnectorImpl(configuration));
+        injectField("log", connector, LoggerFactory.getLogger(PncConnectorImplTest.class));
+        doReturn(client).when(connector).createArtifactClient();
+    }
+
+    @Test
+    public void testGroupQueryIsSplitByArtifact() throws Exception {
+        RemoteCollection<ArtifactInfo> group = artifacts(
+                "org.foo:first:pom:1.0",
+                "org.foo:second:pom:2.0",
+                "org.foo:first:pom:1.1",
+                "org.foo:unrequested:pom:3.0");
+        RemoteCollection<ArtifactInfo> other = artifacts("org.bar:other:pom:4.0");
+        when(client.getAllFiltered(eq(GROUP_PATTERN), any(), any(), any(), any())).thenReturn(group);
+        when(client.getAllFiltered(eq("org.bar:other:pom:*"), any(), any(), any(), any())).thenReturn(other);
+
+        Map<GA, List<QualifiedVersion>> versions = connector.getMavenVersionsBatch(
+                new HashSet<>(Arrays.asList(FIRST, SECOND, OTHER)),
+                mode,
+                Collections.emptySet());
+
+        assertEquals(3, versions.size());
+        assertEquals(Arrays.asList("1.0", "1.1"), versionStrings(versions.get(FIRST)));
+        assertEquals(Collections.singletonList("2.0"), versionStrings(versions.get(SECOND)));
+        assertEquals(Collections.singletonList("4.0"), versionStrings(versions.get(OTHER)));
+        verify(client, never()).getAllFiltered(eq("org.foo:first:pom:*"), any(), any(), any(), any());
+        verify(client, never()).getAllFiltered(eq("org.foo:second:pom:*"), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testLargeGroupIsAbortedAndRemembered() throws Exception {
+        RemoteCollection<ArtifactInfo> group = artifacts(
+                "org.foo:first:pom:1.0",
+                "org.foo:second:pom:2.0",
+                "org.foo:third:pom:3.0",
+                "org.foo:fourth:pom:4.0");
+        RemoteCollection<ArtifactInfo> first = artifacts("org.foo:first:pom:1.0");
+        RemoteCollection<ArtifactInfo> second = artifacts("org.foo:second:pom:2.0");
+        when(client.getAllFiltered(eq(GROUP_PATTERN), any(), any(), any(), any())).thenReturn(group);
+        when(client.getAllFiltered(eq("org.foo:first:pom:*"), any(), any(), any(), any())).thenReturn(first);
+        when(client.getAllFiltered(eq("org.foo:second:pom:*"), any(), any(), any(), any())).thenReturn(second);
+
+        Map<GA, List<QualifiedVersion>> versions = connector
+                .getMavenVersionsBatch(new HashSet<>(Arrays.asList(FIRST, SECOND)), mode, Collections.emptySet());
+        connector.getMavenVersionsBatch(new HashSet<>(Arrays.asList(FIRST, SECOND)), mode, Collections.emptySet());
+
+        assertEquals(Collections.singletonList("1.0"), versionStrings(versions.get(FIRST)));
+        assertEquals(Collections.singletonList("2.0"), versionStrings(versions.get(SECOND)));
+        // the aborted group is not queried as a whole again
+        verify(client, times(1)).getAllFiltered(eq(GROUP_PATTERN), any(), any(), any(), any());
+        verify(client, times(2)).getAllFiltered(eq("org.foo:first:pom:*"), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testArtifactsUnderThresholdAreQueriedOneByOne() throws Exception {
+        RemoteCollection<ArtifactInfo> first = artifacts("org.foo:first:pom:1.0");
+        when(client.getAllFiltered(eq("org.foo:first:pom:*"), any(), any(), any(), any())).thenReturn(first);
+
+        Map<GA, List<QualifiedVersion>> versions = connector
+                .getMavenVersionsBatch(Collections.singleton(FIRST), mode, Collections.emptySet());
+
+        assertEquals(Collections.singletonList("1.0"), versionStrings(versions.get(FIRST)));
+        verify(client, never()).getAllFiltered(eq(GROUP_PATTERN), any(), any(), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RemoteCollection<ArtifactInfo> artifacts(String... identifiers) {
+        List<ArtifactInfo> artifacts = new ArrayList<>();
+        for (String identifier : identifiers) {
+            ArtifactInfo artifact = mock(ArtifactInfo.class);
+            when(artifact.getIdentifier()).thenReturn(identifier);
+            artifacts.add(artifact);
+        }
+        RemoteCollection<ArtifactInfo> collection = mock(RemoteCollection.class);
+        when(collection.iterator()).thenAnswer(invocation -> artifacts.iterator());
+        return collection;
+    }
+
+    private static List<String> versionStrings(List<QualifiedVersion> versions) {
+        return versions.stream().map(QualifiedVersion::getVersion).collect(Collectors.toList());
+    }
+
+    private static void injectField(String fieldName, Object to, Object what) throws ReflectiveOperationException {
+        Field f = PncConnectorImpl.class.getDeclaredField(fieldName);
+        f.setAccessible(true);
+        f.set(to, what);
+    }
+}
@@ -1,8 +1,12 @@
 package org.jboss.da.listings.api.dao;
 
 import org.jboss.da.listings.api.model.BlackArtifact;
+import org.jboss.da.listings.api.model.User;
+import org.jboss.da.model.rest.GAV;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 
@@ -20,4 +24,22 @@ public interface BlackArtifactDAO extends ArtifactDAO<BlackArtifact> {
      */
     List<BlackArtifact> findArtifacts(String groupId, String artifactId);
 
+    /**
+     * Creates the artifacts that don't exist yet in one transaction. Missing GAs are created as well. The GAs, the
+     * artifacts and their change log entries are each inserted by a single statement and one
+     * {@link org.jboss.da.listings.api.model.BlackArtifactChanges} event is fired for all the artifacts.
+     *
+     * @param gavs Artifacts to create, the versions must be already converted to the form stored in the list.
+     * @param insertedBy User creating the artifacts.
+     * @return Number of created artifacts.
+     */
+    int createAll(Collection<GAV> gavs, User insertedBy);
+
+    /**
+     * Passes all artifacts to the consumer without loading the whole list into memory.
+     *
+     * @param consumer Consumer of the artifacts.
+     */
+    void forEachArtifact(Consumer<BlackArtifact> consumer);
+
 }
@@ -0,0 +1,49 @@
+package org.jboss.da.listings.api.dao;
+
+import org.jboss.da.listings.api.model.BlackArtifactChange;
+import org.jboss.da.listings.api.model.BlackArtifactRevision;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BlackArtifactRevisionDAO extends GenericDAO<BlackArtifactRevision> {
+
+    /**
+     * Records the changes in the change log by a single statement.
+     *
+     * @param changes Changes to record.
+     */
+    void createAll(Collection<BlackArtifactChange> changes);
+
+    /**
+     * Returns the latest revision of the blocklist.
+     *
+     * @return Id of the latest change log entry or 0 when the change log is empty.
+     */
+    long findLatestRevision();
+
+    /**
+     * Finds the change log entries newer than the given revision.
+     *
+     * @param revision Last revision that should not be returned.
+     * @return List of change log entries ordered by revision.
+     */
+    List<BlackArtifactRevision> findRevisionsAfter(long revision);
+
+    /**
+     * Finds the ids of the change log entries newer than the given revision.
+     *
+     * @param revision Last revision that should not be returned.
+     * @return List of revisions in ascending order.
+     */
+    List<Long> findRevisionIdsAfter(long revision);
+
+    /**
+     * Finds the change log entries with the given revisions, the revisions that don't exist (yet) are skipped.
+     *
+     * @param revisions Revisions to find.
+     * @return List of change log entries ordered by revision.
+     */
+    List<BlackArtifactRevision> findRevisions(Collection<Long> revisions);
+
+}
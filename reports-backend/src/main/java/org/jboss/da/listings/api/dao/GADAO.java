@@ -2,6 +2,7 @@ package org.jboss.da.listings.api.dao;
 
 import org.jboss.da.listings.api.model.GA;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +26,14 @@ public interface GADAO extends GenericDAO<GA> {
      */
     Optional<GA> findGA(String groupId, String artifactId);
 
+    /**
+     * Finds GAs with specific groupIds and artifactIds in one query.
+     *
+     * @param gas groupIds and artifactIds to find
+     * @return list of found GAs
+     */
+    List<GA> findGAs(Collection<org.jboss.da.model.rest.GA> gas);
+
     /**
      * Finds all GA
      * 
@@ -22,6 +22,12 @@ import lombok.ToString;
 @MappedSuperclass
 public class Artifact extends GenericEntity {
 
+    /**
+     * Suffix of the name of the named query finding the artifact by groupId, artifactId and version. Every artifact
+     * entity must define this query named by its entity name followed by the suffix.
+     */
+    public static final String FIND_BY_GAV_SUFFIX = ".findByGAV";
+
     @Setter
     @Getter
     @NonNull
@@ -1,6 +1,11 @@
 package org.jboss.da.listings.api.model;
 
 import javax.persistence.Entity;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -11,8 +16,25 @@ import lombok.NoArgsConstructor;
  */
 @NoArgsConstructor(access = AccessLevel.PUBLIC)
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_blackartifact", columnNames = { "ga_id", "version" }))
+@NamedQueries({
+        @NamedQuery(
+                name = BlackArtifact.FIND_BY_GAV,
+                query = "SELECT a FROM BlackArtifact a JOIN FETCH a.ga g"
+                        + " WHERE g.groupId = :groupId AND g.artifactId = :artifactId AND a.version = :version"),
+        @NamedQuery(
+                name = BlackArtifact.FIND_BY_GA,
+                query = "SELECT a FROM BlackArtifact a JOIN FETCH a.ga g"
+                        + " WHERE g.groupId = :groupId AND g.artifactId = :artifactId"),
+        @NamedQuery(name = BlackArtifact.FIND_BY_GAS, query = "SELECT a FROM BlackArtifact a WHERE a.ga IN :gas") })
 public class BlackArtifact extends Artifact {
 
+    public static final String FIND_BY_GAV = "BlackArtifact" + Artifact.FIND_BY_GAV_SUFFIX;
+
+    public static final String FIND_BY_GA = "BlackArtifact.findByGA";
+
+    public static final String FIND_BY_GAS = "BlackArtifact.findByGAs";
+
     public BlackArtifact(GA ga, String version, User insertedBy) {
         super(ga, version, insertedBy);
     }
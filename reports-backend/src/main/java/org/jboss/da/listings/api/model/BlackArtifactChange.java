@@ -0,0 +1,36 @@
+package org.jboss.da.listings.api.model;
+
+import lombok.Value;
+
+/**
+ * CDI event fired when a blocklisted artifact is added or removed. The event is fired within the transaction that
+ * modifies the blocklist.
+ */
+@Value
+public class BlackArtifactChange {
+
+    public enum Type {
+        ADDED, REMOVED
+    }
+
+    Type type;
+
+    String groupId;
+
+    String artifactId;
+
+    String version;
+
+    public static BlackArtifactChange added(BlackArtifact artifact) {
+        return of(Type.ADDED, artifact);
+    }
+
+    public static BlackArtifactChange removed(BlackArtifact artifact) {
+        return of(Type.REMOVED, artifact);
+    }
+
+    private static BlackArtifactChange of(Type type, BlackArtifact artifact) {
+        GA ga = artifact.getGa();
+        return new BlackArtifactChange(type, ga.getGroupId(), ga.getArtifactId(), artifact.getVersion());
+    }
+}
@@ -0,0 +1,15 @@
+package org.jboss.da.listings.api.model;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * CDI event fired when a chunk of blocklisted artifacts is changed at once, e.g. by a bulk import. The event is fired
+ * within the transaction that modifies the blocklist.
+ */
+@Value
+public class BlackArtifactChanges {
+
+    List<BlackArtifactChange> changes;
+}
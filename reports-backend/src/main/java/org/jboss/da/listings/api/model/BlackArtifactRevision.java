@@ -0,0 +1,52 @@
+package org.jboss.da.listings.api.model;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Entry of the blocklist change log. Every change of the blocklist is recorded in the same transaction as the change
+ * itself and the generated id serves as the revision of the blocklist, so other nodes can apply the changes made since
+ * the last revision they have seen.
+ */
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+@EqualsAndHashCode(callSuper = true)
+@Entity
+public class BlackArtifactRevision extends GenericEntity {
+
+    @Getter
+    @NonNull
+    @Enumerated(EnumType.STRING)
+    private BlackArtifactChange.Type type;
+
+    @Getter
+    @NonNull
+    private String groupId;
+
+    @Getter
+    @NonNull
+    private String artifactId;
+
+    @Getter
+    @NonNull
+    private String version;
+
+    public BlackArtifactRevision(BlackArtifactChange change) {
+        this.type = change.getType();
+        this.groupId = change.getGroupId();
+        this.artifactId = change.getArtifactId();
+        this.version = change.getVersion();
+    }
+
+    public BlackArtifactChange toChange() {
+        return new BlackArtifactChange(type, groupId, artifactId, version);
+    }
+}
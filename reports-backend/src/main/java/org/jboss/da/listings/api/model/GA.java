@@ -1,6 +1,9 @@
 package org.jboss.da.listings.api.model;
 
 import javax.persistence.Entity;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
@@ -21,8 +24,14 @@ import lombok.ToString;
 @ToString
 @EqualsAndHashCode(callSuper = true)
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_ga", columnNames = { "groupId", "artifactId" }))
+@NamedQuery(
+        name = GA.FIND_BY_GA,
+        query = "SELECT g FROM GA g WHERE g.groupId = :groupId AND g.artifactId = :artifactId")
 public class GA extends GenericEntity {
 
+    public static final String FIND_BY_GA = "GA.findByGA";
+
     @Setter
     @Getter
     @NonNull
@@ -3,9 +3,14 @@ package org.jboss.da.listings.api.service;
 import java.util.Optional;
 
 import org.jboss.da.listings.api.model.BlackArtifact;
+import org.jboss.da.model.rest.GA;
 import org.jboss.da.model.rest.GAV;
 
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * 
@@ -34,6 +39,16 @@ public interface BlackArtifactService extends ArtifactService<BlackArtifact> {
      */
     boolean isArtifactPresent(GAV gav);
 
+    /**
+     * Returns the versions of the artifact that are contained in the list. All restrictions and conversions are applied
+     * like using isArtifactPresent method, but the whole collection is checked in one call.
+     *
+     * @param ga groupId and artifactId of the artifact.
+     * @param versions versions to check.
+     * @return Subset of the given versions that are contained in the list.
+     */
+    Set<String> getBlockedVersions(GA ga, Collection<String> versions);
+
     /**
      * Add artifact to blacklist. If the version contains redhat suffix it is removed. Then the version is converted to
      * OSGi version. It also removes all redhat suffixed artifacts (with given groupId, artifactId and OSGi verison)
@@ -68,4 +83,22 @@ public interface BlackArtifactService extends ArtifactService<BlackArtifact> {
     public boolean removeArtifact(String groupId, String artifactId, String version);
 
     public Set<BlackArtifact> getArtifacts(String groupId, String artifactId);
+
+    /**
+     * Adds all the artifacts to blacklist. Versions are converted the same way as in addArtifact method. The artifacts
+     * are imported in chunks, each chunk in its own transaction, so chunks imported before a failure stay imported.
+     * The exception thrown on a failure says how many artifacts from the start of the input were imported, so the
+     * import can be resumed after them.
+     *
+     * @param artifacts Artifacts to add, they are read lazily.
+     * @return Number of artifacts for ADDED and NOT_MODIFIED status.
+     * @throws IllegalArgumentException when reading of an artifact fails, e.g. the artifact is invalid.
+     * @throws IllegalStateException when storing of the artifacts fails.
+     */
+    public Map<ArtifactStatus, Integer> importArtifacts(Iterator<GAV> artifacts);
+
+    /**
+     * Passes all artifacts in blacklist to the consumer without loading the whole list into memory.
+     */
+    public void exportArtifacts(Consumer<BlackArtifact> consumer);
 }
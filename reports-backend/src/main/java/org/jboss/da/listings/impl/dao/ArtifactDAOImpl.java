@@ -7,12 +7,10 @@ import javax.persistence.NoResultException;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Join;
 import javax.persistence.criteria.Root;
 
 import org.jboss.da.listings.api.dao.ArtifactDAO;
 import org.jboss.da.listings.api.model.Artifact;
-import org.jboss.da.listings.api.model.GA;
 
 /**
  * 
@@ -28,17 +26,10 @@ public class ArtifactDAOImpl<T extends Artifact> extends GenericDAOImpl<T> imple
     @Override
     public Optional<T> findArtifact(String groupId, String artifactId, String version) {
         try {
-            CriteriaBuilder cb = em.getCriteriaBuilder();
-            CriteriaQuery<T> cq = cb.createQuery(type);
-            Root<T> artifact = cq.from(type);
-            Join<T, GA> ga = artifact.join("ga");
-            cq.select(artifact)
-                    .where(
-                            cb.and(
-                                    cb.equal(ga.get("artifactId"), artifactId),
-                                    cb.equal(ga.get("groupId"), groupId),
-                                    cb.equal(artifact.get("version"), version)));
-            TypedQuery<T> q = em.createQuery(cq);
+            TypedQuery<T> q = em.createNamedQuery(type.getSimpleName() + Artifact.FIND_BY_GAV_SUFFIX, type)
+                    .setParameter("groupId", groupId)
+                    .setParameter("artifactId", artifactId)
+                    .setParameter("version", version);
             return Optional.of(q.getSingleResult());
         } catch (NoResultException e) {
             return Optional.empty();
@@ -2,16 +2,34 @@ package org.jboss.da.listings.impl.dao;
 
 import org.jboss.da.common.logging.AuditLogger;
 import org.jboss.da.listings.api.dao.BlackArtifactDAO;
+import org.jboss.da.listings.api.dao.BlackArtifactRevisionDAO;
+import org.jboss.da.listings.api.dao.GADAO;
 import org.jboss.da.listings.api.model.BlackArtifact;
+import org.jboss.da.listings.api.model.BlackArtifactChange;
+import org.jboss.da.listings.api.model.BlackArtifactChanges;
+import org.jboss.da.listings.api.model.BlackArtifactRevision;
 import org.jboss.da.listings.api.model.GA;
+import org.jboss.da.listings.api.model.User;
+import org.jboss.da.model.rest.GAV;
 
 import javax.ejb.Stateless;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Join;
 import javax.persistence.criteria.Root;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author Jozef Mrazek &lt;jmrazek@redhat.com&gt;
@@ -24,6 +42,20 @@ public class BlackArtifactDAOImpl extends ArtifactDAOImpl<BlackArtifact> impleme
         super(BlackArtifact.class);
     }
 
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    @Inject
+    private BlackArtifactRevisionDAO revisionDAO;
+
+    @Inject
+    private GADAO gaDAO;
+
+    @Inject
+    private Event<BlackArtifactChange> changes;
+
+    @Inject
+    private Event<BlackArtifactChanges> chunkChanges;
+
     @Override
     public void create(BlackArtifact entity) {
         try {
@@ -33,17 +65,105 @@ public class BlackArtifactDAOImpl extends ArtifactDAOImpl<BlackArtifact> impleme
             throw ex;
         }
         AuditLogger.LOG.info("Added blocklisted artifact " + entity.gav() + ".");
+        recordChange(BlackArtifactChange.added(entity));
+    }
+
+    @Override
+    public void delete(BlackArtifact entity) {
+        super.delete(entity);
+        recordChange(BlackArtifactChange.removed(entity));
+    }
+
+    private void recordChange(BlackArtifactChange change) {
+        revisionDAO.create(new BlackArtifactRevision(change));
+        changes.fire(change);
     }
 
     @Override
     public List<BlackArtifact> findArtifacts(String groupId, String artifactId) {
+        return em.createNamedQuery(BlackArtifact.FIND_BY_GA, type)
+                .setParameter("groupId", groupId)
+                .setParameter("artifactId", artifactId)
+                .getResultList();
+    }
+
+    @Override
+    public int createAll(Collection<GAV> gavs, User insertedBy) {
+        if (gavs.isEmpty()) {
+            return 0;
+        }
+        Set<org.jboss.da.model.rest.GA> requestedGAs = gavs.stream().map(GAV::getGA).collect(Collectors.toSet());
+        Map<org.jboss.da.model.rest.GA, GA> gas = findGAs(requestedGAs);
+        Set<org.jboss.da.model.rest.GA> missingGAs = new HashSet<>(requestedGAs);
+        missingGAs.removeAll(gas.keySet());
+        if (!missingGAs.isEmpty()) {
+            insertAll(
+                    "GA",
+                    Arrays.asList("groupId", "artifactId"),
+                    missingGAs,
+                    ga -> Arrays.asList(ga.getGroupId(), ga.getArtifactId()));
+            gas.putAll(findGAs(missingGAs));
+        }
+
+        Set<GAV> existing = findArtifacts(gas.values()).stream()
+                .map(a -> new GAV(a.getGa().getGroupId(), a.getGa().getArtifactId(), a.getVersion()))
+                .collect(Collectors.toCollection(HashSet::new));
+        List<GAV> created = gavs.stream().filter(existing::add).collect(Collectors.toList());
+        if (created.isEmpty()) {
+            return 0;
+        }
+        insertAll(
+                "BlackArtifact",
+                Arrays.asList("ga_id", "version", "insertedBy_id"),
+                created,
+                gav -> Arrays.asList(gas.get(gav.getGA()).getId(), gav.getVersion(), insertedBy.getId()));
+        List<BlackArtifactChange> added = created.stream()
+                .map(
+                        gav -> new BlackArtifactChange(
+                                BlackArtifactChange.Type.ADDED,
+                                gav.getGroupId(),
+                                gav.getArtifactId(),
+                                gav.getVersion()))
+                .collect(Collectors.toList());
+        revisionDAO.createAll(added);
+        created.forEach(gav -> AuditLogger.LOG.info("Added blocklisted artifact " + gav + "."));
+        chunkChanges.fire(new BlackArtifactChanges(added));
+        return created.size();
+    }
+
+    private Map<org.jboss.da.model.rest.GA, GA> findGAs(Collection<org.jboss.da.model.rest.GA> gas) {
+        return gaDAO.findGAs(gas)
+                .stream()
+                .collect(
+                        Collectors.toMap(
+                                ga -> new org.jboss.da.model.rest.GA(ga.getGroupId(), ga.getArtifactId()),
+                                Function.identity()));
+    }
+
+    @Override
+    public void forEachArtifact(Consumer<BlackArtifact> consumer) {
         CriteriaBuilder cb = em.getCriteriaBuilder();
         CriteriaQuery<BlackArtifact> cq = cb.createQuery(type);
         Root<BlackArtifact> artifact = cq.from(type);
-        Join<BlackArtifact, GA> ga = artifact.join("ga");
-        cq.select(artifact)
-                .where(cb.and(cb.equal(ga.get("artifactId"), artifactId), cb.equal(ga.get("groupId"), groupId)));
+        artifact.fetch("ga");
+        cq.select(artifact);
         TypedQuery<BlackArtifact> q = em.createQuery(cq);
-        return q.getResultList();
+        q.setHint("org.hibernate.fetchSize", EXPORT_FETCH_SIZE);
+        q.setHint("org.hibernate.readOnly", true);
+        int count = 0;
+        try (Stream<BlackArtifact> artifacts = q.getResultStream()) {
+            Iterator<BlackArtifact> it = artifacts.iterator();
+            while (it.hasNext()) {
+                consumer.accept(it.next());
+                // keep the persistence context small, processed artifacts are not needed anymore
+                if (++count % EXPORT_FETCH_SIZE == 0) {
+                    em.clear();
+                }
+            }
+        }
+    }
+
+    private List<BlackArtifact> findArtifacts(Collection<GA> gas) {
+        return em.createNamedQuery(BlackArtifact.FIND_BY_GAS, type).setParameter("gas", gas).getResultList();
     }
 }
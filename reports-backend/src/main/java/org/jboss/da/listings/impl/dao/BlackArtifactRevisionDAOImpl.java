@@ -0,0 +1,74 @@
+package org.jboss.da.listings.impl.dao;
+
+import org.jboss.da.listings.api.dao.BlackArtifactRevisionDAO;
+import org.jboss.da.listings.api.model.BlackArtifactChange;
+import org.jboss.da.listings.api.model.BlackArtifactRevision;
+
+import javax.ejb.Stateless;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+@Stateless
+public class BlackArtifactRevisionDAOImpl extends GenericDAOImpl<BlackArtifactRevision>
+        implements BlackArtifactRevisionDAO {
+
+    public BlackArtifactRevisionDAOImpl() {
+        super(BlackArtifactRevision.class);
+    }
+
+    @Override
+    public void createAll(Collection<BlackArtifactChange> changes) {
+        insertAll(
+                "BlackArtifactRevision",
+                Arrays.asList("type", "groupId", "artifactId", "version"),
+                changes,
+                c -> Arrays.asList(c.getType().name(), c.getGroupId(), c.getArtifactId(), c.getVersion()));
+    }
+
+    @Override
+    public long findLatestRevision() {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<BlackArtifactRevision> revision = cq.from(type);
+        cq.select(cb.max(revision.get("id")));
+        Long latest = em.createQuery(cq).getSingleResult();
+        return latest == null ? 0 : latest;
+    }
+
+    @Override
+    public List<BlackArtifactRevision> findRevisionsAfter(long revision) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<BlackArtifactRevision> cq = cb.createQuery(type);
+        Root<BlackArtifactRevision> root = cq.from(type);
+        cq.select(root).where(cb.gt(root.get("id"), revision)).orderBy(cb.asc(root.get("id")));
+        TypedQuery<BlackArtifactRevision> q = em.createQuery(cq);
+        return q.getResultList();
+    }
+
+    @Override
+    public List<Long> findRevisionIdsAfter(long revision) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<BlackArtifactRevision> root = cq.from(type);
+        cq.select(root.get("id")).where(cb.gt(root.get("id"), revision)).orderBy(cb.asc(root.get("id")));
+        return em.createQuery(cq).getResultList();
+    }
+
+    @Override
+    public List<BlackArtifactRevision> findRevisions(Collection<Long> revisions) {
+        if (revisions.isEmpty()) {
+            return Collections.emptyList();
+        }
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<BlackArtifactRevision> cq = cb.createQuery(type);
+        Root<BlackArtifactRevision> root = cq.from(type);
+        cq.select(root).where(root.get("id").in(revisions)).orderBy(cb.asc(root.get("id")));
+        return em.createQuery(cq).getResultList();
+    }
+}
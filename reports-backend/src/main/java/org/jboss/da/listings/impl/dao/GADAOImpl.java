@@ -10,8 +10,13 @@ import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Stateless
 public class GADAOImpl extends GenericDAOImpl<GA> implements GADAO {
@@ -23,18 +28,37 @@ public class GADAOImpl extends GenericDAOImpl<GA> implements GADAO {
     @Override
     public Optional<GA> findGA(String groupId, String artifactId) {
         try {
-            CriteriaBuilder cb = em.getCriteriaBuilder();
-            CriteriaQuery<GA> cq = cb.createQuery(type);
-            Root<GA> ga = cq.from(type);
-            cq.select(ga)
-                    .where(cb.and(cb.equal(ga.get("groupId"), groupId), cb.equal(ga.get("artifactId"), artifactId)));
-            TypedQuery<GA> q = em.createQuery(cq);
+            TypedQuery<GA> q = em.createNamedQuery(GA.FIND_BY_GA, type)
+                    .setParameter("groupId", groupId)
+                    .setParameter("artifactId", artifactId);
             return Optional.of(q.getSingleResult());
         } catch (NoResultException e) {
             return Optional.empty();
         }
     }
 
+    @Override
+    public List<GA> findGAs(Collection<org.jboss.da.model.rest.GA> gas) {
+        if (gas.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<String> groupIds = gas.stream().map(org.jboss.da.model.rest.GA::getGroupId).collect(Collectors.toSet());
+        Set<String> artifactIds = gas.stream()
+                .map(org.jboss.da.model.rest.GA::getArtifactId)
+                .collect(Collectors.toSet());
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<GA> cq = cb.createQuery(type);
+        Root<GA> ga = cq.from(type);
+        cq.select(ga).where(cb.and(ga.get("groupId").in(groupIds), ga.get("artifactId").in(artifactIds)));
+        TypedQuery<GA> q = em.createQuery(cq);
+        // the query can match also combinations of groupIds and artifactIds that were not requested
+        Set<org.jboss.da.model.rest.GA> requested = new HashSet<>(gas);
+        return q.getResultList()
+                .stream()
+                .filter(g -> requested.contains(new org.jboss.da.model.rest.GA(g.getGroupId(), g.getArtifactId())))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<GA> findAll() {
         CriteriaBuilder cb = em.getCriteriaBuilder();
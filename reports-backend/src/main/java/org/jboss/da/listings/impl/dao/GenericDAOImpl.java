@@ -5,6 +5,12 @@ import static java.util.Objects.requireNonNull;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.jboss.da.common.logging.AuditLogger;
 import org.jboss.da.listings.api.dao.GenericDAO;
@@ -74,4 +80,39 @@ public abstract class GenericDAOImpl<T extends GenericEntity> implements Generic
         AuditLogger.LOG.info("Deleted entity " + type.getSimpleName() + " with id " + id + ".");
     }
 
+    /**
+     * Inserts the rows by a single multi-row statement. Hibernate can't batch the inserts of entities with identity
+     * ids, so bulk inserts bypass the persistence context. The inserted rows have to be read again when needed.
+     *
+     * @param table Name of the table.
+     * @param columns Names of the inserted columns.
+     * @param rows Objects to insert.
+     * @param values Function returning the values of the columns for the object.
+     */
+    protected <E> void insertAll(
+            String table,
+            List<String> columns,
+            Collection<E> rows,
+            Function<E, List<?>> values) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        String row = columns.stream().map(c -> "?").collect(Collectors.joining(", ", "(", ")"));
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                .append(" (")
+                .append(String.join(", ", columns))
+                .append(") VALUES ");
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(row);
+        }
+        Query query = em.createNativeQuery(sql.toString());
+        int position = 1;
+        for (E r : rows) {
+            for (Object value : values.apply(r)) {
+                query.setParameter(position++, value);
+            }
+        }
+        query.executeUpdate();
+    }
+
 }
@@ -0,0 +1,300 @@
+package org.jboss.da.listings.impl.service;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jboss.da.common.util.Configuration;
+import org.jboss.da.common.util.ConfigurationParseException;
+import org.jboss.da.listings.api.dao.BlackArtifactDAO;
+import org.jboss.da.listings.api.dao.BlackArtifactRevisionDAO;
+import org.jboss.da.listings.api.model.BlackArtifact;
+import org.jboss.da.listings.api.model.BlackArtifactChange;
+import org.jboss.da.listings.api.model.BlackArtifactChanges;
+import org.jboss.da.listings.api.model.BlackArtifactRevision;
+import org.jboss.pnc.pncmetrics.MetricsConfiguration;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory copy of the blocklisted versions grouped by groupId:artifactId, so the blocklist can be queried without
+ * hitting the database.
+ *
+ * The index is loaded when the application starts. Changes made on this node are applied by the
+ * {@link BlackArtifactChange} and {@link BlackArtifactChanges} events fired by the DAO after the modifying transaction
+ * commits. Changes made on other nodes are read from the blocklist change log, which is polled in the configured
+ * interval. The whole index is reloaded in the configured reload interval as well, to recover from anything the polls
+ * might have missed.
+ */
+@Slf4j
+@ApplicationScoped
+public class BlackArtifactIndex {
+
+    private static final String METRICS_KEY = "da.blocklist.index";
+
+    /**
+     * Maximal number of missing revisions that are tracked, a larger gap is resolved by reloading the whole index.
+     */
+    private static final int MAX_GAPS = 1000;
+
+    /**
+     * Time in milliseconds after which a missing revision is assumed to be rolled back. It is longer than any
+     * transaction may run.
+     */
+    private static final long GAP_TIMEOUT = TimeUnit.MINUTES.toMillis(15);
+
+    @Inject
+    private BlackArtifactDAO blackArtifactDAO;
+
+    @Inject
+    private BlackArtifactRevisionDAO revisionDAO;
+
+    @Inject
+    private Configuration configuration;
+
+    @Inject
+    private MetricsConfiguration metricsConfiguration;
+
+    @Resource
+    private ManagedScheduledExecutorService scheduledExecutorService;
+
+    private volatile Map<String, Set<String>> versions = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    /**
+     * The highest revision applied to the index.
+     */
+    private long revision;
+
+    /**
+     * Revisions lower than {@link #revision} that were not seen yet, mapped to the time in milliseconds when they were
+     * found missing. Revision ids are assigned on insert, not on commit, so a transaction that commits after a
+     * concurrent one can have a lower revision, e.g. a single change committed after a chunk of a bulk import. The
+     * missing revisions are read again by every poll until they show up or until they time out as rolled back.
+     */
+    private final Map<Long, Long> gaps = new HashMap<>();
+
+    /** Time in milliseconds when the index was last synchronized with the database. */
+    private volatile long lastSync;
+
+    /** Time in milliseconds when the index was last loaded from the database. */
+    private long lastLoad;
+
+    private long reloadInterval;
+
+    private ScheduledFuture<?> poller;
+
+    public BlackArtifactIndex() {
+    }
+
+    BlackArtifactIndex(BlackArtifactDAO blackArtifactDAO, BlackArtifactRevisionDAO revisionDAO) {
+        this.blackArtifactDAO = blackArtifactDAO;
+        this.revisionDAO = revisionDAO;
+    }
+
+    void onStartup(@Observes @Initialized(ApplicationScoped.class) Object init) {
+        registerMetrics();
+        try {
+            load();
+        } catch (RuntimeException ex) {
+            log.warn("Failed to load blocklist index, it will be loaded on first use.", ex);
+        }
+        startPolling();
+    }
+
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) BlackArtifactChange change) {
+        synchronized (this) {
+            if (loaded) {
+                apply(change);
+            }
+        }
+    }
+
+    void onChanges(@Observes(during = TransactionPhase.AFTER_SUCCESS) BlackArtifactChanges changes) {
+        synchronized (this) {
+            if (loaded) {
+                changes.getChanges().forEach(this::apply);
+            }
+        }
+    }
+
+    @PreDestroy
+    synchronized void stopPolling() {
+        if (poller != null) {
+            poller.cancel(false);
+            poller = null;
+        }
+    }
+
+    /**
+     * Returns true when the exact version of the artifact is blocklisted.
+     */
+    public boolean contains(String groupId, String artifactId, String version) {
+        return getVersions(groupId, artifactId).contains(version);
+    }
+
+    /**
+     * Returns unmodifiable view of the blocklisted versions of the artifact.
+     */
+    public Set<String> getVersions(String groupId, String artifactId) {
+        if (!loaded) {
+            load();
+        }
+        Set<String> gaVersions = versions.get(key(groupId, artifactId));
+        return gaVersions == null ? Collections.emptySet() : Collections.unmodifiableSet(gaVersions);
+    }
+
+    /**
+     * Reloads the index from the database.
+     */
+    public synchronized void load() {
+        // read the revisions first, changes committed during the load are applied again by the next poll
+        long latestRevision = revisionDAO.findLatestRevision();
+        List<Long> recentRevisions = revisionDAO.findRevisionIdsAfter(Math.max(0, latestRevision - MAX_GAPS));
+        List<BlackArtifact> artifacts = blackArtifactDAO.findAll();
+        Map<String, Set<String>> loadedVersions = new ConcurrentHashMap<>();
+        for (BlackArtifact artifact : artifacts) {
+            loadedVersions
+                    .computeIfAbsent(
+                            key(artifact.getGa().getGroupId(), artifact.getGa().getArtifactId()),
+                            k -> ConcurrentHashMap.newKeySet())
+                    .add(artifact.getVersion());
+        }
+        versions = loadedVersions;
+        revision = latestRevision;
+        lastSync = System.currentTimeMillis();
+        lastLoad = lastSync;
+        loaded = true;
+        // the revisions missing below the latest one may belong to transactions that haven't committed yet
+        gaps.clear();
+        long expected = Math.max(0, latestRevision - MAX_GAPS) + 1;
+        for (long present : recentRevisions) {
+            addGaps(expected, Math.min(present, latestRevision + 1), lastSync);
+            expected = present + 1;
+        }
+        addGaps(expected, latestRevision + 1, lastSync);
+        log.info("Loaded {} blocklisted artifacts into the index at revision {}.", artifacts.size(), revision);
+    }
+
+    /**
+     * Applies the changes recorded in the change log since the last poll and the late commits of the missing
+     * revisions.
+     */
+    synchronized void poll() {
+        long now = System.currentTimeMillis();
+        if (!loaded || (reloadInterval > 0 && now - lastLoad >= reloadInterval)) {
+            load();
+            return;
+        }
+        gaps.values().removeIf(missingSince -> now - missingSince > GAP_TIMEOUT);
+        List<BlackArtifactRevision> revisions = new ArrayList<>(revisionDAO.findRevisions(gaps.keySet()));
+        revisions.addAll(revisionDAO.findRevisionsAfter(revision));
+        revisions.sort(Comparator.comparing(BlackArtifactRevision::getId));
+        for (BlackArtifactRevision r : revisions) {
+            long id = r.getId();
+            if (gaps.remove(id) == null && id > revision) {
+                if (!addGaps(revision + 1, id, now)) {
+                    log.warn("Too many blocklist revisions missing before revision {}, reloading the index.", id);
+                    load();
+                    return;
+                }
+                revision = id;
+            }
+            apply(r.toChange());
+        }
+        lastSync = now;
+    }
+
+    /**
+     * Remembers the revisions from the given one (inclusive) to the given one (exclusive) as missing.
+     *
+     * @return false when there would be too many missing revisions.
+     */
+    private boolean addGaps(long from, long to, long now) {
+        if (to - from + gaps.size() > MAX_GAPS) {
+            return false;
+        }
+        for (long missing = from; missing < to; missing++) {
+            gaps.put(missing, now);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the time in milliseconds since the index was last synchronized with the database.
+     */
+    long getStaleness() {
+        return loaded ? System.currentTimeMillis() - lastSync : -1;
+    }
+
+    private void apply(BlackArtifactChange change) {
+        String key = key(change.getGroupId(), change.getArtifactId());
+        switch (change.getType()) {
+            case ADDED:
+                versions.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(change.getVersion());
+                break;
+            case REMOVED:
+                versions.computeIfPresent(key, (k, v) -> {
+                    v.remove(change.getVersion());
+                    return v.isEmpty() ? null : v;
+                });
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown blocklist change " + change.getType());
+        }
+    }
+
+    private synchronized void startPolling() {
+        long interval;
+        try {
+            interval = configuration.getConfig().getBlocklistPollInterval();
+            reloadInterval = configuration.getConfig().getBlocklistReloadInterval();
+        } catch (ConfigurationParseException ex) {
+            throw new IllegalStateException("Configuration failure, can't read blocklist poll interval", ex);
+        }
+        if (interval > 0 && poller == null) {
+            poller = scheduledExecutorService
+                    .scheduleWithFixedDelay(this::pollSafely, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException ex) {
+            log.warn("Failed to poll blocklist changes.", ex);
+        }
+    }
+
+    private void registerMetrics() {
+        MetricRegistry registry = metricsConfiguration.getMetricRegistry();
+        if (registry != null) {
+            String name = METRICS_KEY + ".staleness";
+            registry.remove(name);
+            registry.register(name, (Gauge<Long>) this::getStaleness);
+        }
+    }
+
+    private static String key(String groupId, String artifactId) {
+        return groupId + ':' + artifactId;
+    }
+}
@@ -10,12 +10,22 @@ import org.jboss.da.listings.api.dao.BlackArtifactDAO;
 import org.jboss.da.listings.api.dao.GADAO;
 import org.jboss.da.listings.api.model.BlackArtifact;
 import org.jboss.da.listings.api.model.GA;
+import org.jboss.da.listings.api.model.User;
 import org.jboss.da.listings.api.service.BlackArtifactService;
 import org.jboss.da.model.rest.GAV;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.jboss.pnc.common.version.SuffixedVersion;
 import org.jboss.pnc.common.version.VersionParser;
@@ -28,12 +38,17 @@ import org.jboss.pnc.common.version.VersionParser;
 @ApplicationScoped
 public class BlackArtifactServiceImpl extends ArtifactServiceImpl<BlackArtifact> implements BlackArtifactService {
 
+    private static final int IMPORT_CHUNK_SIZE = 500;
+
     @Inject
     private BlackArtifactDAO blackArtifactDAO;
 
     @Inject
     private GADAO gaDAO;
 
+    @Inject
+    private BlackArtifactIndex index;
+
     @Override
     protected ArtifactDAO<BlackArtifact> getDAO() {
         return blackArtifactDAO;
@@ -60,13 +75,8 @@ public class BlackArtifactServiceImpl extends ArtifactServiceImpl<BlackArtifact>
 
     @Override
     public Optional<BlackArtifact> getArtifact(String groupId, String artifactId, String version) {
-        SuffixedVersion parsedVersion = versionParser.parse(version);
-        Optional<BlackArtifact> artifact = blackArtifactDAO
-                .findArtifact(groupId, artifactId, parsedVersion.unsuffixedVersion());
-        if (parsedVersion.isSuffixed() && !artifact.isPresent()) {
-            artifact = blackArtifactDAO.findArtifact(groupId, artifactId, VersionParser.getOSGiVersion(version));
-        }
-        return artifact;
+        return findBlockedVersion(groupId, artifactId, version)
+                .flatMap(v -> blackArtifactDAO.findArtifact(groupId, artifactId, v));
     }
 
     @Override
@@ -81,7 +91,41 @@ public class BlackArtifactServiceImpl extends ArtifactServiceImpl<BlackArtifact>
 
     @Override
     public boolean isArtifactPresent(String groupId, String artifactId, String version) {
-        return getArtifact(groupId, artifactId, version).isPresent();
+        return findBlockedVersion(groupId, artifactId, version).isPresent();
+    }
+
+    @Override
+    public Set<String> getBlockedVersions(org.jboss.da.model.rest.GA ga, Collection<String> versions) {
+        Set<String> blocked = index.getVersions(ga.getGroupId(), ga.getArtifactId());
+        if (blocked.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return versions.stream()
+                .filter(v -> findBlockedVersion(blocked, v).isPresent())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Finds the blocklisted version matching the given version. The version matches when its unsuffixed form is
+     * blocklisted or, for suffixed versions, when its OSGi form is blocklisted.
+     */
+    private Optional<String> findBlockedVersion(String groupId, String artifactId, String version) {
+        return findBlockedVersion(index.getVersions(groupId, artifactId), version);
+    }
+
+    private Optional<String> findBlockedVersion(Set<String> blocked, String version) {
+        if (blocked.isEmpty()) {
+            return Optional.empty();
+        }
+        SuffixedVersion parsedVersion = versionParser.parse(version);
+        if (blocked.contains(parsedVersion.unsuffixedVersion())) {
+            return Optional.of(parsedVersion.unsuffixedVersion());
+        }
+        String osgiVersion = VersionParser.getOSGiVersion(version);
+        if (parsedVersion.isSuffixed() && blocked.contains(osgiVersion)) {
+            return Optional.of(osgiVersion);
+        }
+        return Optional.empty();
     }
 
     @Override
@@ -102,4 +146,58 @@ public class BlackArtifactServiceImpl extends ArtifactServiceImpl<BlackArtifact>
         ret.addAll(blackArtifactDAO.findArtifacts(groupId, artifactId));
         return ret;
     }
+
+    @Override
+    public Map<ArtifactStatus, Integer> importArtifacts(Iterator<GAV> artifacts) {
+        User user = currentUser();
+        int total = 0;
+        int committed = 0;
+        int added = 0;
+        Set<GAV> chunk = new LinkedHashSet<>();
+        while (true) {
+            GAV gav;
+            try {
+                if (!artifacts.hasNext()) {
+                    break;
+                }
+                gav = artifacts.next();
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException(
+                        "Artifact #" + (total + 1) + " is invalid, the first " + committed
+                                + " artifacts were imported: " + ex.getMessage(),
+                        ex);
+            }
+            chunk.add(new GAV(gav.getGA(), VersionParser.getOSGiVersion(gav.getVersion())));
+            total++;
+            if (chunk.size() >= IMPORT_CHUNK_SIZE) {
+                added += createAll(chunk, user, committed);
+                committed = total;
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            added += createAll(chunk, user, committed);
+        }
+
+        Map<ArtifactStatus, Integer> result = new EnumMap<>(ArtifactStatus.class);
+        result.put(ArtifactStatus.ADDED, added);
+        result.put(ArtifactStatus.NOT_MODIFIED, total - added);
+        return result;
+    }
+
+    private int createAll(Set<GAV> chunk, User user, int committed) {
+        try {
+            return blackArtifactDAO.createAll(chunk, user);
+        } catch (RuntimeException ex) {
+            throw new IllegalStateException(
+                    "Failed to import artifacts, the first " + committed + " artifacts were imported: "
+                            + ex.getMessage(),
+                    ex);
+        }
+    }
+
+    @Override
+    public void exportArtifacts(Consumer<BlackArtifact> consumer) {
+        blackArtifactDAO.forEachArtifact(consumer);
+    }
 }
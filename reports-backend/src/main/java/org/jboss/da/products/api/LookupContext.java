@@ -0,0 +1,68 @@
+package org.jboss.da.products.api;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import org.jboss.da.common.json.LookupMode;
+import org.jboss.pnc.common.version.VersionParser;
+import org.jboss.pnc.dto.requests.QValue;
+import org.jboss.pnc.enums.ArtifactQuality;
+import org.jboss.pnc.enums.BuildCategory;
+
+import java.util.Set;
+
+import static org.jboss.da.reports.impl.ReportsGeneratorImpl.DEFAULT_SUFFIX;
+
+/**
+ * Configuration of a single lookup that is passed to the product providers with every query. The context is immutable
+ * so it can be safely shared between the threads resolving the query and the providers don't need to hold any
+ * per-request state.
+ */
+@Getter
+@ToString(exclude = "versionParser")
+@EqualsAndHashCode(of = { "mode", "qualifiers" })
+public final class LookupContext {
+
+    /**
+     * Context used when no lookup mode was requested.
+     */
+    public static final LookupContext DEFAULT = new LookupContext(defaultMode());
+
+    /**
+     * The configuration of the lookup. Must not be modified after the context is created.
+     */
+    private final LookupMode mode;
+
+    /**
+     * Qualifiers that should be retrieved together with the artifact versions.
+     */
+    private final Set<QValue> qualifiers;
+
+    /**
+     * Version parser recognizing the suffixes of the lookup mode.
+     */
+    private final VersionParser versionParser;
+
+    public LookupContext(LookupMode mode) {
+        this(mode, Set.of());
+    }
+
+    public LookupContext(@NonNull LookupMode mode, @NonNull Set<QValue> qualifiers) {
+        this.mode = mode;
+        this.qualifiers = Set.copyOf(qualifiers);
+        this.versionParser = new VersionParser(mode.getSuffixes());
+    }
+
+    private static LookupMode defaultMode() {
+        LookupMode mode = new LookupMode();
+        mode.setName("DEFAULT");
+        mode.getBuildCategories().add(BuildCategory.STANDARD);
+        mode.getArtifactQualities().add(ArtifactQuality.NEW);
+        mode.getArtifactQualities().add(ArtifactQuality.VERIFIED);
+        mode.getArtifactQualities().add(ArtifactQuality.TESTED);
+        mode.getSuffixes().add(DEFAULT_SUFFIX);
+        return mode;
+    }
+}
@@ -52,9 +52,10 @@ public interface ProductProvider {
      * Get all artifacts with the same name and type as given artifact and their products.
      *
      * @param artifact artifact which name and type will be used for searching.
+     * @param context configuration of the lookup.
      * @return Set of products and their artifacts.
      */
-    CompletableFuture<Set<ProductArtifacts>> getArtifacts(Artifact artifact);
+    CompletableFuture<Set<ProductArtifacts>> getArtifacts(Artifact artifact, LookupContext context);
 
     /**
      * Get all artifacts with the same name and type as given artifact and their products, limited to * products with
@@ -62,25 +63,31 @@ public interface ProductProvider {
      *
      * @param artifact artifact which name and type will be used for searching.
      * @param status Support status of the products.
+     * @param context configuration of the lookup.
      * @return Set of products and their artifacts.
      */
-    CompletableFuture<Set<ProductArtifacts>> getArtifacts(Artifact artifact, ProductSupportStatus status);
+    CompletableFuture<Set<ProductArtifacts>> getArtifacts(
+            Artifact artifact,
+            ProductSupportStatus status,
+            LookupContext context);
 
     // Versions getters
     /**
      * Get all artifacts versions with the same name and type as given artifact and their products.
      *
      * @param artifact artifact which name and type will be used for searching.
+     * @param context configuration of the lookup.
      * @return Set of products and their artifacts versions.
      */
-    CompletableFuture<Map<Product, Set<QualifiedVersion>>> getVersions(Artifact artifact);
+    CompletableFuture<Map<Product, Set<QualifiedVersion>>> getVersions(Artifact artifact, LookupContext context);
 
     /**
      * Get all artifacts versions with the same name and type as given artifact regardless if they are from product or
      * not.
      *
      * @param artifact artifact which name and type will be used for searching.
+     * @param context configuration of the lookup.
      * @return Set of artifacts versions.
      */
-    CompletableFuture<Set<QualifiedVersion>> getAllVersions(Artifact artifact);
+    CompletableFuture<Set<QualifiedVersion>> getAllVersions(Artifact artifact, LookupContext context);
 }
@@ -4,19 +4,16 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import javax.annotation.Resource;
-import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.inject.Inject;
 
-import org.jboss.da.common.json.LookupMode;
 import org.jboss.da.common.util.UserLog;
 import org.jboss.da.listings.model.ProductSupportStatus;
 import org.jboss.da.model.rest.GA;
 import org.jboss.da.model.rest.GAV;
 import org.jboss.da.products.api.Artifact;
+import org.jboss.da.products.api.ArtifactType;
+import org.jboss.da.products.api.LookupContext;
 import org.jboss.da.products.api.MavenArtifact;
 import org.jboss.da.products.api.NPMArtifact;
 import org.jboss.da.products.api.Product;
@@ -24,12 +21,9 @@ import org.jboss.da.products.api.ProductArtifacts;
 import org.jboss.da.products.api.ProductProvider;
 import org.jboss.pnc.api.dependencyanalyzer.dto.QualifiedVersion;
 import org.jboss.pnc.common.version.VersionParser;
-import org.jboss.pnc.enums.ArtifactQuality;
-import org.jboss.pnc.enums.BuildCategory;
 import org.slf4j.Logger;
 
 import static org.jboss.da.listings.model.ProductSupportStatus.UNKNOWN;
-import static org.jboss.da.reports.impl.ReportsGeneratorImpl.DEFAULT_SUFFIX;
 
 /**
  * A product provider reading artifacts from an external source without an information about products.
@@ -38,16 +32,6 @@ import static org.jboss.da.reports.impl.ReportsGeneratorImpl.DEFAULT_SUFFIX;
  */
 public abstract class AbstractProductProvider implements ProductProvider {
 
-    private static final LookupMode DEFAULT_MODE = new LookupMode();
-    static {
-        DEFAULT_MODE.setName("DEFAULT");
-        DEFAULT_MODE.getBuildCategories().add(BuildCategory.STANDARD);
-        DEFAULT_MODE.getArtifactQualities().add(ArtifactQuality.NEW);
-        DEFAULT_MODE.getArtifactQualities().add(ArtifactQuality.VERIFIED);
-        DEFAULT_MODE.getArtifactQualities().add(ArtifactQuality.TESTED);
-        DEFAULT_MODE.getSuffixes().add(DEFAULT_SUFFIX);
-    }
-
     @Inject
     protected Logger log;
 
@@ -55,26 +39,11 @@ public abstract class AbstractProductProvider implements ProductProvider {
     @UserLog
     protected Logger userLog;
 
-    @Resource
-    private ManagedExecutorService executorService;
-
-    private VersionParser versionParser = new VersionParser(DEFAULT_SUFFIX);
-
-    protected LookupMode mode = DEFAULT_MODE;
-
-    /**
-     * Sets the lookup configuration mode.
-     *
-     * @param mode The configuration of the lookup.
-     */
-    public void setLookupMode(LookupMode mode) {
-        versionParser = new VersionParser(mode.getSuffixes());
-        this.mode = mode;
-    }
+    @Inject
+    private VersionsCache versionsCache;
 
-    private <U> CompletableFuture<U> supplyAsync(Supplier<U> supplier) {
-        return CompletableFuture.supplyAsync(supplier, executorService);
-    }
+    @Inject
+    protected UpstreamExecutor upstreamExecutor;
 
     @Override
     public CompletableFuture<Set<Product>> getAllProducts() {
@@ -97,35 +66,34 @@ public abstract class AbstractProductProvider implements ProductProvider {
     }
 
     @Override
-    public CompletableFuture<Set<ProductArtifacts>> getArtifacts(Artifact artifact) {
-        return getArtifacts0(artifact);
+    public CompletableFuture<Set<ProductArtifacts>> getArtifacts(Artifact artifact, LookupContext context) {
+        return getArtifacts0(artifact, context);
     }
 
     @Override
-    public CompletableFuture<Set<ProductArtifacts>> getArtifacts(Artifact artifact, ProductSupportStatus status) {
+    public CompletableFuture<Set<ProductArtifacts>> getArtifacts(
+            Artifact artifact,
+            ProductSupportStatus status,
+            LookupContext context) {
         if (status != UNKNOWN) {
             return CompletableFuture.completedFuture(Collections.emptySet());
         }
-        return getArtifacts0(artifact);
+        return getArtifacts0(artifact, context);
     }
 
     @Override
-    public CompletableFuture<Map<Product, Set<QualifiedVersion>>> getVersions(Artifact artifact) {
+    public CompletableFuture<Map<Product, Set<QualifiedVersion>>> getVersions(
+            Artifact artifact,
+            LookupContext context) {
+        VersionParser versionParser = context.getVersionParser();
         switch (artifact.getType()) {
-            case MAVEN: {
-                GA ga = ((MavenArtifact) artifact).getGav().getGA();
-                CompletableFuture<Set<QualifiedVersion>> versions = supplyAsync(
-                        () -> getVersionsStreamMaven(ga).filter(v -> versionParser.parse(v.getVersion()).isSuffixed())
-                                .distinct()
-                                .collect(Collectors.toSet()));
-                return versions.thenApply(rv -> Collections.singletonMap(Product.UNKNOWN, rv));
-            }
+            case MAVEN:
             case NPM: {
-                CompletableFuture<Set<QualifiedVersion>> versions = supplyAsync(
-                        () -> getVersionsStreamNPM(artifact.getName())
-                                .filter(v -> versionParser.parse(v.getVersion()).isSuffixed())
-                                .distinct()
-                                .collect(Collectors.toSet()));
+                CompletableFuture<Set<QualifiedVersion>> versions = getAllVersions(artifact, context)
+                        .thenApply(
+                                vs -> vs.stream()
+                                        .filter(v -> versionParser.parse(v.getVersion()).isSuffixed())
+                                        .collect(Collectors.toSet()));
                 return versions.thenApply(rv -> Collections.singletonMap(Product.UNKNOWN, rv));
             }
             default: {
@@ -134,15 +102,29 @@ public abstract class AbstractProductProvider implements ProductProvider {
         }
     }
 
+    /**
+     * Returns all versions of the artifact. The versions are loaded asynchronously and cached in the shared
+     * {@link VersionsCache}, the returned set must not be modified.
+     */
     @Override
-    public CompletableFuture<Set<QualifiedVersion>> getAllVersions(Artifact artifact) {
+    public CompletableFuture<Set<QualifiedVersion>> getAllVersions(Artifact artifact, LookupContext context) {
         switch (artifact.getType()) {
             case MAVEN: {
                 GA ga = ((MavenArtifact) artifact).getGav().getGA();
-                return supplyAsync(() -> getVersionsStreamMaven(ga).collect(Collectors.toSet()));
+                return versionsCache.get(
+                        getClass(),
+                        ArtifactType.MAVEN,
+                        ga.toString(),
+                        context,
+                        () -> loadVersionsMaven(ga, context));
             }
             case NPM: {
-                return supplyAsync(() -> getVersionsStreamNPM(artifact.getName()).collect(Collectors.toSet()));
+                return versionsCache.get(
+                        getClass(),
+                        ArtifactType.NPM,
+                        artifact.getName(),
+                        context,
+                        () -> loadVersionsNPM(artifact.getName(), context));
             }
             default: {
                 return CompletableFuture.completedFuture(Collections.emptySet());
@@ -150,14 +132,15 @@ public abstract class AbstractProductProvider implements ProductProvider {
         }
     }
 
-    private CompletableFuture<Set<ProductArtifacts>> getArtifacts0(Artifact artifact) {
+    private CompletableFuture<Set<ProductArtifacts>> getArtifacts0(Artifact artifact, LookupContext context) {
         switch (artifact.getType()) {
             case MAVEN: {
                 GA ga = ((MavenArtifact) artifact).getGav().getGA();
-                return supplyAsync(() -> getArtifactsMaven(ga));
+                return getAllVersions(artifact, context).thenApply(vs -> getArtifactsMaven(ga, vs, context));
             }
             case NPM: {
-                return supplyAsync(() -> getArtifactsNPM(artifact.getName()));
+                return getAllVersions(artifact, context)
+                        .thenApply(vs -> getArtifactsNPM(artifact.getName(), vs, context));
             }
             default: {
                 return CompletableFuture.completedFuture(Collections.emptySet());
@@ -165,8 +148,10 @@ public abstract class AbstractProductProvider implements ProductProvider {
         }
     }
 
-    private Set<ProductArtifacts> getArtifactsMaven(GA ga) {
-        Set<Artifact> allArtifacts = getVersionsStreamMaven(ga).map(QualifiedVersion::getVersion)
+    private Set<ProductArtifacts> getArtifactsMaven(GA ga, Set<QualifiedVersion> versions, LookupContext context) {
+        VersionParser versionParser = context.getVersionParser();
+        Set<Artifact> allArtifacts = versions.stream()
+                .map(QualifiedVersion::getVersion)
                 .filter(v -> versionParser.parse(v).isSuffixed())
                 .distinct()
                 .map(x -> new GAV(ga, x))
@@ -178,10 +163,13 @@ public abstract class AbstractProductProvider implements ProductProvider {
         return Collections.singleton(new ProductArtifacts(Product.UNKNOWN, allArtifacts));
     }
 
-    private Set<ProductArtifacts> getArtifactsNPM(String name) {
-        Set<Artifact> allArtifacts = getVersionsStreamNPM(name).filter(v -> versionParser.parse(v).isSuffixed())
+    private Set<ProductArtifacts> getArtifactsNPM(String name, Set<QualifiedVersion> versions, LookupContext context) {
+        VersionParser versionParser = context.getVersionParser();
+        Set<Artifact> allArtifacts = versions.stream()
+                .map(QualifiedVersion::getVersion)
+                .filter(v -> versionParser.parse(v).isSuffixed())
                 .distinct()
-                .map(v -> new NPMArtifact(name, v.getVersion()))
+                .map(v -> new NPMArtifact(name, v))
                 .collect(Collectors.toSet());
         if (allArtifacts.isEmpty()) {
             return Collections.emptySet();
@@ -189,8 +177,31 @@ public abstract class AbstractProductProvider implements ProductProvider {
         return Collections.singleton(new ProductArtifacts(Product.UNKNOWN, allArtifacts));
     }
 
-    abstract Stream<QualifiedVersion> getVersionsStreamMaven(GA ga);
+    /**
+     * Cancels the upstream call when the future derived from it is cancelled, so a call still waiting for the upstream
+     * limit is never started.
+     *
+     * @param derived future derived from the call, returned to the caller.
+     * @param call future of the upstream call.
+     * @return the derived future.
+     */
+    static <T> CompletableFuture<T> cancelling(CompletableFuture<T> derived, CompletableFuture<?> call) {
+        derived.whenComplete((r, ex) -> {
+            if (derived.isCancelled()) {
+                call.cancel(false);
+            }
+        });
+        return derived;
+    }
+
+    /**
+     * Asynchronously loads all versions of the maven artifact from the source of this provider.
+     */
+    abstract CompletableFuture<Set<QualifiedVersion>> loadVersionsMaven(GA ga, LookupContext context);
 
-    abstract Stream<QualifiedVersion> getVersionsStreamNPM(String name);
+    /**
+     * Asynchronously loads all versions of the npm package from the source of this provider.
+     */
+    abstract CompletableFuture<Set<QualifiedVersion>> loadVersionsNPM(String name, LookupContext context);
 
 }
@@ -3,6 +3,7 @@ package org.jboss.da.products.impl;
 import lombok.extern.slf4j.Slf4j;
 import org.jboss.da.listings.model.ProductSupportStatus;
 import org.jboss.da.products.api.Artifact;
+import org.jboss.da.products.api.LookupContext;
 import org.jboss.da.products.api.Product;
 import org.jboss.da.products.api.ProductArtifacts;
 import org.jboss.da.products.api.ProductProvider;
@@ -10,8 +11,6 @@ import org.jboss.da.products.impl.RepositoryProductProvider.Repository;
 import org.jboss.da.products.impl.PncProductProvider.Pnc;
 import org.jboss.pnc.api.dependencyanalyzer.dto.QualifiedVersion;
 
-import javax.annotation.Resource;
-import javax.enterprise.concurrent.ManagedScheduledExecutorService;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
@@ -23,9 +22,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
@@ -73,9 +69,6 @@ public class AggregatedProductProvider implements ProductProvider {
     @Pnc
     PncProductProvider pncProductProvider;
 
-    @Resource
-    private ManagedScheduledExecutorService scheduler;
-
     @Override
     public CompletableFuture<Set<Product>> getAllProducts() {
         return aggregate(ProductProvider::getAllProducts, new SetCollector<>());
@@ -97,65 +90,48 @@ public class AggregatedProductProvider implements ProductProvider {
     }
 
     @Override
-    public CompletableFuture<Set<ProductArtifacts>> getArtifacts(Artifact artifact) {
-        return aggregate(x -> x.getArtifacts(artifact), new ProductArtifactsCollector());
+    public CompletableFuture<Set<ProductArtifacts>> getArtifacts(Artifact artifact, LookupContext context) {
+        return aggregate(x -> x.getArtifacts(artifact, context), new ProductArtifactsCollector());
     }
 
     @Override
-    public CompletableFuture<Set<ProductArtifacts>> getArtifacts(Artifact artifact, ProductSupportStatus status) {
-        return aggregate(x -> x.getArtifacts(artifact, status), new ProductArtifactsCollector());
+    public CompletableFuture<Set<ProductArtifacts>> getArtifacts(
+            Artifact artifact,
+            ProductSupportStatus status,
+            LookupContext context) {
+        return aggregate(x -> x.getArtifacts(artifact, status, context), new ProductArtifactsCollector());
     }
 
     @Override
-    public CompletableFuture<Map<Product, Set<QualifiedVersion>>> getVersions(Artifact artifact) {
-        return aggregate(x -> x.getVersions(artifact), new MapCol<>(AggregatedProductProvider::combineSets));
+    public CompletableFuture<Map<Product, Set<QualifiedVersion>>> getVersions(
+            Artifact artifact,
+            LookupContext context) {
+        return aggregate(x -> x.getVersions(artifact, context), new MapCol<>(AggregatedProductProvider::combineSets));
     }
 
     @Override
-    public CompletableFuture<Set<QualifiedVersion>> getAllVersions(Artifact artifact) {
-        return aggregate(x -> x.getAllVersions(artifact), new SetCollector<>());
+    public CompletableFuture<Set<QualifiedVersion>> getAllVersions(Artifact artifact, LookupContext context) {
+        return aggregate(x -> x.getAllVersions(artifact, context), new SetCollector<>());
     }
 
+    /**
+     * Queries all the underlying providers and accumulates their results together once all of them are completed.
+     */
     private <R> CompletableFuture<R> aggregate(
-            Function<ProductProvider, Future<R>> getter,
+            Function<ProductProvider, CompletableFuture<R>> getter,
             Collector<? super R, ?, R> collector) {
-        final List<Future<R>> results = new ArrayList<>();
+        final List<CompletableFuture<R>> results = new ArrayList<>();
 
         results.add(getter.apply(repositoryProductProvider));
         results.add(getter.apply(pncProductProvider));
 
-        CompletableFuture<R> ret = new CompletableFuture<>();
-        scheduler.schedule((Runnable) () -> tryToComplete(ret, results, collector), 1, TimeUnit.MILLISECONDS);
-
-        return ret;
-    }
-
-    /**
-     * After all futures are completed, accumulate the results together. If they are not completed, wait for a while and
-     * check again
-     */
-    private <R> void tryToComplete(
-            CompletableFuture<R> ret,
-            List<Future<R>> results,
-            Collector<? super R, ?, R> collector) {
-        if (results.stream().allMatch(Future::isDone)) {
-            try {
-                List<R> resultList = new ArrayList<>();
-                for (Future<R> r : results) {
-                    resultList.add(r.get());
-                }
-                ret.complete(resultList.stream().collect(collector));
-            } catch (ExecutionException | RuntimeException ex) {
-                log.debug("Failed to complete futures", ex);
-                ret.completeExceptionally(ex);
-            } catch (InterruptedException ex) {
-                log.debug("Failed to complete futures", ex);
-                ret.completeExceptionally(ex);
-                Thread.currentThread().interrupt();
-            }
-        } else {
-            scheduler.schedule((Runnable) () -> tryToComplete(ret, results, collector), 1, TimeUnit.MILLISECONDS);
-        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[results.size()]))
+                .thenApply(x -> results.stream().map(CompletableFuture::join).collect(collector))
+                .whenComplete((r, ex) -> {
+                    if (ex != null) {
+                        log.debug("Failed to complete futures", ex);
+                    }
+                });
     }
 
     private static <R> Set<R> combineSets(Set<R> x, Set<R> y) {
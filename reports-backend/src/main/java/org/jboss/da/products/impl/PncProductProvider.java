@@ -3,21 +3,24 @@ package org.jboss.da.products.impl;
 import org.jboss.da.common.CommunicationException;
 import org.jboss.da.communication.pnc.PncConnector;
 import org.jboss.da.model.rest.GA;
+import org.jboss.da.products.api.LookupContext;
+import org.jboss.da.products.impl.UpstreamExecutor.Upstream;
 import org.jboss.da.products.impl.PncProductProvider.Pnc;
 import org.jboss.pnc.api.dependencyanalyzer.dto.QualifiedVersion;
-import org.jboss.pnc.dto.requests.QValue;
 
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
-import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Qualifier;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
 
 import static java.lang.annotation.ElementType.FIELD;
 import static java.lang.annotation.ElementType.METHOD;
@@ -30,50 +33,38 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
  */
 @Pnc
 @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
-@RequestScoped
+@ApplicationScoped
 public class PncProductProvider extends AbstractProductProvider {
 
     @Inject
     private PncConnector pncConnector;
 
-    private Set<QValue> qualifiers = Set.of();
-
-    /**
-     * Sets what qualifiers should be retrieved from PNC on a request.
-     *
-     * @param qualifiers to fetch
-     */
-    public void setQualifiers(Set<QValue> qualifiers) {
-        this.qualifiers = qualifiers;
-    }
+    @Inject
+    private PncVersionsBatcher batcher;
 
     @Override
-    Stream<QualifiedVersion> getVersionsStreamMaven(GA ga) {
+    CompletableFuture<Set<QualifiedVersion>> loadVersionsMaven(GA ga, LookupContext context) {
         if (!ga.isValid()) {
             userLog.warn("Received nonvalid GA " + ga + ", using empty list of versions.");
             log.warn("Received nonvalid GA: " + ga);
-            return Stream.empty();
-        }
-        try {
-            List<QualifiedVersion> versionsOfGA;
-            versionsOfGA = pncConnector.getMavenVersions(ga, mode, qualifiers);
-            log.debug("Got versions of " + ga + " from PNC: " + versionsOfGA);
-            return versionsOfGA.stream();
-        } catch (CommunicationException ex) {
-            throw new ProductException(ex);
+            return CompletableFuture.completedFuture(Collections.emptySet());
         }
+        CompletableFuture<List<QualifiedVersion>> versions = batcher.submit(ga, context);
+        return cancelling(versions.thenApply(HashSet::new), versions);
     }
 
     @Override
-    Stream<QualifiedVersion> getVersionsStreamNPM(String name) {
-        try {
-            List<QualifiedVersion> versionsOfGA;
-            versionsOfGA = pncConnector.getNpmVersions(name, mode, qualifiers);
-            log.debug("Got versions of " + name + " from PNC: " + versionsOfGA);
-            return versionsOfGA.stream();
-        } catch (CommunicationException ex) {
-            throw new ProductException(ex);
-        }
+    CompletableFuture<Set<QualifiedVersion>> loadVersionsNPM(String name, LookupContext context) {
+        return upstreamExecutor.supplyAsync(Upstream.PNC, () -> {
+            try {
+                List<QualifiedVersion> versionsOfGA;
+                versionsOfGA = pncConnector.getNpmVersions(name, context.getMode(), context.getQualifiers());
+                log.debug("Got versions of " + name + " from PNC: " + versionsOfGA);
+                return new HashSet<>(versionsOfGA);
+            } catch (CommunicationException ex) {
+                throw new ProductException(ex);
+            }
+        });
     }
 
     @Qualifier
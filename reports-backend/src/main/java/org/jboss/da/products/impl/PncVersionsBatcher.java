@@ -0,0 +1,243 @@
+package org.jboss.da.products.impl;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jboss.da.common.CommunicationException;
+import org.jboss.da.common.json.DAConfig;
+import org.jboss.da.common.util.Configuration;
+import org.jboss.da.common.util.ConfigurationParseException;
+import org.jboss.da.communication.pnc.PncConnector;
+import org.jboss.da.model.rest.GA;
+import org.jboss.da.products.api.LookupContext;
+import org.jboss.da.products.impl.UpstreamExecutor.Upstream;
+import org.jboss.pnc.api.constants.MDCKeys;
+import org.jboss.pnc.api.dependencyanalyzer.dto.QualifiedVersion;
+import org.slf4j.MDC;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Collects maven versions requests submitted within a short window and resolves them together, so artifacts from the
+ * same group can be read from PNC by a single query.
+ *
+ * When the group threshold is configured, artifacts are resolved by one query per group when at least the threshold
+ * of artifacts from the group is requested in the same window, other artifacts are resolved one by one in parallel.
+ * Without the group threshold there is nothing to gain from the window, so the requests are resolved right away.
+ *
+ * The window is flushed when it reaches the configured batch size or when it expires. The window length adapts to the
+ * load: it is halved when a window collects just one request, so lone lookups are not delayed, and doubled up to the
+ * configured length when requests arrive together.
+ *
+ * Requests of different users are batched separately. Each batch is resolved with the logging context of its first
+ * request, so its queries take the turns of its user in the upstream executor regardless of the thread flushing it.
+ */
+@Slf4j
+@ApplicationScoped
+public class PncVersionsBatcher {
+
+    private static final long MIN_WINDOW = 1;
+
+    @Inject
+    private PncConnector pncConnector;
+
+    @Inject
+    private Configuration configuration;
+
+    @Inject
+    private UpstreamExecutor upstreamExecutor;
+
+    @Resource
+    private ManagedScheduledExecutorService scheduledExecutorService;
+
+    private int batchSize;
+
+    private int groupQueryThreshold;
+
+    private long maxWindow;
+
+    private long window;
+
+    private Map<BatchKey, Batch> pending = new HashMap<>();
+
+    private int pendingCount;
+
+    private ScheduledFuture<?> scheduledFlush;
+
+    @PostConstruct
+    void init() {
+        try {
+            DAConfig config = configuration.getConfig();
+            batchSize = config.getPncBatchSize();
+            groupQueryThreshold = config.getPncBatchGroupThreshold();
+            maxWindow = config.getPncBatchWindow();
+            window = maxWindow;
+        } catch (ConfigurationParseException ex) {
+            throw new IllegalStateException("Configuration failure, can't read PNC batch configuration", ex);
+        }
+    }
+
+    /**
+     * Submits request for versions of the maven artifact. Requests of the same user for the same artifact and context
+     * submitted within one window share the result. Cancelling the result of a request that is resolved right away
+     * cancels its PNC query when it was not started yet, batched queries are left to complete.
+     */
+    public CompletableFuture<List<QualifiedVersion>> submit(GA ga, LookupContext context) {
+        if (batchSize <= 1 || maxWindow <= 0 || groupQueryThreshold <= 0) {
+            CompletableFuture<List<QualifiedVersion>> versions = new CompletableFuture<>();
+            CompletableFuture<Void> load = resolve(
+                    context,
+                    MDC.getCopyOfContextMap(),
+                    Collections.singletonMap(ga, versions));
+            versions.whenComplete((r, ex) -> {
+                if (versions.isCancelled()) {
+                    load.cancel(false);
+                }
+            });
+            return versions;
+        }
+        return enqueue(ga, context);
+    }
+
+    private synchronized CompletableFuture<List<QualifiedVersion>> enqueue(GA ga, LookupContext context) {
+        BatchKey key = new BatchKey(context, MDC.get(MDCKeys.USER_NAME_KEY));
+        Map<GA, CompletableFuture<List<QualifiedVersion>>> requests = pending
+                .computeIfAbsent(key, k -> new Batch(MDC.getCopyOfContextMap())).requests;
+        CompletableFuture<List<QualifiedVersion>> versions = requests.get(ga);
+        if (versions != null) {
+            return versions;
+        }
+        versions = new CompletableFuture<>();
+        requests.put(ga, versions);
+        pendingCount++;
+
+        if (pendingCount >= batchSize) {
+            flush();
+        } else if (scheduledFlush == null) {
+            scheduledFlush = scheduledExecutorService.schedule(this::flushWindow, window, TimeUnit.MILLISECONDS);
+        }
+        return versions;
+    }
+
+    private synchronized void flushWindow() {
+        scheduledFlush = null;
+        if (pendingCount <= 1) {
+            window = Math.max(MIN_WINDOW, window / 2);
+        } else {
+            window = Math.min(maxWindow, window * 2);
+        }
+        flush();
+    }
+
+    private void flush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        log.debug("Flushing {} PNC versions requests.", pendingCount);
+        Map<BatchKey, Batch> toResolve = pending;
+        pending = new HashMap<>();
+        pendingCount = 0;
+
+        for (Map.Entry<BatchKey, Batch> e : toResolve.entrySet()) {
+            LookupContext context = e.getKey().context;
+            Map<String, String> loggingContext = e.getValue().loggingContext;
+            Map<String, Map<GA, CompletableFuture<List<QualifiedVersion>>>> byGroup = e.getValue().requests
+                    .entrySet()
+                    .stream()
+                    .collect(
+                            Collectors.groupingBy(
+                                    r -> r.getKey().getGroupId(),
+                                    Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+            for (Map<GA, CompletableFuture<List<QualifiedVersion>>> group : byGroup.values()) {
+                if (groupQueryThreshold > 0 && group.size() >= groupQueryThreshold) {
+                    resolve(context, loggingContext, group);
+                } else {
+                    // artifacts that won't be queried together are resolved in parallel
+                    group.forEach(
+                            (ga, versions) -> resolve(
+                                    context,
+                                    loggingContext,
+                                    Collections.singletonMap(ga, versions)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts the load of the requests.
+     *
+     * @return future of the load in the upstream executor.
+     */
+    private CompletableFuture<Void> resolve(
+            LookupContext context,
+            Map<String, String> loggingContext,
+            Map<GA, CompletableFuture<List<QualifiedVersion>>> requests) {
+        CompletableFuture<Void> load = upstreamExecutor
+                .supplyAsync(Upstream.PNC, loggingContext, () -> load(context, requests));
+        load.exceptionally(ex -> {
+            // a failed load has already failed the requests, this covers loads that were not started at all, e.g.
+            // when the executor rejected them or the load was cancelled
+            fail(requests, ex);
+            return null;
+        });
+        return load;
+    }
+
+    /**
+     * Loads the versions and completes the requests. When the load fails, the requests are failed and the failure is
+     * rethrown, so the upstream executor sees the failed call and can back off.
+     */
+    private Void load(LookupContext context, Map<GA, CompletableFuture<List<QualifiedVersion>>> requests) {
+        try {
+            Map<GA, List<QualifiedVersion>> versions = pncConnector
+                    .getMavenVersionsBatch(requests.keySet(), context.getMode(), context.getQualifiers());
+            for (Map.Entry<GA, CompletableFuture<List<QualifiedVersion>>> e : requests.entrySet()) {
+                List<QualifiedVersion> gaVersions = versions.getOrDefault(e.getKey(), Collections.emptyList());
+                log.debug("Got versions of " + e.getKey() + " from PNC: " + gaVersions);
+                e.getValue().complete(gaVersions);
+            }
+            return null;
+        } catch (CommunicationException ex) {
+            ProductException failure = new ProductException(ex);
+            fail(requests, failure);
+            throw failure;
+        } catch (RuntimeException ex) {
+            fail(requests, ex);
+            throw ex;
+        }
+    }
+
+    private static void fail(Map<GA, CompletableFuture<List<QualifiedVersion>>> requests, Throwable ex) {
+        requests.values().forEach(f -> f.completeExceptionally(ex));
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class BatchKey {
+        private final LookupContext context;
+        /** Name of the user who submitted the requests, null when unknown. */
+        private final String user;
+    }
+
+    @RequiredArgsConstructor
+    private static class Batch {
+        /** Logging context of the first request of the batch, may be null. */
+        private final Map<String, String> loggingContext;
+        private final Map<GA, CompletableFuture<List<QualifiedVersion>>> requests = new HashMap<>();
+    }
+}
@@ -3,19 +3,25 @@ package org.jboss.da.products.impl;
 import org.jboss.da.common.CommunicationException;
 import org.jboss.da.communication.indy.api.IndyConnector;
 import org.jboss.da.model.rest.GA;
+import org.jboss.da.products.api.LookupContext;
+import org.jboss.da.products.impl.UpstreamExecutor.Upstream;
 import org.jboss.da.products.impl.RepositoryProductProvider.Repository;
 import org.jboss.pnc.api.dependencyanalyzer.dto.QualifiedVersion;
 
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
-import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Qualifier;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 
 import static java.lang.annotation.ElementType.FIELD;
 import static java.lang.annotation.ElementType.METHOD;
@@ -29,39 +35,56 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
  */
 @Repository
 @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
-@RequestScoped
+@ApplicationScoped
 public class RepositoryProductProvider extends AbstractProductProvider {
 
     @Inject
     private IndyConnector indyConnector;
 
     @Override
-    Stream<QualifiedVersion> getVersionsStreamMaven(GA ga) {
+    CompletableFuture<Set<QualifiedVersion>> loadVersionsMaven(GA ga, LookupContext context) {
         if (!ga.isValid()) {
             userLog.warn("Received nonvalid GA " + ga + ", using empty list of versions.");
             log.warn("Received nonvalid GA: " + ga);
-            return Stream.empty();
+            return CompletableFuture.completedFuture(Collections.emptySet());
         }
-        try {
-            List<String> versionsOfGA;
-            versionsOfGA = indyConnector.getVersionsOfGA(ga);
+        CompletableFuture<List<String>> call = upstreamExecutor
+                .submit(Upstream.INDY, () -> indyConnector.getVersionsOfGA(ga));
+        return cancelling(wrapFailure(call).thenApply(versionsOfGA -> {
             log.debug("Got versions of " + ga + " from repository: " + versionsOfGA);
-            return versionsOfGA.stream().map(QualifiedVersion::new);
-        } catch (CommunicationException ex) {
-            throw new ProductException(ex);
-        }
+            return toQualifiedVersions(versionsOfGA);
+        }), call);
     }
 
     @Override
-    Stream<QualifiedVersion> getVersionsStreamNPM(String name) {
-        try {
-            List<String> versionsOfGA;
-            versionsOfGA = indyConnector.getVersionsOfNpm(name);
+    CompletableFuture<Set<QualifiedVersion>> loadVersionsNPM(String name, LookupContext context) {
+        CompletableFuture<List<String>> call = upstreamExecutor
+                .submit(Upstream.INDY, () -> indyConnector.getVersionsOfNpm(name));
+        return cancelling(wrapFailure(call).thenApply(versionsOfGA -> {
             log.debug("Got versions of " + name + " from repository: " + versionsOfGA);
-            return versionsOfGA.stream().map(QualifiedVersion::new);
-        } catch (CommunicationException ex) {
-            throw new ProductException(ex);
-        }
+            return toQualifiedVersions(versionsOfGA);
+        }), call);
+    }
+
+    /**
+     * Fails the future with {@link ProductException} when the communication with the repository failed, like the other
+     * product providers do.
+     */
+    private static <T> CompletableFuture<T> wrapFailure(CompletableFuture<T> future) {
+        return future.handle((r, ex) -> {
+            if (ex == null) {
+                return r;
+            }
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof CommunicationException) {
+                throw new ProductException(cause);
+            }
+            throw ex instanceof CompletionException ? (CompletionException) ex : new CompletionException(ex);
+        });
+    }
+
+    private static Set<QualifiedVersion> toQualifiedVersions(List<String> versions) {
+        return versions.stream().map(QualifiedVersion::new).collect(Collectors.toSet());
     }
 
     @Qualifier
@@ -0,0 +1,191 @@
+package org.jboss.da.products.impl;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jboss.da.common.json.DAConfig;
+import org.jboss.da.common.util.ConcurrencyLimiter;
+import org.jboss.da.common.util.Configuration;
+import org.jboss.da.common.util.ConfigurationParseException;
+import org.jboss.pnc.api.constants.MDCKeys;
+import org.jboss.pnc.pncmetrics.MetricsConfiguration;
+import org.slf4j.MDC;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Runs the calls of the product providers to the upstream services. Each upstream has its own adaptive limit of
+ * concurrent calls, which is lowered when the upstream gets slow or fails and raised back when it recovers. Calls over
+ * the limit wait in a queue without occupying a thread, the queued calls of different users take turns.
+ *
+ * Blocking calls run on the container managed executor by default. When virtual threads are enabled in the
+ * configuration and the runtime supports them, blocking calls run on virtual threads instead, so the number of
+ * parallel calls is limited only by the upstream limits and not by the size of the container thread pool. The logging
+ * context of the caller is propagated to the thread running the call.
+ */
+@Slf4j
+@ApplicationScoped
+public class UpstreamExecutor {
+
+    public enum Upstream {
+        PNC, INDY
+    }
+
+    private static final String METRICS_KEY = "da.upstream";
+
+    @Resource
+    private ManagedExecutorService managedExecutorService;
+
+    @Inject
+    private Configuration configuration;
+
+    @Inject
+    private MetricsConfiguration metricsConfiguration;
+
+    private ExecutorService virtualThreadExecutor;
+
+    private Executor executor;
+
+    private final Map<Upstream, ConcurrencyLimiter> limiters = new EnumMap<>(Upstream.class);
+
+    @PostConstruct
+    void init() {
+        DAConfig config;
+        try {
+            config = configuration.getConfig();
+        } catch (ConfigurationParseException ex) {
+            throw new IllegalStateException("Configuration failure, can't read upstream executor configuration", ex);
+        }
+        executor = managedExecutorService;
+        if (config.getVirtualThreads()) {
+            virtualThreadExecutor = newVirtualThreadExecutor();
+            if (virtualThreadExecutor != null) {
+                executor = virtualThreadExecutor;
+                log.info("Running upstream calls on virtual threads.");
+            } else {
+                log.warn("Virtual threads are not supported, using managed executor for upstream calls.");
+            }
+        }
+        limiters.put(
+                Upstream.PNC,
+                new ConcurrencyLimiter(
+                        "pnc",
+                        config.getUpstreamMinConcurrencyLimit(),
+                        config.getPncConcurrencyLimit(),
+                        config.getPncLatencyThreshold()));
+        limiters.put(
+                Upstream.INDY,
+                new ConcurrencyLimiter(
+                        "indy",
+                        config.getUpstreamMinConcurrencyLimit(),
+                        config.getIndyConcurrencyLimit(),
+                        config.getIndyLatencyThreshold()));
+        registerMetrics();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Runs the blocking call asynchronously, respecting the limit of the upstream.
+     */
+    public <U> CompletableFuture<U> supplyAsync(Upstream upstream, Supplier<U> call) {
+        return supplyAsync(upstream, MDC.getCopyOfContextMap(), call);
+    }
+
+    /**
+     * Runs the blocking call asynchronously on behalf of the given logging context, respecting the limit of the
+     * upstream. The call takes the turns of the user in the context, e.g. when it was collected by another thread.
+     */
+    public <U> CompletableFuture<U> supplyAsync(
+            Upstream upstream,
+            Map<String, String> loggingContext,
+            Supplier<U> call) {
+        Supplier<U> withContext = withLoggingContext(loggingContext, call);
+        return limiters.get(upstream)
+                .submit(user(loggingContext), () -> CompletableFuture.supplyAsync(withContext, executor));
+    }
+
+    /**
+     * Starts the asynchronous call, respecting the limit of the upstream. A queued call is started by the thread
+     * finishing an earlier call, so the call is started with the logging context of the caller as well.
+     */
+    public <U> CompletableFuture<U> submit(Upstream upstream, Supplier<CompletableFuture<U>> call) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        Supplier<CompletableFuture<U>> withContext = withLoggingContext(context, call);
+        return limiters.get(upstream).submit(user(context), withContext);
+    }
+
+    private static String user(Map<String, String> context) {
+        return context == null ? null : context.get(MDCKeys.USER_NAME_KEY);
+    }
+
+    private static <U> Supplier<U> withLoggingContext(Map<String, String> context, Supplier<U> call) {
+        return () -> {
+            Map<String, String> original = MDC.getCopyOfContextMap();
+            setContext(context);
+            try {
+                return call.get();
+            } finally {
+                setContext(original);
+            }
+        };
+    }
+
+    private static void setContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+
+    /**
+     * Creates virtual thread per task executor using reflection, so the code can be compiled and run on runtimes
+     * without virtual threads.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            log.debug("Virtual threads are not available.", ex);
+            return null;
+        }
+    }
+
+    private void registerMetrics() {
+        MetricRegistry registry = metricsConfiguration.getMetricRegistry();
+        if (registry != null) {
+            limiters.forEach((upstream, limiter) -> {
+                String prefix = METRICS_KEY + "." + upstream.name().toLowerCase(Locale.ROOT);
+                register(registry, prefix + ".limit", limiter::getLimit);
+                register(registry, prefix + ".active", limiter::getActive);
+                register(registry, prefix + ".queued", limiter::getQueued);
+            });
+        }
+    }
+
+    private static void register(MetricRegistry registry, String name, Gauge<Integer> gauge) {
+        registry.remove(name);
+        registry.register(name, gauge);
+    }
+}
@@ -0,0 +1,295 @@
+package org.jboss.da.products.impl;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jboss.da.common.json.DAConfig;
+import org.jboss.da.common.util.Configuration;
+import org.jboss.da.common.util.ConfigurationParseException;
+import org.jboss.da.products.api.ArtifactType;
+import org.jboss.da.products.api.LookupContext;
+import org.jboss.pnc.api.dependencyanalyzer.dto.QualifiedVersion;
+import org.jboss.pnc.pncmetrics.MetricsConfiguration;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of artifact versions shared by all lookups. Versions are cached per provider, artifact and lookup
+ * context.
+ *
+ * The cache holds the futures of the upstream calls, so concurrent misses of the same key share a single call. Failed
+ * calls are not cached. Entries expire after the configured time to live and entries that are read after the refresh
+ * interval are reloaded in the background while the old value is still served. When the cache is full, the least
+ * recently used entry is evicted.
+ *
+ * When caching is disabled, concurrent requests for the same key still share a single in-flight call, the result is
+ * just not kept after the call completes.
+ */
+@Slf4j
+@ApplicationScoped
+public class VersionsCache {
+
+    private static final String METRICS_KEY = "da.cache.versions";
+
+    @Inject
+    private Configuration configuration;
+
+    @Inject
+    private MetricsConfiguration metricsConfiguration;
+
+    private int maxSize;
+
+    private long ttlNanos;
+
+    private long refreshNanos;
+
+    private Map<Key, Entry> entries;
+
+    private Counter hits;
+
+    private Counter misses;
+
+    private Counter evictions;
+
+    private Counter coalesced;
+
+    private final ConcurrentMap<Key, CompletableFuture<Set<QualifiedVersion>>> inFlight = new ConcurrentHashMap<>();
+
+    public VersionsCache() {
+    }
+
+    VersionsCache(int maxSize, long ttl, long refresh, MetricRegistry registry) {
+        init(maxSize, ttl, refresh, registry);
+    }
+
+    @PostConstruct
+    void init() {
+        DAConfig config;
+        try {
+            config = configuration.getConfig();
+        } catch (ConfigurationParseException ex) {
+            throw new IllegalStateException("Configuration failure, can't read versions cache configuration", ex);
+        }
+        init(
+                config.getVersionsCacheSize(),
+                config.getVersionsCacheTtl(),
+                config.getVersionsCacheRefresh(),
+                metricsConfiguration.getMetricRegistry());
+    }
+
+    private void init(int maxSize, long ttl, long refresh, MetricRegistry registry) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttl);
+        this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refresh);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > VersionsCache.this.maxSize) {
+                    inc(evictions);
+                    return true;
+                }
+                return false;
+            }
+        };
+        if (registry != null) {
+            hits = registry.counter(METRICS_KEY + ".hits");
+            misses = registry.counter(METRICS_KEY + ".misses");
+            evictions = registry.counter(METRICS_KEY + ".evictions");
+            coalesced = registry.counter(METRICS_KEY + ".coalesced");
+            registry.remove(METRICS_KEY + ".coalescing-ratio");
+            registry.register(METRICS_KEY + ".coalescing-ratio", new RatioGauge() {
+
+                @Override
+                protected Ratio getRatio() {
+                    return Ratio.of(coalesced.getCount(), coalesced.getCount() + misses.getCount());
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns cached versions of the artifact or loads them using the loader.
+     *
+     * @param provider class of the provider that loads the versions.
+     * @param type type of the artifact.
+     * @param name name of the artifact, e.g. groupId:artifactId for maven artifacts.
+     * @param context configuration of the lookup.
+     * @param loader supplier of the future loading the versions from upstream.
+     * @return unmodifiable set of versions.
+     */
+    public CompletableFuture<Set<QualifiedVersion>> get(
+            Class<?> provider,
+            ArtifactType type,
+            String name,
+            LookupContext context,
+            Supplier<CompletableFuture<Set<QualifiedVersion>>> loader) {
+        Key key = new Key(provider, type, name, context);
+        if (maxSize <= 0 || ttlNanos <= 0) {
+            return singleFlight(key, loader);
+        }
+        long now = System.nanoTime();
+        Entry entry;
+        boolean load = false;
+        boolean refresh = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.isExpired(now)) {
+                entries.remove(key);
+                inc(evictions);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry(new CompletableFuture<>());
+                entries.put(key, entry);
+                load = true;
+            } else if (entry.needsRefresh(now)) {
+                entry.refreshing = true;
+                refresh = true;
+            }
+        }
+
+        if (load) {
+            inc(misses);
+            load(key, entry, loader);
+        } else {
+            inc(hits);
+            if (entry.loaded == 0) {
+                inc(coalesced);
+            }
+            if (refresh) {
+                refresh(key, entry, loader);
+            }
+        }
+        return entry.versions;
+    }
+
+    /**
+     * Removes all cached versions.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private CompletableFuture<Set<QualifiedVersion>> singleFlight(
+            Key key,
+            Supplier<CompletableFuture<Set<QualifiedVersion>>> loader) {
+        CompletableFuture<Set<QualifiedVersion>> versions = new CompletableFuture<>();
+        CompletableFuture<Set<QualifiedVersion>> running = inFlight.putIfAbsent(key, versions);
+        if (running != null) {
+            inc(coalesced);
+            return running;
+        }
+        inc(misses);
+        loadSafely(loader).whenComplete((v, ex) -> {
+            inFlight.remove(key, versions);
+            if (ex == null) {
+                versions.complete(Collections.unmodifiableSet(v));
+            } else {
+                versions.completeExceptionally(ex);
+            }
+        });
+        return versions;
+    }
+
+    private void load(Key key, Entry entry, Supplier<CompletableFuture<Set<QualifiedVersion>>> loader) {
+        loadSafely(loader).whenComplete((versions, ex) -> {
+            if (ex == null) {
+                entry.loaded = System.nanoTime();
+                entry.versions.complete(Collections.unmodifiableSet(versions));
+            } else {
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+                entry.versions.completeExceptionally(ex);
+            }
+        });
+    }
+
+    private void refresh(Key key, Entry entry, Supplier<CompletableFuture<Set<QualifiedVersion>>> loader) {
+        log.debug("Refreshing cached versions of {}", key);
+        loadSafely(loader).whenComplete((versions, ex) -> {
+            if (ex == null) {
+                Entry refreshed = new Entry(CompletableFuture.completedFuture(Collections.unmodifiableSet(versions)));
+                refreshed.loaded = System.nanoTime();
+                synchronized (entries) {
+                    entries.replace(key, entry, refreshed);
+                }
+            } else {
+                log.debug("Failed to refresh cached versions of " + key, ex);
+                entry.refreshing = false;
+            }
+        });
+    }
+
+    private static CompletableFuture<Set<QualifiedVersion>> loadSafely(
+            Supplier<CompletableFuture<Set<QualifiedVersion>>> loader) {
+        try {
+            return loader.get();
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private static void inc(Counter counter) {
+        if (counter != null) {
+            counter.inc();
+        }
+    }
+
+    @ToString
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final Class<?> provider;
+        private final ArtifactType type;
+        private final String name;
+        private final LookupContext context;
+    }
+
+    private class Entry {
+        private final CompletableFuture<Set<QualifiedVersion>> versions;
+
+        /** Time of successful load in nanoseconds or 0 when the versions are still being loaded. */
+        private volatile long loaded;
+
+        private volatile boolean refreshing;
+
+        private Entry(CompletableFuture<Set<QualifiedVersion>> versions) {
+            this.versions = versions;
+        }
+
+        private boolean isExpired(long now) {
+            return loaded != 0 && now - loaded > ttlNanos;
+        }
+
+        private boolean needsRefresh(long now) {
+            return loaded != 0 && !refreshing && now - loaded > refreshNanos;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package org.jboss.da.reports.api;
 
+import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
-import org.jboss.da.common.CommunicationException;
+import org.jboss.da.common.util.Deadline;
 import org.jboss.da.lookup.model.MavenLatestResult;
 import org.jboss.da.lookup.model.MavenLookupResult;
 import org.jboss.da.lookup.model.MavenVersionsResult;
@@ -16,28 +18,59 @@ import org.jboss.da.model.rest.NPMPackage;
 
 public interface LookupGenerator {
 
-    Set<MavenLookupResult> lookupBestMatchMaven(
+    CompletableFuture<Set<MavenLookupResult>> lookupBestMatchMaven(
             Set<GAV> gavs,
             String mode,
             boolean brewPullActive,
-            Set<Strategy> strategies) throws CommunicationException;
+            Set<Strategy> strategies,
+            boolean partial,
+            Deadline deadline);
 
-    Set<MavenVersionsResult> lookupVersionsMaven(
+    /**
+     * Starts the lookup of best matching versions and returns the future results, so they can be processed as soon as
+     * they are resolved. The futures don't fail, results of the artifacts that failed or were not resolved before the
+     * deadline have the error set.
+     */
+    Collection<CompletableFuture<MavenLookupResult>> streamBestMatchMaven(
+            Set<GAV> gavs,
+            String mode,
+            boolean brewPullActive,
+            Set<Strategy> strategies,
+            Deadline deadline);
+
+    CompletableFuture<Set<MavenVersionsResult>> lookupVersionsMaven(
             Set<GAV> gavs,
             VersionFilter vf,
             VersionDistanceRule distanceRule,
             String mode,
             boolean brewPullActive,
-            boolean includeBad) throws CommunicationException;
+            boolean includeBad,
+            boolean partial,
+            Deadline deadline);
 
-    Set<MavenLatestResult> lookupLatestMaven(Set<GAV> gavs, String mode) throws CommunicationException;
+    CompletableFuture<Set<MavenLatestResult>> lookupLatestMaven(Set<GAV> gavs, String mode, Deadline deadline);
 
-    Set<NPMLookupResult> lookupBestMatchNPM(Set<NPMPackage> packages, String mode) throws CommunicationException;
+    CompletableFuture<Set<NPMLookupResult>> lookupBestMatchNPM(
+            Set<NPMPackage> packages,
+            String mode,
+            boolean partial,
+            Deadline deadline);
+
+    /**
+     * Starts the lookup of best matching versions and returns the future results, so they can be processed as soon as
+     * they are resolved. The futures don't fail, results of the packages that failed or were not resolved before the
+     * deadline have the error set.
+     */
+    Collection<CompletableFuture<NPMLookupResult>> streamBestMatchNPM(
+            Set<NPMPackage> packages,
+            String mode,
+            Deadline deadline);
 
-    Set<NPMVersionsResult> lookupVersionsNPM(
+    CompletableFuture<Set<NPMVersionsResult>> lookupVersionsNPM(
             Set<NPMPackage> packages,
             VersionFilter vf,
             VersionDistanceRule distanceRule,
             String mode,
-            boolean includeBad) throws CommunicationException;
+            boolean includeBad,
+            Deadline deadline);
 }
@@ -0,0 +1,37 @@
+package org.jboss.da.reports.api;
+
+/**
+ * Receives the progress of a report generation, e.g. to notify the client waiting for a long running report.
+ */
+public interface ProgressListener {
+
+    /**
+     * Listener ignoring the progress.
+     */
+    ProgressListener NONE = new ProgressListener() {
+    };
+
+    enum Stage {
+        /** Cloning of the repository. */
+        CLONE,
+        /** Parsing of the modules and their dependencies. */
+        ANALYSIS,
+        /** Resolving of the artifacts against the products. */
+        RESOLUTION
+    }
+
+    default void started(Stage stage) {
+    }
+
+    /**
+     * Called when a part of the stage is done.
+     *
+     * @param done number of items already processed, e.g. modules parsed or artifacts resolved.
+     * @param total number of all items to process.
+     */
+    default void progress(Stage stage, int done, int total) {
+    }
+
+    default void finished(Stage stage) {
+    }
+}
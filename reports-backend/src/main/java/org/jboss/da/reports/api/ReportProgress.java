@@ -0,0 +1,40 @@
+package org.jboss.da.reports.api;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Holds the progress listener of the report generated by the current thread. The report generators read the listener
+ * in the thread the report was requested in.
+ */
+public final class ReportProgress {
+
+    private static final ThreadLocal<ProgressListener> LISTENER = new ThreadLocal<>();
+
+    private ReportProgress() {
+    }
+
+    /**
+     * Returns the listener of the current thread, {@link ProgressListener#NONE} when there is none.
+     */
+    public static ProgressListener current() {
+        ProgressListener listener = LISTENER.get();
+        return listener == null ? ProgressListener.NONE : listener;
+    }
+
+    /**
+     * Calls the task with the listener set for the current thread.
+     */
+    public static <T> T call(ProgressListener listener, Callable<T> task) throws Exception {
+        ProgressListener previous = LISTENER.get();
+        LISTENER.set(listener);
+        try {
+            return task.call();
+        } finally {
+            if (previous == null) {
+                LISTENER.remove();
+            } else {
+                LISTENER.set(previous);
+            }
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package org.jboss.da.reports.impl;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 import org.jboss.da.common.CommunicationException;
+import org.jboss.da.common.util.Deadline;
 
 public class FuturesUtil {
     static <T> List<T> joinFutures(List<CompletableFuture<T>> futures) throws CommunicationException {
+        awaitAll(futures);
         try {
             return futures.stream().map(r -> r.join()).collect(Collectors.toList());
         } catch (CompletionException ex) {
@@ -21,6 +33,7 @@ public class FuturesUtil {
     }
 
     static <T> Set<T> joinFutures(Set<CompletableFuture<T>> futures) throws CommunicationException {
+        awaitAll(futures);
         try {
             return futures.stream().map(r -> r.join()).collect(Collectors.toSet());
         } catch (CompletionException ex) {
@@ -30,4 +43,85 @@ public class FuturesUtil {
             throw ex;
         }
     }
+
+    /**
+     * Waits until all the futures complete. When the waiting thread is interrupted, e.g. because the request was
+     * cancelled, the futures are cancelled and {@link CancellationException} is thrown.
+     */
+    private static void awaitAll(Collection<? extends CompletableFuture<?>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(false));
+            CancellationException cancelled = new CancellationException("Waiting for the results was interrupted.");
+            cancelled.initCause(ex);
+            throw cancelled;
+        } catch (ExecutionException ex) {
+            // the failure is rethrown when the futures are joined
+        }
+    }
+
+    /**
+     * Combines the futures into future of all the results, without blocking. Futures that are not completed when the
+     * deadline expires complete with the result of the {@code failed} function called with a
+     * {@link TimeoutException}, so the results that were resolved in time are returned.
+     *
+     * In the partial mode, the results of the futures that failed are replaced by the results of the {@code failed}
+     * function as well, otherwise the combined future fails with the first failure and the other futures are
+     * cancelled. Cancelling the combined future cancels the given futures.
+     *
+     * Only the given futures are cancelled, the upstream work they depend on may be shared by other requests and is
+     * left to complete.
+     *
+     * @param futures futures of the results, mapped by the key identifying the result.
+     * @param deadline deadline of the request.
+     * @param partial whether to return the successful results when some futures fail.
+     * @param failed function creating the result for the key whose future failed or didn't complete in time.
+     */
+    static <K, T> CompletableFuture<Set<T>> combineFutures(
+            Map<K, CompletableFuture<T>> futures,
+            Deadline deadline,
+            boolean partial,
+            BiFunction<K, Throwable, T> failed) {
+        CompletableFuture<Set<T>> combined = new CompletableFuture<>();
+        if (futures.isEmpty()) {
+            combined.complete(new HashSet<>());
+            return combined;
+        }
+        Set<T> results = ConcurrentHashMap.newKeySet();
+        AtomicInteger remaining = new AtomicInteger(futures.size());
+        for (Map.Entry<K, CompletableFuture<T>> e : futures.entrySet()) {
+            CompletableFuture<T> future = e.getValue();
+            if (deadline.isSet()) {
+                future.orTimeout(deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            }
+            future.whenComplete((result, ex) -> {
+                if (ex == null) {
+                    results.add(result);
+                } else {
+                    Throwable cause = unwrap(ex);
+                    if (partial || (cause instanceof TimeoutException && deadline.isExpired())) {
+                        results.add(failed.apply(e.getKey(), cause));
+                    } else {
+                        combined.completeExceptionally(cause);
+                        return;
+                    }
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    combined.complete(new HashSet<>(results));
+                }
+            });
+        }
+        combined.whenComplete((result, ex) -> {
+            if (ex != null) {
+                futures.values().forEach(f -> f.cancel(false));
+            }
+        });
+        return combined;
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
 }
@@ -6,7 +6,9 @@ import org.jboss.da.common.ScopedGAVStrategy;
 import org.jboss.da.common.json.LookupMode;
 import org.jboss.da.common.util.Configuration;
 import org.jboss.da.common.util.ConfigurationParseException;
+import org.jboss.da.common.util.Deadline;
 import org.jboss.da.listings.api.service.BlackArtifactService;
+import org.jboss.da.lookup.model.LookupError;
 import org.jboss.da.lookup.model.MavenLatestResult;
 import org.jboss.da.lookup.model.MavenLookupResult;
 import org.jboss.da.lookup.model.MavenVersionsResult;
@@ -19,12 +21,12 @@ import org.jboss.da.model.rest.GA;
 import org.jboss.da.model.rest.GAV;
 import org.jboss.da.model.rest.NPMPackage;
 import org.jboss.da.products.api.Artifact;
+import org.jboss.da.products.api.LookupContext;
 import org.jboss.da.products.api.MavenArtifact;
 import org.jboss.da.products.api.NPMArtifact;
 import org.jboss.da.products.api.ProductProvider;
 import org.jboss.da.products.impl.AggregatedProductProvider;
 import org.jboss.da.products.impl.PncProductProvider;
-import org.jboss.da.products.impl.RepositoryProductProvider;
 import org.jboss.da.reports.api.LookupGenerator;
 import org.jboss.pnc.api.dependencyanalyzer.dto.QualifiedVersion;
 import org.jboss.pnc.common.alignment.ranking.AlignmentPredicate;
@@ -37,9 +39,12 @@ import org.jboss.pnc.common.version.VersionAnalyzer;
 import org.jboss.pnc.dto.requests.QValue;
 import org.jboss.pnc.enums.ArtifactQuality;
 
+import lombok.extern.slf4j.Slf4j;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -50,19 +55,19 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-import static org.jboss.da.reports.impl.FuturesUtil.joinFutures;
+import static org.jboss.da.reports.impl.FuturesUtil.combineFutures;
 
+@Slf4j
 @ApplicationScoped
 public class LookupGeneratorImpl implements LookupGenerator {
 
-    @Inject
-    @RepositoryProductProvider.Repository
-    private RepositoryProductProvider repositoryProductProvider;
-
     @Inject
     @PncProductProvider.Pnc
     private PncProductProvider pncProductProvider;
@@ -84,20 +89,48 @@ public class LookupGeneratorImpl implements LookupGenerator {
     }
 
     @Override
-    public Set<MavenLookupResult> lookupBestMatchMaven(
+    public CompletableFuture<Set<MavenLookupResult>> lookupBestMatchMaven(
+            Set<GAV> gavs,
+            String mode,
+            boolean brewPullActive,
+            Set<Strategy> strategies,
+            boolean partial,
+            Deadline deadline) throws ValidationException {
+        Map<GAV, CompletableFuture<MavenLookupResult>> futures = startBestMatchMaven(
+                gavs,
+                mode,
+                brewPullActive,
+                strategies);
+        return combineFutures(futures, deadline, partial, LookupGeneratorImpl::failedLookupResult);
+    }
+
+    @Override
+    public Collection<CompletableFuture<MavenLookupResult>> streamBestMatchMaven(
             Set<GAV> gavs,
             String mode,
             boolean brewPullActive,
-            Set<Strategy> strategies) throws CommunicationException, ValidationException {
+            Set<Strategy> strategies,
+            Deadline deadline) {
+        Map<GAV, CompletableFuture<MavenLookupResult>> futures = startBestMatchMaven(
+                gavs,
+                mode,
+                brewPullActive,
+                strategies);
+        return recover(futures, deadline, LookupGeneratorImpl::failedLookupResult);
+    }
+
+    private Map<GAV, CompletableFuture<MavenLookupResult>> startBestMatchMaven(
+            Set<GAV> gavs,
+            String mode,
+            boolean brewPullActive,
+            Set<Strategy> strategies) throws ValidationException {
         LookupMode lookupMode = getMode(mode, false);
         Set<ScopedGAVStrategy> compiledStrategies = compileMavenStrategies(strategies);
 
-        ProductProvider productProvider = setupProductProvider(
-                brewPullActive,
-                lookupMode,
-                extractQualifiers(compiledStrategies));
+        LookupContext context = new LookupContext(lookupMode, extractQualifiers(compiledStrategies));
         Map<GA, CompletableFuture<Set<QualifiedVersion>>> productArtifacts = getArtifactVersions(
-                productProvider,
+                getProductProvider(brewPullActive),
+                context,
                 gavs,
                 true);
         return createLookupResult(gavs, lookupMode, productArtifacts, compiledStrategies);
@@ -128,60 +161,84 @@ public class LookupGeneratorImpl implements LookupGenerator {
     }
 
     @Override
-    public Set<MavenVersionsResult> lookupVersionsMaven(
+    public CompletableFuture<Set<MavenVersionsResult>> lookupVersionsMaven(
             Set<GAV> gavs,
             VersionFilter vf,
             VersionDistanceRule distanceRule,
             String mode,
             boolean brewPullActive,
-            boolean includeBad) throws CommunicationException {
+            boolean includeBad,
+            boolean partial,
+            Deadline deadline) {
         LookupMode lookupMode = getMode(mode, includeBad);
-        ProductProvider productProvider = setupProductProvider(brewPullActive, lookupMode, Set.of());
         Map<GA, CompletableFuture<Set<QualifiedVersion>>> productArtifacts = getArtifactVersions(
-                productProvider,
+                getProductProvider(brewPullActive),
+                new LookupContext(lookupMode),
                 gavs,
                 !includeBad);
-        return createVersionsResult(gavs, lookupMode, vf, distanceRule, productArtifacts);
+        return createVersionsResult(gavs, lookupMode, vf, distanceRule, productArtifacts, partial, deadline);
     }
 
     @Override
-    public Set<MavenLatestResult> lookupLatestMaven(Set<GAV> gavs, String mode) throws CommunicationException {
+    public CompletableFuture<Set<MavenLatestResult>> lookupLatestMaven(
+            Set<GAV> gavs,
+            String mode,
+            Deadline deadline) {
         LookupMode lookupMode = getMode(mode, true);
-        ProductProvider productProvider = setupProductProvider(true, lookupMode, Set.of());
         Map<GA, CompletableFuture<Set<QualifiedVersion>>> productArtifacts = getArtifactVersions(
-                productProvider,
+                getProductProvider(true),
+                new LookupContext(lookupMode),
                 gavs,
                 false);
-        return createLatestResult(gavs, lookupMode, productArtifacts);
+        return createLatestResult(gavs, lookupMode, productArtifacts, deadline);
     }
 
     @Override
-    public Set<NPMLookupResult> lookupBestMatchNPM(Set<NPMPackage> packages, String mode)
-            throws CommunicationException {
+    public CompletableFuture<Set<NPMLookupResult>> lookupBestMatchNPM(
+            Set<NPMPackage> packages,
+            String mode,
+            boolean partial,
+            Deadline deadline) {
+        Map<NPMPackage, CompletableFuture<NPMLookupResult>> futures = startBestMatchNPM(packages, mode);
+        return combineFutures(futures, deadline, partial, LookupGeneratorImpl::failedLookupResult);
+    }
+
+    @Override
+    public Collection<CompletableFuture<NPMLookupResult>> streamBestMatchNPM(
+            Set<NPMPackage> packages,
+            String mode,
+            Deadline deadline) {
+        Map<NPMPackage, CompletableFuture<NPMLookupResult>> futures = startBestMatchNPM(packages, mode);
+        return recover(futures, deadline, LookupGeneratorImpl::failedLookupResult);
+    }
+
+    private Map<NPMPackage, CompletableFuture<NPMLookupResult>> startBestMatchNPM(
+            Set<NPMPackage> packages,
+            String mode) {
         LookupMode lookupMode = getMode(mode, false);
-        pncProductProvider.setLookupMode(lookupMode);
-        Map<String, CompletableFuture<Set<QualifiedVersion>>> productArtifacts = getArtifactVersions(packages);
+        Map<String, CompletableFuture<Set<QualifiedVersion>>> productArtifacts = getArtifactVersions(
+                packages,
+                new LookupContext(lookupMode));
         return createLookupResultNpm(packages, lookupMode, productArtifacts);
     }
 
     @Override
-    public Set<NPMVersionsResult> lookupVersionsNPM(
+    public CompletableFuture<Set<NPMVersionsResult>> lookupVersionsNPM(
             Set<NPMPackage> packages,
             VersionFilter vf,
             VersionDistanceRule distanceRule,
             String mode,
-            boolean includeBad) throws CommunicationException {
+            boolean includeBad,
+            Deadline deadline) {
         LookupMode lookupMode = getMode(mode, includeBad);
-        pncProductProvider.setLookupMode(lookupMode);
-        Map<String, CompletableFuture<Set<QualifiedVersion>>> productArtifacts = getArtifactVersions(packages);
-        return createVersionsResultNpm(packages, lookupMode, vf, distanceRule, productArtifacts);
+        Map<String, CompletableFuture<Set<QualifiedVersion>>> productArtifacts = getArtifactVersions(
+                packages,
+                new LookupContext(lookupMode));
+        return createVersionsResultNpm(packages, lookupMode, vf, distanceRule, productArtifacts, deadline);
     }
 
-    private ProductProvider setupProductProvider(boolean brewPullActive, LookupMode mode, Set<QValue> qualifiers) {
-        pncProductProvider.setLookupMode(mode);
-        pncProductProvider.setQualifiers(qualifiers);
+    private ProductProvider getProductProvider(boolean brewPullActive) {
         if (brewPullActive) {
-            repositoryProductProvider.setLookupMode(mode);
             return aggProductProvider;
         } else {
             return pncProductProvider;
@@ -190,13 +247,14 @@ public class LookupGeneratorImpl implements LookupGenerator {
 
     private Map<GA, CompletableFuture<Set<QualifiedVersion>>> getArtifactVersions(
             ProductProvider productProvider,
+            LookupContext context,
             Set<GAV> gavs,
             boolean filterBlacklisted) {
         Map<GA, CompletableFuture<Set<QualifiedVersion>>> ret = new HashMap<>();
         Set<GA> distinctGAs = gavs.stream().map(GAV::getGA).collect(Collectors.toSet());
         for (GA ga : distinctGAs) {
             MavenArtifact mavenArtifact = new MavenArtifact(new GAV(ga, "0.0.0"));
-            CompletableFuture<Set<QualifiedVersion>> versions = productProvider.getAllVersions(mavenArtifact);
+            CompletableFuture<Set<QualifiedVersion>> versions = productProvider.getAllVersions(mavenArtifact, context);
             if (filterBlacklisted) {
                 versions = filterBlacklistedArtifacts(versions, ga);
             }
@@ -205,41 +263,45 @@ public class LookupGeneratorImpl implements LookupGenerator {
         return ret;
     }
 
-    private Map<String, CompletableFuture<Set<QualifiedVersion>>> getArtifactVersions(Set<NPMPackage> packages) {
+    private Map<String, CompletableFuture<Set<QualifiedVersion>>> getArtifactVersions(
+            Set<NPMPackage> packages,
+            LookupContext context) {
         return packages.stream()
                 .map(NPMPackage::getName)
                 .distinct()
                 .map(name -> new NPMArtifact(name, "0.0.0"))
-                .collect(Collectors.toMap(Artifact::getName, pncProductProvider::getAllVersions));
+                .collect(Collectors.toMap(Artifact::getName, a -> pncProductProvider.getAllVersions(a, context)));
     }
 
     private CompletableFuture<Set<QualifiedVersion>> filterBlacklistedArtifacts(
             CompletableFuture<Set<QualifiedVersion>> versions,
             GA ga) {
-        Predicate<QualifiedVersion> isNotBlacklisted = version -> {
-            GAV gav = new GAV(ga, version.getVersion());
-            return !blackArtifactService.isArtifactPresent(gav);
-        };
-        return versions.thenApply(v -> v.stream().filter(isNotBlacklisted).collect(Collectors.toSet()));
+        return versions.thenApply(v -> {
+            Set<String> blocked = blackArtifactService
+                    .getBlockedVersions(ga, v.stream().map(QualifiedVersion::getVersion).collect(Collectors.toList()));
+            if (blocked.isEmpty()) {
+                return v;
+            }
+            return v.stream().filter(version -> !blocked.contains(version.getVersion())).collect(Collectors.toSet());
+        });
     }
 
-    private Set<MavenLookupResult> createLookupResult(
+    private Map<GAV, CompletableFuture<MavenLookupResult>> createLookupResult(
             Set<GAV> gavs,
             LookupMode mode,
             Map<GA, CompletableFuture<Set<QualifiedVersion>>> artifactsMap,
-            Set<ScopedGAVStrategy> compiledStrategies) throws CommunicationException {
+            Set<ScopedGAVStrategy> compiledStrategies) {
 
         Map<ScopedStrategy<GAV>, VersionAnalyzer> vas = compiledStrategies.stream()
                 .collect(Collectors.toMap(Function.identity(), con -> new VersionAnalyzer(mode.getSuffixes(), con)));
         VersionAnalyzer def = new VersionAnalyzer(mode.getSuffixes(), VersionStrategy.none());
 
-        Set<CompletableFuture<MavenLookupResult>> futures = gavs.stream()
-                .map(
-                        gav -> artifactsMap.get(gav.getGA())
-                                .thenApply(pas -> getLookupResult(chooseVa(gav, vas, def), gav, pas)))
-                .collect(Collectors.toSet());
-
-        return joinFutures(futures);
+        return gavs.stream()
+                .collect(
+                        Collectors.toMap(
+                                Function.identity(),
+                                gav -> artifactsMap.get(gav.getGA())
+                                        .thenApply(pas -> getLookupResult(chooseVa(gav, vas, def), gav, pas))));
     }
 
     /**
@@ -266,72 +328,90 @@ public class LookupGeneratorImpl implements LookupGenerator {
         return def;
     }
 
-    private Set<MavenVersionsResult> createVersionsResult(
+    private CompletableFuture<Set<MavenVersionsResult>> createVersionsResult(
             Set<GAV> gavs,
             LookupMode mode,
             VersionFilter vf,
             VersionDistanceRule distanceRule,
-            Map<GA, CompletableFuture<Set<QualifiedVersion>>> artifactsMap) throws CommunicationException {
+            Map<GA, CompletableFuture<Set<QualifiedVersion>>> artifactsMap,
+            boolean partial,
+            Deadline deadline) {
 
         VersionAnalyzer va = new VersionAnalyzer(mode.getSuffixes(), distanceRule);
 
-        Set<CompletableFuture<MavenVersionsResult>> futures = gavs.stream()
-                .map(
-                        gav -> artifactsMap.get(gav.getGA())
-                                .thenApply(
-                                        pas -> pas.stream()
-                                                .map(QualifiedVersion::getVersion)
-                                                .collect(Collectors.toSet()))
-                                .thenApply(pas -> getMatchingVersions(va, vf, gav, pas)))
-                .collect(Collectors.toSet());
-
-        return joinFutures(futures);
+        Map<GAV, CompletableFuture<MavenVersionsResult>> futures = gavs.stream()
+                .collect(
+                        Collectors.toMap(
+                                Function.identity(),
+                                gav -> artifactsMap.get(gav.getGA())
+                                        .thenApply(
+                                                pas -> pas.stream()
+                                                        .map(QualifiedVersion::getVersion)
+                                                        .collect(Collectors.toSet()))
+                                        .thenApply(pas -> getMatchingVersions(va, vf, gav, pas))));
+
+        return combineFutures(
+                futures,
+                deadline,
+                partial,
+                (gav, ex) -> new MavenVersionsResult(gav, Collections.emptyList(), toError(ex)));
     }
 
-    private Set<MavenLatestResult> createLatestResult(
+    private CompletableFuture<Set<MavenLatestResult>> createLatestResult(
             Set<GAV> gavs,
             LookupMode mode,
-            Map<GA, CompletableFuture<Set<QualifiedVersion>>> artifactsMap) throws CommunicationException {
+            Map<GA, CompletableFuture<Set<QualifiedVersion>>> artifactsMap,
+            Deadline deadline) {
 
         VersionAnalyzer va = new VersionAnalyzer(Collections.singletonList(mode.getIncrementSuffix()));
 
-        Set<CompletableFuture<MavenLatestResult>> futures = gavs.stream()
-                .map(gav -> artifactsMap.get(gav.getGA()).thenApply(pas -> getLatestResult(va, gav, pas)))
-                .collect(Collectors.toSet());
+        Map<GAV, CompletableFuture<MavenLatestResult>> futures = gavs.stream()
+                .collect(
+                        Collectors.toMap(
+                                Function.identity(),
+                                gav -> artifactsMap.get(gav.getGA()).thenApply(pas -> getLatestResult(va, gav, pas))));
 
-        return joinFutures(futures);
+        return combineFutures(futures, deadline, false, (gav, ex) -> new MavenLatestResult(gav, null, toError(ex)));
     }
 
-    private Set<NPMLookupResult> createLookupResultNpm(
+    private Map<NPMPackage, CompletableFuture<NPMLookupResult>> createLookupResultNpm(
             Set<NPMPackage> packages,
             LookupMode mode,
-            Map<String, CompletableFuture<Set<QualifiedVersion>>> artifactsMap) throws CommunicationException {
+            Map<String, CompletableFuture<Set<QualifiedVersion>>> artifactsMap) {
         VersionAnalyzer va = new VersionAnalyzer(mode.getSuffixes());
 
-        Set<CompletableFuture<NPMLookupResult>> futures = packages.stream()
-                .map(pkg -> artifactsMap.get(pkg.getName()).thenApply(f -> getLookupResult(va, pkg, f)))
-                .collect(Collectors.toSet());
-
-        return joinFutures(futures);
+        return packages.stream()
+                .collect(
+                        Collectors.toMap(
+                                Function.identity(),
+                                pkg -> artifactsMap.get(pkg.getName()).thenApply(f -> getLookupResult(va, pkg, f))));
     }
 
-    private Set<NPMVersionsResult> createVersionsResultNpm(
+    private CompletableFuture<Set<NPMVersionsResult>> createVersionsResultNpm(
             Set<NPMPackage> packages,
             LookupMode mode,
             VersionFilter vf,
             VersionDistanceRule distanceRule,
-            Map<String, CompletableFuture<Set<QualifiedVersion>>> artifactsMap) throws CommunicationException {
+            Map<String, CompletableFuture<Set<QualifiedVersion>>> artifactsMap,
+            Deadline deadline) {
         VersionAnalyzer va = new VersionAnalyzer(mode.getSuffixes(), distanceRule);
 
-        Set<CompletableFuture<NPMVersionsResult>> futures = packages.stream()
-                .map(
-                        pkg -> artifactsMap.get(pkg.getName())
-                                .thenApply(
-                                        f -> f.stream().map(QualifiedVersion::getVersion).collect(Collectors.toSet()))
-                                .thenApply(f -> getMatchingVersions(va, vf, pkg, f)))
-                .collect(Collectors.toSet());
-
-        return joinFutures(futures);
+        Map<NPMPackage, CompletableFuture<NPMVersionsResult>> futures = packages.stream()
+                .collect(
+                        Collectors.toMap(
+                                Function.identity(),
+                                pkg -> artifactsMap.get(pkg.getName())
+                                        .thenApply(
+                                                f -> f.stream()
+                                                        .map(QualifiedVersion::getVersion)
+                                                        .collect(Collectors.toSet()))
+                                        .thenApply(f -> getMatchingVersions(va, vf, pkg, f))));
+
+        return combineFutures(
+                futures,
+                deadline,
+                false,
+                (pkg, ex) -> new NPMVersionsResult(pkg, Collections.emptyList(), toError(ex)));
     }
 
     private MavenLookupResult getLookupResult(VersionAnalyzer va, GAV gav, Set<QualifiedVersion> versions) {
@@ -367,6 +447,53 @@ public class LookupGeneratorImpl implements LookupGenerator {
         return new NPMLookupResult(pkg, bmv.orElse(null));
     }
 
+    private static MavenLookupResult failedLookupResult(GAV gav, Throwable ex) {
+        return new MavenLookupResult(gav, null, toError(ex));
+    }
+
+    private static NPMLookupResult failedLookupResult(NPMPackage pkg, Throwable ex) {
+        return new NPMLookupResult(pkg, null, toError(ex));
+    }
+
+    /**
+     * Returns futures that complete with the failed result instead of failing, also when the deadline expires.
+     */
+    private static <K, T> Collection<CompletableFuture<T>> recover(
+            Map<K, CompletableFuture<T>> futures,
+            Deadline deadline,
+            BiFunction<K, Throwable, T> failed) {
+        List<CompletableFuture<T>> ret = new ArrayList<>(futures.size());
+        for (Map.Entry<K, CompletableFuture<T>> e : futures.entrySet()) {
+            CompletableFuture<T> future = e.getValue();
+            if (deadline.isSet()) {
+                future.orTimeout(deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            }
+            ret.add(future.handle((result, ex) -> {
+                if (ex == null) {
+                    return result;
+                }
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                return failed.apply(e.getKey(), cause);
+            }));
+        }
+        return ret;
+    }
+
+    private static LookupError toError(Throwable ex) {
+        if (ex instanceof TimeoutException) {
+            return new LookupError(
+                    LookupError.Type.DEADLINE_EXCEEDED,
+                    "Lookup didn't finish before the request deadline.");
+        }
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CommunicationException) {
+                return new LookupError(LookupError.Type.COMMUNICATION_FAIL, cause.getMessage());
+            }
+        }
+        log.warn("Lookup of an artifact failed.", ex);
+        return new LookupError(LookupError.Type.UNEXPECTED_SERVER_ERR, ex.toString());
+    }
+
     private LookupMode getMode(String mode, boolean includeAll) {
         LookupMode lookupMode = modes.get(mode);
         if (lookupMode == null) {
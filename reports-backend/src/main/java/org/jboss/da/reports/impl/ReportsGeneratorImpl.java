@@ -24,17 +24,19 @@ import org.jboss.da.products.api.MavenArtifact;
 import org.jboss.da.products.api.NPMArtifact;
 import org.jboss.da.products.api.Product;
 import org.jboss.da.products.api.ProductArtifacts;
+import org.jboss.da.products.api.LookupContext;
 import org.jboss.da.products.api.ProductProvider;
 import org.jboss.da.products.impl.AggregatedProductProvider;
 import org.jboss.da.products.impl.PncProductProvider;
 import org.jboss.da.products.impl.PncProductProvider.Pnc;
-import org.jboss.da.products.impl.RepositoryProductProvider;
-import org.jboss.da.products.impl.RepositoryProductProvider.Repository;
 import org.jboss.da.reports.api.AdvancedArtifactReport;
 import org.jboss.da.reports.api.AlignmentReportModule;
 import org.jboss.da.reports.api.ArtifactReport;
 import org.jboss.da.reports.api.BuiltReportModule;
 import org.jboss.da.reports.api.ProductArtifact;
+import org.jboss.da.reports.api.ProgressListener;
+import org.jboss.da.reports.api.ProgressListener.Stage;
+import org.jboss.da.reports.api.ReportProgress;
 import org.jboss.da.reports.api.ReportsGenerator;
 import org.jboss.da.reports.backend.api.DependencyTreeGenerator;
 import org.jboss.da.reports.model.api.SCMLocator;
@@ -62,6 +64,7 @@ import javax.validation.ValidationException;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumSet;
@@ -72,7 +75,9 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -121,10 +126,6 @@ public class ReportsGeneratorImpl implements ReportsGenerator {
     @Pnc
     private PncProductProvider pncProductProvider;
 
-    @Inject
-    @Repository
-    private RepositoryProductProvider repositoryProductProvider;
-
     private Map<String, LookupMode> modes;
 
     @Inject
@@ -142,25 +143,77 @@ public class ReportsGeneratorImpl implements ReportsGenerator {
             throw new IllegalArgumentException("SCM information can't be null");
         }
 
-        GAVDependencyTree dt = dependencyTreeGenerator.getDependencyTree(scml.getScml());
-        return createReport(dt);
+        ProgressListener progress = ReportProgress.current();
+        cloneRepository(scml.getScml(), progress);
+        GAVDependencyTree dt = getDependencyTree(scml.getScml(), progress);
+        return createReport(dt, progress);
+    }
+
+    private GAVDependencyTree getDependencyTree(SCMLocator scml, ProgressListener progress)
+            throws PomAnalysisException {
+        progress.started(Stage.ANALYSIS);
+        GAVDependencyTree dt = dependencyTreeGenerator.getDependencyTree(scml);
+        progress.finished(Stage.ANALYSIS);
+        return dt;
     }
 
-    private Optional<ArtifactReport> createReport(GAVDependencyTree dt) throws CommunicationException {
+    /**
+     * Clones the repository in advance, so the progress of the cloning can be reported. The analysis then gets the
+     * cached clone.
+     *
+     * @return folder of the cloned repository.
+     */
+    private File cloneRepository(SCMLocator scml, ProgressListener progress) throws ScmException {
+        // TODO: hardcoded to git
+        progress.started(Stage.CLONE);
+        File repoFolder = scmManager.cloneRepository(SCMType.GIT, scml.getScmUrl(), scml.getRevision());
+        progress.finished(Stage.CLONE);
+        checkCancelled();
+        return repoFolder;
+    }
+
+    private Optional<ArtifactReport> createReport(GAVDependencyTree dt, ProgressListener progress)
+            throws CommunicationException {
         ArtifactReport report = new ArtifactReport(dt.getGav());
 
         Set<GAVDependencyTree> nodesVisited = new HashSet<>();
         nodesVisited.add(dt);
         addDependencyReports(report, dt.getDependencies(), nodesVisited);
+        checkCancelled();
 
         List<CompletableFuture<Void>> futures = new ArrayList<>();
         traverseAndFill(report, futures);
 
+        reportResolution(futures, progress);
         FuturesUtil.joinFutures(futures);
+        progress.finished(Stage.RESOLUTION);
 
         return Optional.of(report);
     }
 
+    /**
+     * Reports number of resolved artifacts to the listener as the futures complete.
+     */
+    private static void reportResolution(
+            Collection<? extends CompletableFuture<?>> futures,
+            ProgressListener progress) {
+        int total = futures.size();
+        AtomicInteger done = new AtomicInteger();
+        progress.started(Stage.RESOLUTION);
+        for (CompletableFuture<?> future : futures) {
+            future.whenComplete((r, ex) -> progress.progress(Stage.RESOLUTION, done.incrementAndGet(), total));
+        }
+    }
+
+    /**
+     * Stops the report generation when the request was cancelled, so the following stages are not started.
+     */
+    private static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Report generation was cancelled.");
+        }
+    }
+
     private void addDependencyReports(
             ArtifactReport ar,
             Set<GAVDependencyTree> dependencyTree,
@@ -189,7 +242,8 @@ public class ReportsGeneratorImpl implements ReportsGenerator {
     private CompletableFuture<Void> fillArtifactReport(ArtifactReport report) {
         GAV gav = report.getGav();
 
-        CompletableFuture<Set<ProductArtifacts>> artifacts = aggProductProvider.getArtifacts(new MavenArtifact(gav));
+        CompletableFuture<Set<ProductArtifacts>> artifacts = aggProductProvider
+                .getArtifacts(new MavenArtifact(gav), LookupContext.DEFAULT);
         artifacts = filterProductArtifacts(artifacts);
 
         report.setBlacklisted(blackArtifactService.isArtifactPresent(gav));
@@ -236,12 +290,11 @@ public class ReportsGeneratorImpl implements ReportsGenerator {
             throws ScmException, PomAnalysisException, CommunicationException {
 
         SCMLocator scml = request.getScml();
+        ProgressListener progress = ReportProgress.current();
 
-        GAVDependencyTree dt = dependencyTreeGenerator.getDependencyTree(scml);
-        Optional<ArtifactReport> artifactReport = createReport(dt);
-        // TODO: hardcoded to git
-        // hopefully we'll get the cached cloned folder for this repo
-        File repoFolder = scmManager.cloneRepository(SCMType.GIT, scml.getScmUrl(), scml.getRevision());
+        File repoFolder = cloneRepository(scml, progress);
+        GAVDependencyTree dt = getDependencyTree(scml, progress);
+        Optional<ArtifactReport> artifactReport = createReport(dt, progress);
         return artifactReport.map(r -> generateAdvancedArtifactReport(r, repoFolder));
     }
 
@@ -310,13 +363,11 @@ public class ReportsGeneratorImpl implements ReportsGenerator {
             boolean useUnknownProduct,
             Set<Long> productIds) throws ScmException, PomAnalysisException, CommunicationException {
         VersionParser versionParser = new VersionParser(DEFAULT_SUFFIX);
-        Map<GA, Set<GAV>> dependenciesOfModules = scmConnector.getDependenciesOfModules(
-                scml.getScmUrl(),
-                scml.getRevision(),
-                scml.getPomPath(),
-                scml.getRepositories());
+        ProgressListener progress = ReportProgress.current();
+        Map<GA, Set<GAV>> dependenciesOfModules = getDependenciesOfModules(scml, progress);
 
         List<CompletableFuture<Void>> futures = new ArrayList<>();
+        List<CompletableFuture<Set<ProductArtifact>>> resolving = new ArrayList<>();
         Set<AlignmentReportModule> ret = new TreeSet<>(Comparator.comparing(x -> x.getModule()));
         for (Map.Entry<GA, Set<GAV>> e : dependenciesOfModules.entrySet()) {
             AlignmentReportModule module = new AlignmentReportModule(e.getKey());
@@ -341,7 +392,7 @@ public class ReportsGeneratorImpl implements ReportsGenerator {
 
                 CompletableFuture<Set<ProductArtifacts>> artifacts = filterProducts(
                         useUnknownProduct,
-                        aggProductProvider.getArtifacts(new MavenArtifact(gav)));
+                        aggProductProvider.getArtifacts(new MavenArtifact(gav), LookupContext.DEFAULT));
                 CompletableFuture<VersionAnalysisResult> versions = analyzeVersions(
                         Collections.singletonList(DEFAULT_SUFFIX),
                         gav.getVersion(),
@@ -350,6 +401,7 @@ public class ReportsGeneratorImpl implements ReportsGenerator {
                 CompletableFuture<Set<ProductArtifact>> built = artifacts
                         .thenCombine(versions, (a, v) -> mapProducts(getBuilt(a, v), gav, versionParser));
                 intr.put(gav, built);
+                resolving.add(built);
 
                 CompletableFuture<Set<ProductArtifact>> different = artifacts
                         .thenCombine(versions, (a, v) -> mapProducts(getBuiltDifferent(a, v), gav, versionParser));
@@ -363,10 +415,28 @@ public class ReportsGeneratorImpl implements ReportsGenerator {
                     CompletableFuture.allOf(intrDone, diffDone)
                             .thenAccept(x -> fillNotBuilt(blacklisted, internallyBuilt, differentVersion, notBuilt)));
         }
+        reportResolution(resolving, progress);
         FuturesUtil.joinFutures(futures);
+        progress.finished(Stage.RESOLUTION);
         return ret;
     }
 
+    private Map<GA, Set<GAV>> getDependenciesOfModules(SCMLocator scml, ProgressListener progress)
+            throws ScmException, PomAnalysisException {
+        cloneRepository(scml, progress);
+
+        progress.started(Stage.ANALYSIS);
+        Map<GA, Set<GAV>> dependenciesOfModules = scmConnector.getDependenciesOfModules(
+                scml.getScmUrl(),
+                scml.getRevision(),
+                scml.getPomPath(),
+                scml.getRepositories());
+        progress.progress(Stage.ANALYSIS, dependenciesOfModules.size(), dependenciesOfModules.size());
+        progress.finished(Stage.ANALYSIS);
+        checkCancelled();
+        return dependenciesOfModules;
+    }
+
     private static Set<ProductArtifacts> getBuiltDifferent(Set<ProductArtifacts> a, VersionAnalysisResult v) {
         Optional<String> bmv = v.getBestMatchVersion();
         if (bmv.isPresent()) {
@@ -454,23 +524,23 @@ public class ReportsGeneratorImpl implements ReportsGenerator {
     @Override
     public Set<BuiltReportModule> getBuiltReport(SCMLocator scml)
             throws ScmException, PomAnalysisException, CommunicationException {
-        Map<GA, Set<GAV>> dependenciesOfModules = scmConnector.getDependenciesOfModules(
-                scml.getScmUrl(),
-                scml.getRevision(),
-                scml.getPomPath(),
-                scml.getRepositories());
+        ProgressListener progress = ReportProgress.current();
+        Map<GA, Set<GAV>> dependenciesOfModules = getDependenciesOfModules(scml, progress);
         Set<CompletableFuture<BuiltReportModule>> builtSet = new HashSet<>();
         for (Map.Entry<GA, Set<GAV>> e : dependenciesOfModules.entrySet()) {
             for (GAV gav : e.getValue()) {
                 CompletableFuture<Set<ProductArtifacts>> artifacts = aggProductProvider
-                        .getArtifacts(new MavenArtifact(gav));
+                        .getArtifacts(new MavenArtifact(gav), LookupContext.DEFAULT);
                 artifacts = filterBuiltArtifacts(artifacts);
                 builtSet.add(
                         analyzeVersions(Collections.singletonList(DEFAULT_SUFFIX), gav.getVersion(), artifacts)
                                 .thenApply(v -> toBuiltReportModule(gav, v)));
             }
         }
-        return FuturesUtil.joinFutures(builtSet);
+        reportResolution(builtSet, progress);
+        Set<BuiltReportModule> built = FuturesUtil.joinFutures(builtSet);
+        progress.finished(Stage.RESOLUTION);
+        return built;
     }
 
     private BuiltReportModule toBuiltReportModule(GAV gav, VersionAnalysisResult vlr) {
@@ -485,12 +555,13 @@ public class ReportsGeneratorImpl implements ReportsGenerator {
         final String versionSuffix = request.getVersionSuffix();
         String mode = request.getMode();
 
-        LookupMode lookupMode = getLookupMode(mode, versionSuffix);
-        pncProductProvider.setLookupMode(lookupMode);
+        LookupContext context = getLookupContext(versionSuffix, mode, false);
 
         Set<String> uniqueNames = request.getPackages().stream().map(x -> x.getName()).collect(Collectors.toSet());
 
-        Map<String, CompletableFuture<Set<ProductArtifacts>>> artifactsMap = getProductArtifactsNPM(uniqueNames);
+        Map<String, CompletableFuture<Set<ProductArtifacts>>> artifactsMap = getProductArtifactsNPM(
+                uniqueNames,
+                context);
 
         return createLookupReports(request.getPackages(), versionSuffix, artifactsMap);
     }
@@ -513,13 +584,14 @@ public class ReportsGeneratorImpl implements ReportsGenerator {
                 throw new UnsupportedOperationException("Unknown filter " + versionFilter);
         }
 
-        ProductProvider productProvider = setupProductProvider(false, null, request.getMode(), request.isIncludeAll());
+        LookupContext context = getLookupContext(null, request.getMode(), request.isIncludeAll());
 
         Set<String> uniqueNames = request.getPackages().stream().map(x -> x.getName()).collect(Collectors.toSet());
 
         Map<String, CompletableFuture<Set<String>>> artifactsMap = new HashMap<>();
         for (String name : uniqueNames) {
-            CompletableFuture<Set<String>> artifacts = productProvider.getAllVersions(new NPMArtifact(name, "0.0.0"))
+            CompletableFuture<Set<String>> artifacts = pncProductProvider
+                    .getAllVersions(new NPMArtifact(name, "0.0.0"), context)
                     .thenApply(s -> s.stream().map(QualifiedVersion::getVersion).collect(Collectors.toSet()));
 
             artifactsMap.put(name, artifacts);
@@ -528,11 +600,13 @@ public class ReportsGeneratorImpl implements ReportsGenerator {
         return createVersionsReports(request.getPackages(), artifactsMap, predicateProvider);
     }
 
-    private Map<String, CompletableFuture<Set<ProductArtifacts>>> getProductArtifactsNPM(Set<String> packageNames) {
+    private Map<String, CompletableFuture<Set<ProductArtifacts>>> getProductArtifactsNPM(
+            Set<String> packageNames,
+            LookupContext context) {
         Map<String, CompletableFuture<Set<ProductArtifacts>>> gaProductArtifactsMap = new HashMap<>();
         for (String name : packageNames) {
             CompletableFuture<Set<ProductArtifacts>> artifacts = pncProductProvider
-                    .getArtifacts(new NPMArtifact(name, "0.0.0"));
+                    .getArtifacts(new NPMArtifact(name, "0.0.0"), context);
 
             gaProductArtifactsMap.put(name, artifacts);
         }
@@ -589,46 +663,38 @@ public class ReportsGeneratorImpl implements ReportsGenerator {
         Set<GA> uniqueGAs = request.getGavs().stream().map(GAV::getGA).collect(Collectors.toSet());
 
         Map<GA, CompletableFuture<Set<ProductArtifacts>>> gaProductArtifactsMap;
-        ProductProvider productProvider = setupProductProvider(
-                request.getBrewPullActive(),
-                request.getVersionSuffix(),
-                request.getMode());
-        gaProductArtifactsMap = getProductArtifactsPerGA(productProvider, request, uniqueGAs);
+        ProductProvider productProvider = getProductProvider(request.getBrewPullActive());
+        LookupContext context = getLookupContext(request.getVersionSuffix(), request.getMode(), false);
+        gaProductArtifactsMap = getProductArtifactsPerGA(productProvider, context, uniqueGAs);
 
         return createLookupReports(request, gaProductArtifactsMap);
     }
 
-    private ProductProvider setupProductProvider(Boolean brewPullActive, String versionSuffix, String mode) {
-        return setupProductProvider(brewPullActive, versionSuffix, mode, false);
+    private ProductProvider getProductProvider(Boolean brewPullActive) {
+        if (BooleanUtils.isNotFalse(brewPullActive)) {
+            return aggProductProvider;
+        } else {
+            return pncProductProvider;
+        }
     }
 
-    private ProductProvider setupProductProvider(
-            Boolean brewPullActive,
-            final String versionSuffix,
-            final String mode,
-            final boolean includeAll) {
+    private LookupContext getLookupContext(final String versionSuffix, final String mode, final boolean includeAll) {
         LookupMode lookupMode = getLookupMode(mode, versionSuffix);
         if (includeAll) {
             lookupMode = lookupMode.toBuilder().artifactQualities(EnumSet.allOf(ArtifactQuality.class)).build();
         }
-        pncProductProvider.setLookupMode(lookupMode);
-        if (BooleanUtils.isNotFalse(brewPullActive)) {
-            repositoryProductProvider.setLookupMode(lookupMode);
-            return aggProductProvider;
-        } else {
-            return pncProductProvider;
-        }
+        return new LookupContext(lookupMode);
     }
 
     private Map<GA, CompletableFuture<Set<ProductArtifacts>>> getProductArtifactsPerGA(
             ProductProvider productProvider,
-            LookupGAVsRequest request,
+            LookupContext context,
             Set<GA> uniqueGAs) throws CommunicationException {
 
         Map<GA, CompletableFuture<Set<ProductArtifacts>>> gaProductArtifactsMap = new HashMap<>();
         for (GA ga : uniqueGAs) {
             CompletableFuture<Set<ProductArtifacts>> artifacts = productProvider
-                    .getArtifacts(new MavenArtifact(new GAV(ga, "0.0.0")));
+                    .getArtifacts(new MavenArtifact(new GAV(ga, "0.0.0")), context);
             artifacts = filterProductArtifacts(artifacts);
 
             gaProductArtifactsMap.put(ga, artifacts);
@@ -705,10 +771,29 @@ public class ReportsGeneratorImpl implements ReportsGenerator {
 
     private CompletableFuture<Set<ProductArtifacts>> filterBuiltArtifacts(
             CompletableFuture<Set<ProductArtifacts>> artifacts) {
-        return artifacts.thenApply(
-                as -> AggregatedProductProvider.filterArtifacts(
-                        as,
-                        a -> !blackArtifactService.isArtifactPresent(((MavenArtifact) a).getGav())));
+        return artifacts.thenApply(as -> {
+            Set<GAV> blocked = getBlockedGAVs(as);
+            if (blocked.isEmpty()) {
+                return as;
+            }
+            return AggregatedProductProvider
+                    .filterArtifacts(as, a -> !blocked.contains(((MavenArtifact) a).getGav()));
+        });
+    }
+
+    private Set<GAV> getBlockedGAVs(Set<ProductArtifacts> artifacts) {
+        Map<GA, Set<String>> versions = artifacts.stream()
+                .flatMap(pa -> pa.getArtifacts().stream())
+                .map(a -> ((MavenArtifact) a).getGav())
+                .collect(
+                        Collectors.groupingBy(
+                                GAV::getGA,
+                                Collectors.mapping(GAV::getVersion, Collectors.toSet())));
+        Set<GAV> blocked = new HashSet<>();
+        versions.forEach(
+                (ga, gaVersions) -> blackArtifactService.getBlockedVersions(ga, gaVersions)
+                        .forEach(v -> blocked.add(new GAV(ga, v))));
+        return blocked;
     }
 
     private static List<RestProductInput> toWhitelisted(Set<ProductArtifacts> whitelisted) {
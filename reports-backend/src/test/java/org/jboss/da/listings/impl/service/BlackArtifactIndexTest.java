@@ -0,0 +1,153 @@
+package org.jboss.da.listings.impl.service;
+
+import org.jboss.da.listings.api.dao.BlackArtifactDAO;
+import org.jboss.da.listings.api.dao.BlackArtifactRevisionDAO;
+import org.jboss.da.listings.api.model.BlackArtifactChange;
+import org.jboss.da.listings.api.model.BlackArtifactRevision;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Simulates two nodes sharing one database: changes made on one node are seen by the other one through the change log.
+ * Revisions are assigned when a change is made and become visible when it is committed, like the ids generated by the
+ * database.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class BlackArtifactIndexTest {
+
+    @Mock
+    private BlackArtifactDAO blackArtifactDAO;
+
+    @Mock
+    private BlackArtifactRevisionDAO revisionDAO;
+
+    /**
+     * Committed change log entries.
+     */
+    private final List<BlackArtifactRevision> changeLog = new ArrayList<>();
+
+    private long nextRevision = 1;
+
+    private BlackArtifactIndex nodeA;
+
+    private BlackArtifactIndex nodeB;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        when(blackArtifactDAO.findAll()).thenReturn(Collections.emptyList());
+        when(revisionDAO.findLatestRevision())
+                .thenAnswer(invocation -> changeLog.stream().mapToLong(BlackArtifactRevision::getId).max().orElse(0));
+        when(revisionDAO.findRevisionsAfter(anyLong())).thenAnswer(invocation -> {
+            long after = (Long) invocation.getArguments()[0];
+            return committed(r -> r.getId() > after);
+        });
+        when(revisionDAO.findRevisionIdsAfter(anyLong())).thenAnswer(invocation -> {
+            long after = (Long) invocation.getArguments()[0];
+            return committed(r -> r.getId() > after).stream()
+                    .map(BlackArtifactRevision::getId)
+                    .collect(Collectors.toList());
+        });
+        when(revisionDAO.findRevisions(anyCollectionOf(Long.class))).thenAnswer(invocation -> {
+            Collection<Long> revisions = (Collection<Long>) invocation.getArguments()[0];
+            return committed(r -> revisions.contains(r.getId()));
+        });
+        nodeA = new BlackArtifactIndex(blackArtifactDAO, revisionDAO);
+        nodeB = new BlackArtifactIndex(blackArtifactDAO, revisionDAO);
+        nodeA.load();
+        nodeB.load();
+    }
+
+    @Test
+    public void testChangeIsPropagatedToOtherNode() {
+        commitOnNodeA(BlackArtifactChange.Type.ADDED, "1.0.0");
+        assertTrue(nodeA.contains("org.foo", "bar", "1.0.0"));
+        assertFalse(nodeB.contains("org.foo", "bar", "1.0.0"));
+
+        nodeB.poll();
+        assertTrue(nodeB.contains("org.foo", "bar", "1.0.0"));
+    }
+
+    @Test
+    public void testChangesAreAppliedInRevisionOrder() {
+        commitOnNodeA(BlackArtifactChange.Type.ADDED, "1.0.0");
+        nodeB.poll();
+        commitOnNodeA(BlackArtifactChange.Type.REMOVED, "1.0.0");
+        nodeB.poll();
+
+        assertFalse(nodeA.contains("org.foo", "bar", "1.0.0"));
+        assertFalse(nodeB.contains("org.foo", "bar", "1.0.0"));
+    }
+
+    @Test
+    public void testLateCommitBelowSeenRevisionIsApplied() {
+        // e.g. a single change committed after a chunk of a bulk import that started later
+        BlackArtifactRevision late = begin(BlackArtifactChange.Type.ADDED, "1.0.0");
+        for (int i = 0; i < 500; i++) {
+            commitOnNodeA(BlackArtifactChange.Type.ADDED, "2.0." + i);
+        }
+        nodeB.poll();
+        assertTrue(nodeB.contains("org.foo", "bar", "2.0.499"));
+        assertFalse(nodeB.contains("org.foo", "bar", "1.0.0"));
+
+        commit(late);
+        nodeB.poll();
+        assertTrue(nodeB.contains("org.foo", "bar", "1.0.0"));
+    }
+
+    @Test
+    public void testLateCommitDuringLoadIsApplied() {
+        BlackArtifactRevision late = begin(BlackArtifactChange.Type.ADDED, "1.0.0");
+        commitOnNodeA(BlackArtifactChange.Type.ADDED, "2.0.0");
+        nodeB.load();
+
+        commit(late);
+        nodeB.poll();
+        assertTrue(nodeB.contains("org.foo", "bar", "1.0.0"));
+    }
+
+    private void commitOnNodeA(BlackArtifactChange.Type type, String version) {
+        commit(begin(type, version));
+    }
+
+    /**
+     * Makes the change, which assigns its revision without making it visible to the other nodes.
+     */
+    private BlackArtifactRevision begin(BlackArtifactChange.Type type, String version) {
+        BlackArtifactChange change = new BlackArtifactChange(type, "org.foo", "bar", version);
+        BlackArtifactRevision revision = mock(BlackArtifactRevision.class);
+        when(revision.getId()).thenReturn(nextRevision++);
+        when(revision.toChange()).thenReturn(change);
+        return revision;
+    }
+
+    private void commit(BlackArtifactRevision revision) {
+        changeLog.add(revision);
+        nodeA.onChange(revision.toChange());
+    }
+
+    private List<BlackArtifactRevision> committed(Predicate<BlackArtifactRevision> filter) {
+        return changeLog.stream()
+                .filter(filter)
+                .sorted(Comparator.comparing(BlackArtifactRevision::getId))
+                .collect(Collectors.toList());
+    }
+}
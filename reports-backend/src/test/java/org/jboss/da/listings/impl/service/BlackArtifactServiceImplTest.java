@@ -0,0 +1,191 @@
+package org.jboss.da.listings.impl.service;
+
+import org.jboss.da.communication.auth.AuthenticatorService;
+import org.jboss.da.listings.api.dao.BlackArtifactDAO;
+import org.jboss.da.listings.api.dao.UserDAO;
+import org.jboss.da.listings.api.model.BlackArtifact;
+import org.jboss.da.listings.api.model.GA;
+import org.jboss.da.listings.api.model.User;
+import org.jboss.da.listings.api.service.ArtifactService.ArtifactStatus;
+import org.jboss.da.model.rest.GAV;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BlackArtifactServiceImplTest {
+
+    @Mock
+    private BlackArtifactDAO blackArtifactDAO;
+
+    @Mock
+    private AuthenticatorService auth;
+
+    @Mock
+    private UserDAO users;
+
+    @InjectMocks
+    private BlackArtifactServiceImpl service;
+
+    private final User user = new User("user", "user-id");
+
+    /**
+     * Chunks passed to the DAO, each one is committed in its own transaction.
+     */
+    private final List<List<GAV>> chunks = new ArrayList<>();
+
+    /**
+     * Number of the chunk which fails to be created, starting from 1.
+     */
+    private int failingChunk;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        when(auth.username()).thenReturn(Optional.of("user"));
+        when(auth.userId()).thenReturn(Optional.of("user-id"));
+        when(users.findUser("user-id")).thenReturn(Optional.of(user));
+        when(blackArtifactDAO.createAll(anyCollectionOf(GAV.class), any(User.class))).thenAnswer(invocation -> {
+            Collection<GAV> chunk = (Collection<GAV>) invocation.getArguments()[0];
+            if (chunks.size() + 1 == failingChunk) {
+                throw new IllegalStateException("Database is down");
+            }
+            chunks.add(new ArrayList<>(chunk));
+            return chunk.size();
+        });
+    }
+
+    @Test
+    public void testImportInChunks() {
+        Map<ArtifactStatus, Integer> result = service.importArtifacts(gavs(1200).iterator());
+
+        assertEquals(Integer.valueOf(1200), result.get(ArtifactStatus.ADDED));
+        assertEquals(Integer.valueOf(0), result.get(ArtifactStatus.NOT_MODIFIED));
+        assertEquals(Arrays.asList(500, 500, 200), chunkSizes());
+        assertEquals(gavs(1200), chunks.stream().flatMap(List::stream).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testImportWithoutEmptyLastChunk() {
+        service.importArtifacts(gavs(1000).iterator());
+
+        assertEquals(Arrays.asList(500, 500), chunkSizes());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDuplicatesAreNotModified() {
+        when(blackArtifactDAO.createAll(anyCollectionOf(GAV.class), any(User.class))).thenAnswer(invocation -> {
+            Collection<GAV> chunk = (Collection<GAV>) invocation.getArguments()[0];
+            chunks.add(new ArrayList<>(chunk));
+            // the first artifact is already blocklisted
+            return chunk.size() - 1;
+        });
+        List<GAV> gavs = new ArrayList<>(gavs(3));
+        gavs.add(gavs.get(1));
+        gavs.add(gavs.get(2));
+
+        Map<ArtifactStatus, Integer> result = service.importArtifacts(gavs.iterator());
+
+        assertEquals(Integer.valueOf(2), result.get(ArtifactStatus.ADDED));
+        assertEquals(Integer.valueOf(3), result.get(ArtifactStatus.NOT_MODIFIED));
+        assertEquals(Arrays.asList(3), chunkSizes());
+    }
+
+    @Test
+    public void testFailedChunkReportsCommittedArtifacts() {
+        failingChunk = 2;
+
+        try {
+            service.importArtifacts(gavs(1200).iterator());
+            fail("Import should have failed.");
+        } catch (IllegalStateException ex) {
+            assertEquals(
+                    "Failed to import artifacts, the first 500 artifacts were imported: Database is down",
+                    ex.getMessage());
+        }
+        assertEquals(Arrays.asList(500), chunkSizes());
+    }
+
+    @Test
+    public void testInvalidArtifactReportsCommittedArtifacts() {
+        Iterator<GAV> valid = gavs(600).iterator();
+        Iterator<GAV> artifacts = new Iterator<GAV>() {
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public GAV next() {
+                if (valid.hasNext()) {
+                    return valid.next();
+                }
+                throw new IllegalArgumentException("Missing version");
+            }
+        };
+
+        try {
+            service.importArtifacts(artifacts);
+            fail("Import should have failed.");
+        } catch (IllegalArgumentException ex) {
+            assertEquals(
+                    "Artifact #601 is invalid, the first 500 artifacts were imported: Missing version",
+                    ex.getMessage());
+        }
+        assertEquals(Arrays.asList(500), chunkSizes());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExportPassesAllArtifacts() {
+        BlackArtifact first = new BlackArtifact(new GA("org.foo", "bar"), "1.0.0", user);
+        BlackArtifact second = new BlackArtifact(new GA("org.foo", "baz"), "2.0.0", user);
+        doAnswer(invocation -> {
+            Consumer<BlackArtifact> consumer = (Consumer<BlackArtifact>) invocation.getArguments()[0];
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(blackArtifactDAO).forEachArtifact(any(Consumer.class));
+        List<BlackArtifact> exported = new ArrayList<>();
+
+        service.exportArtifacts(exported::add);
+
+        assertEquals(2, exported.size());
+        assertSame(first, exported.get(0));
+        assertSame(second, exported.get(1));
+    }
+
+    private List<Integer> chunkSizes() {
+        return chunks.stream().map(List::size).collect(Collectors.toList());
+    }
+
+    private static List<GAV> gavs(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new GAV("org.foo", "bar" + i % 7, i + ".0.0"))
+                .collect(Collectors.toList());
+    }
+}
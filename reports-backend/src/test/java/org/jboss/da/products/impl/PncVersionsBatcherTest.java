@@ -0,0 +1,228 @@
+package org.jboss.da.products.impl;
+
+import com.codahale.metrics.MetricRegistry;
+import org.jboss.da.common.json.DAConfig;
+import org.jboss.da.common.util.Configuration;
+import org.jboss.da.communication.pnc.PncConnector;
+import org.jboss.da.communication.repository.api.RepositoryException;
+import org.jboss.da.model.rest.GA;
+import org.jboss.da.products.api.LookupContext;
+import org.jboss.da.products.impl.UpstreamExecutor.Upstream;
+import org.jboss.pnc.api.constants.MDCKeys;
+import org.jboss.pnc.pncmetrics.MetricsConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.MDC;
+
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PncVersionsBatcherTest {
+
+    private static final GA FIRST = new GA("org.foo", "first");
+
+    private static final GA SECOND = new GA("org.foo", "second");
+
+    @Mock
+    private PncConnector pncConnector;
+
+    @Mock
+    private Configuration configuration;
+
+    @Mock
+    private UpstreamExecutor upstreamExecutor;
+
+    @Mock
+    private ManagedScheduledExecutorService scheduledExecutorService;
+
+    @InjectMocks
+    private PncVersionsBatcher batcher;
+
+    /**
+     * Users in the logging contexts the PNC queries were submitted with.
+     */
+    private final List<String> users = Collections.synchronizedList(new ArrayList<>());
+
+    private final DAConfig config = new DAConfig();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        config.setPncBatchSize(2);
+        config.setPncBatchWindow(1000);
+        config.setPncBatchGroupThreshold(2);
+        when(configuration.getConfig()).thenReturn(config);
+        when(pncConnector.getMavenVersionsBatch(any(), any(), any())).thenReturn(Collections.emptyMap());
+        when(upstreamExecutor.supplyAsync(eq(Upstream.PNC), anyMapOf(String.class, String.class), any(Supplier.class)))
+                .thenAnswer(invocation -> {
+                    Map<String, String> context = (Map<String, String>) invocation.getArguments()[1];
+                    users.add(context == null ? null : context.get(MDCKeys.USER_NAME_KEY));
+                    Supplier<?> call = (Supplier<?>) invocation.getArguments()[2];
+                    return CompletableFuture.supplyAsync(call, Runnable::run);
+                });
+        batcher.init();
+    }
+
+    @After
+    public void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    public void testRequestsOfDifferentUsersAreNotBatchedTogether() throws Exception {
+        submitAs("alice", FIRST);
+        submitAs("bob", SECOND);
+
+        assertEquals(new HashSet<>(Arrays.asList("alice", "bob")), new HashSet<>(users));
+        verify(pncConnector).getMavenVersionsBatch(eq(Collections.singleton(FIRST)), any(), any());
+        verify(pncConnector).getMavenVersionsBatch(eq(Collections.singleton(SECOND)), any(), any());
+    }
+
+    @Test
+    public void testBatchFlushedBySchedulerKeepsUser() {
+        CompletableFuture<?> versions = submitAs("alice", FIRST);
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduledExecutorService).schedule(flush.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        flush.getValue().run();
+
+        assertEquals(Collections.singletonList("alice"), users);
+        assertEquals(Collections.emptyList(), versions.join());
+    }
+
+    @Test
+    public void testWindowSkippedWithoutGroupQueries() throws Exception {
+        config.setPncBatchGroupThreshold(0);
+        batcher.init();
+
+        CompletableFuture<?> versions = submitAs("alice", FIRST);
+
+        assertEquals(Collections.emptyList(), versions.join());
+        verify(scheduledExecutorService, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        verify(pncConnector).getMavenVersionsBatch(eq(Collections.singleton(FIRST)), any(), any());
+    }
+
+    @Test
+    public void testWindowAdaptsToLoad() {
+        config.setPncBatchSize(10);
+        batcher.init();
+        doReturn(mock(ScheduledFuture.class)).when(scheduledExecutorService)
+                .schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+
+        // lone requests halve the window
+        submitAs("alice", FIRST);
+        flushScheduledWindow();
+        submitAs("alice", FIRST);
+        flushScheduledWindow();
+        // requests arriving together double it again
+        submitAs("alice", FIRST);
+        submitAs("alice", SECOND);
+        flushScheduledWindow();
+        submitAs("alice", FIRST);
+
+        ArgumentCaptor<Long> windows = ArgumentCaptor.forClass(Long.class);
+        verify(scheduledExecutorService, times(4))
+                .schedule(any(Runnable.class), windows.capture(), any(TimeUnit.class));
+        assertEquals(Arrays.asList(1000L, 500L, 250L, 500L), windows.getAllValues());
+    }
+
+    @Test
+    public void testFailedLoadBacksOffUpstreamLimit() throws Exception {
+        config.setPncBatchGroupThreshold(0);
+        config.setUpstreamMinConcurrencyLimit(1);
+        config.setPncConcurrencyLimit(4);
+        config.setPncLatencyThreshold(60000);
+        batcher.init();
+        MetricRegistry registry = new MetricRegistry();
+        inject(batcher, "upstreamExecutor", realUpstreamExecutor(registry));
+        when(pncConnector.getMavenVersionsBatch(any(), any(), any()))
+                .thenThrow(new RepositoryException("PNC is down", null));
+
+        CompletableFuture<?> versions = submitAs("alice", FIRST);
+
+        try {
+            versions.join();
+            fail("Lookup should have failed.");
+        } catch (CompletionException ex) {
+            assertTrue(ex.getCause() instanceof ProductException);
+            assertTrue(ex.getCause().getCause() instanceof RepositoryException);
+        }
+        assertEquals(3, registry.getGauges().get("da.upstream.pnc.limit").getValue());
+    }
+
+    /**
+     * Creates upstream executor running the calls in the calling thread.
+     */
+    private UpstreamExecutor realUpstreamExecutor(MetricRegistry registry) throws Exception {
+        ManagedExecutorService managedExecutorService = mock(ManagedExecutorService.class);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(managedExecutorService).execute(any(Runnable.class));
+        MetricsConfiguration metricsConfiguration = mock(MetricsConfiguration.class);
+        when(metricsConfiguration.getMetricRegistry()).thenReturn(registry);
+
+        UpstreamExecutor executor = new UpstreamExecutor();
+        inject(executor, "managedExecutorService", managedExecutorService);
+        inject(executor, "configuration", configuration);
+        inject(executor, "metricsConfiguration", metricsConfiguration);
+        executor.init();
+        return executor;
+    }
+
+    private static void inject(Object to, String fieldName, Object what) throws ReflectiveOperationException {
+        Field f = to.getClass().getDeclaredField(fieldName);
+        f.setAccessible(true);
+        f.set(to, what);
+    }
+
+    private void flushScheduledWindow() {
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduledExecutorService, atLeastOnce()).schedule(flush.capture(), anyLong(), any(TimeUnit.class));
+        flush.getValue().run();
+    }
+
+    private CompletableFuture<?> submitAs(String user, GA ga) {
+        MDC.put(MDCKeys.USER_NAME_KEY, user);
+        try {
+            return batcher.submit(ga, LookupContext.DEFAULT);
+        } finally {
+            MDC.clear();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.jboss.da.products.impl;
+
+import org.jboss.da.common.util.UserLog;
+import org.jboss.da.communication.indy.api.IndyConnector;
+import org.jboss.da.communication.repository.api.RepositoryException;
+import org.jboss.da.model.rest.GA;
+import org.jboss.da.products.api.LookupContext;
+import org.jboss.da.products.impl.UpstreamExecutor.Upstream;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RepositoryProductProviderTest {
+
+    private static final GA GA = new GA("org.foo", "bar");
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    @UserLog
+    private Logger userLog;
+
+    @Mock
+    private UpstreamExecutor upstreamExecutor;
+
+    @Mock
+    private IndyConnector indyConnector;
+
+    @InjectMocks
+    private RepositoryProductProvider provider;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        when(upstreamExecutor.submit(eq(Upstream.INDY), any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArguments()[1]).get());
+    }
+
+    @Test
+    public void testIndyFailureIsWrappedInProductException() {
+        RepositoryException failure = new RepositoryException("Indy is down", new IOException("Connection refused"));
+        CompletableFuture<List<String>> versions = new CompletableFuture<>();
+        versions.completeExceptionally(new CompletionException(failure));
+        when(indyConnector.getVersionsOfGA(GA)).thenReturn(versions);
+
+        assertFailedWith(provider.loadVersionsMaven(GA, LookupContext.DEFAULT), failure);
+    }
+
+    @Test
+    public void testNpmIndyFailureIsWrappedInProductException() {
+        RepositoryException failure = new RepositoryException("Indy is down", new IOException("Connection refused"));
+        when(indyConnector.getVersionsOfNpm("left-pad")).thenReturn(CompletableFuture.failedFuture(failure));
+
+        assertFailedWith(provider.loadVersionsNPM("left-pad", LookupContext.DEFAULT), failure);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCancelledLookupCancelsUpstreamCall() {
+        CompletableFuture<List<String>> call = new CompletableFuture<>();
+        when(upstreamExecutor.submit(eq(Upstream.INDY), any(Supplier.class))).thenReturn(call);
+
+        provider.loadVersionsMaven(GA, LookupContext.DEFAULT).cancel(false);
+
+        assertTrue(call.isCancelled());
+    }
+
+    private static void assertFailedWith(CompletableFuture<?> future, Throwable failure) {
+        try {
+            future.join();
+            fail("The lookup should fail");
+        } catch (CompletionException ex) {
+            assertTrue(ex.getCause() instanceof ProductException);
+            assertSame(failure, ex.getCause().getCause());
+        }
+    }
+}
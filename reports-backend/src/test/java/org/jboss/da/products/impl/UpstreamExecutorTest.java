@@ -0,0 +1,64 @@
+package org.jboss.da.products.impl;
+
+import org.jboss.da.common.json.DAConfig;
+import org.jboss.da.common.util.Configuration;
+import org.jboss.da.common.util.ConfigurationParseException;
+import org.jboss.da.products.impl.UpstreamExecutor.Upstream;
+import org.jboss.pnc.pncmetrics.MetricsConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.MDC;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UpstreamExecutorTest {
+
+    @Mock
+    private Configuration configuration;
+
+    @Mock
+    private MetricsConfiguration metricsConfiguration;
+
+    @InjectMocks
+    private UpstreamExecutor upstreamExecutor;
+
+    @Before
+    public void setUp() throws ConfigurationParseException {
+        DAConfig config = new DAConfig();
+        config.setUpstreamMinConcurrencyLimit(1);
+        config.setIndyConcurrencyLimit(1);
+        config.setIndyLatencyThreshold(0);
+        when(configuration.getConfig()).thenReturn(config);
+        upstreamExecutor.init();
+    }
+
+    @After
+    public void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    public void testQueuedCallIsStartedWithLoggingContext() {
+        CompletableFuture<String> running = new CompletableFuture<>();
+        upstreamExecutor.submit(Upstream.INDY, () -> running);
+
+        MDC.put("test-key", "queued");
+        CompletableFuture<String> queued = upstreamExecutor
+                .submit(Upstream.INDY, () -> CompletableFuture.completedFuture(MDC.get("test-key")));
+        MDC.clear();
+        running.complete("done");
+
+        assertEquals("queued", queued.join());
+        assertNull(MDC.get("test-key"));
+    }
+}
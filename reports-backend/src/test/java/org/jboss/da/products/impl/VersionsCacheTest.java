@@ -0,0 +1,107 @@
+package org.jboss.da.products.impl;
+
+import org.jboss.da.common.json.LookupMode;
+import org.jboss.da.products.api.ArtifactType;
+import org.jboss.da.products.api.LookupContext;
+import org.jboss.pnc.api.dependencyanalyzer.dto.QualifiedVersion;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class VersionsCacheTest {
+
+    private static final Set<QualifiedVersion> VERSIONS = Set.of(new QualifiedVersion("1.0.0.redhat-1"));
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void testConcurrentMissesShareLoad() {
+        VersionsCache cache = new VersionsCache(10, 60000, 60000, null);
+        CompletableFuture<Set<QualifiedVersion>> upstream = new CompletableFuture<>();
+
+        CompletableFuture<Set<QualifiedVersion>> first = get(cache, "org.foo:bar", countingLoader(upstream));
+        CompletableFuture<Set<QualifiedVersion>> second = get(cache, "org.foo:bar", countingLoader(upstream));
+        upstream.complete(VERSIONS);
+
+        assertEquals(1, calls.get());
+        assertSame(first, second);
+        assertEquals(VERSIONS, second.join());
+    }
+
+    @Test
+    public void testConcurrentMissesShareLoadWhenCachingIsDisabled() {
+        VersionsCache cache = new VersionsCache(0, 0, 0, null);
+        CompletableFuture<Set<QualifiedVersion>> upstream = new CompletableFuture<>();
+
+        CompletableFuture<Set<QualifiedVersion>> first = get(cache, "org.foo:bar", countingLoader(upstream));
+        CompletableFuture<Set<QualifiedVersion>> second = get(cache, "org.foo:bar", countingLoader(upstream));
+        upstream.complete(VERSIONS);
+        assertEquals(1, calls.get());
+        assertSame(first, second);
+        assertEquals(VERSIONS, second.join());
+
+        get(cache, "org.foo:bar", countingLoader(upstream));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testFailureIsNotCached() {
+        VersionsCache cache = new VersionsCache(10, 60000, 60000, null);
+        CompletableFuture<Set<QualifiedVersion>> failed = CompletableFuture
+                .failedFuture(new ProductException("upstream failure"));
+
+        CompletableFuture<Set<QualifiedVersion>> first = get(cache, "org.foo:bar", countingLoader(failed));
+        assertTrue(first.isCompletedExceptionally());
+        assertEquals(0, cache.size());
+
+        get(cache, "org.foo:bar", countingLoader(CompletableFuture.completedFuture(VERSIONS)));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        VersionsCache cache = new VersionsCache(2, 60000, 60000, null);
+        Supplier<CompletableFuture<Set<QualifiedVersion>>> loader = countingLoader(
+                CompletableFuture.completedFuture(VERSIONS));
+
+        get(cache, "org.foo:a", loader);
+        get(cache, "org.foo:b", loader);
+        get(cache, "org.foo:a", loader);
+        get(cache, "org.foo:c", loader);
+        get(cache, "org.foo:a", loader);
+        assertEquals(3, calls.get());
+
+        get(cache, "org.foo:b", loader);
+        assertEquals(4, calls.get());
+        assertEquals(2, cache.size());
+    }
+
+    private CompletableFuture<Set<QualifiedVersion>> get(
+            VersionsCache cache,
+            String name,
+            Supplier<CompletableFuture<Set<QualifiedVersion>>> loader) {
+        return cache.get(PncProductProvider.class, ArtifactType.MAVEN, name, new LookupContext(mode()), loader);
+    }
+
+    private Supplier<CompletableFuture<Set<QualifiedVersion>>> countingLoader(
+            CompletableFuture<Set<QualifiedVersion>> result) {
+        return () -> {
+            calls.incrementAndGet();
+            return result;
+        };
+    }
+
+    private static LookupMode mode() {
+        LookupMode mode = new LookupMode();
+        mode.setName("TEST");
+        mode.getSuffixes().add("redhat");
+        return mode;
+    }
+}
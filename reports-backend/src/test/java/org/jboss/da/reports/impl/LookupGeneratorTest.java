@@ -5,17 +5,21 @@ import org.jboss.da.common.json.DAConfig;
 import org.jboss.da.common.json.LookupMode;
 import org.jboss.da.common.util.Configuration;
 import org.jboss.da.common.util.ConfigurationParseException;
+import org.jboss.da.common.util.Deadline;
+import org.jboss.da.communication.repository.api.RepositoryException;
 import org.jboss.da.listings.api.service.BlackArtifactService;
+import org.jboss.da.lookup.model.LookupError;
 import org.jboss.da.lookup.model.MavenLookupResult;
 import org.jboss.da.lookup.model.NPMLookupResult;
 import org.jboss.da.model.rest.GA;
 import org.jboss.da.model.rest.GAV;
 import org.jboss.da.model.rest.NPMPackage;
+import org.jboss.da.products.api.LookupContext;
 import org.jboss.da.products.api.MavenArtifact;
 import org.jboss.da.products.api.NPMArtifact;
 import org.jboss.da.products.impl.AggregatedProductProvider;
 import org.jboss.da.products.impl.PncProductProvider;
-import org.jboss.da.products.impl.RepositoryProductProvider;
+import org.jboss.da.products.impl.ProductException;
 import org.jboss.da.reports.api.LookupGenerator;
 import org.jboss.pnc.api.dependencyanalyzer.dto.QualifiedVersion;
 import org.junit.BeforeClass;
@@ -25,7 +29,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -34,7 +40,9 @@ import java.util.concurrent.CompletableFuture;
 
 import static org.jboss.pnc.api.dependencyanalyzer.dto.QualifiedVersion.of;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -46,9 +54,6 @@ public class LookupGeneratorTest {
 
     private Configuration config;
 
-    @Mock
-    private RepositoryProductProvider repositoryProductProvider;
-
     @Mock
     private PncProductProvider pncProductProvider;
 
@@ -86,7 +91,9 @@ public class LookupGeneratorTest {
         gavs.add(gav1);
         gavs.add(gav2);
 
-        Set<MavenLookupResult> results = lookupGenerator.lookupBestMatchMaven(gavs, PERSISTENT, false, Set.of());
+        Set<MavenLookupResult> results = lookupGenerator
+                .lookupBestMatchMaven(gavs, PERSISTENT, false, Set.of(), false, Deadline.NONE)
+                .join();
 
         assertEquals(2, results.size());
         MavenLookupResult result1 = results.stream().filter(r -> gav1.equals(r.getGav())).findFirst().get();
@@ -95,6 +102,84 @@ public class LookupGeneratorTest {
         assertNull(result2.getBestMatchVersion());
     }
 
+    @Test
+    public void testMavenDeadline() throws CommunicationException {
+        GAV gav1 = new GAV("foo.bar", "baz", "1.0.0");
+        preparePnc(gav1.getGA(), Arrays.asList(of("1.0.0.redhat-1"), of("1.0.0.redhat-2")));
+        GAV gav2 = new GAV("foo.bar", "buz", "2.3.4");
+        preparePnc(gav2.getGA(), new CompletableFuture<>());
+        Set<GAV> gavs = new HashSet<>();
+        gavs.add(gav1);
+        gavs.add(gav2);
+
+        Set<MavenLookupResult> results = lookupGenerator
+                .lookupBestMatchMaven(gavs, PERSISTENT, false, Set.of(), false, Deadline.after(100))
+                .join();
+
+        assertEquals(2, results.size());
+        MavenLookupResult result1 = results.stream().filter(r -> gav1.equals(r.getGav())).findFirst().get();
+        MavenLookupResult result2 = results.stream().filter(r -> gav2.equals(r.getGav())).findFirst().get();
+        assertEquals("1.0.0.redhat-2", result1.getBestMatchVersion());
+        assertNull(result1.getError());
+        assertNull(result2.getBestMatchVersion());
+        assertEquals(LookupError.Type.DEADLINE_EXCEEDED, result2.getError().getType());
+    }
+
+    @Test
+    public void testMavenPartial() throws CommunicationException {
+        GAV gav1 = new GAV("foo.bar", "baz", "1.0.0");
+        preparePnc(gav1.getGA(), Arrays.asList(of("1.0.0.redhat-1"), of("1.0.0.redhat-2")));
+        GAV gav2 = new GAV("foo.bar", "buz", "2.3.4");
+        RepositoryException failure = new RepositoryException("Indy is down", new IOException("Connection refused"));
+        preparePnc(gav2.getGA(), CompletableFuture.failedFuture(new ProductException(failure)));
+        Set<GAV> gavs = new HashSet<>();
+        gavs.add(gav1);
+        gavs.add(gav2);
+
+        Set<MavenLookupResult> results = lookupGenerator
+                .lookupBestMatchMaven(gavs, PERSISTENT, false, Set.of(), true, Deadline.NONE)
+                .join();
+
+        assertEquals(2, results.size());
+        MavenLookupResult result1 = results.stream().filter(r -> gav1.equals(r.getGav())).findFirst().get();
+        MavenLookupResult result2 = results.stream().filter(r -> gav2.equals(r.getGav())).findFirst().get();
+        assertEquals("1.0.0.redhat-2", result1.getBestMatchVersion());
+        assertNull(result1.getError());
+        assertEquals(LookupError.Type.COMMUNICATION_FAIL, result2.getError().getType());
+        assertEquals("Indy is down: Connection refused", result2.getError().getMessage());
+    }
+
+    @Test
+    public void testMavenStream() {
+        GAV gav1 = new GAV("foo.bar", "baz", "1.0.0");
+        preparePnc(gav1.getGA(), Arrays.asList(of("1.0.0.redhat-1"), of("1.0.0.redhat-2")));
+        GAV gav2 = new GAV("foo.bar", "buz", "2.3.4");
+        CompletableFuture<Set<QualifiedVersion>> pending = new CompletableFuture<>();
+        preparePnc(gav2.getGA(), pending);
+        Set<GAV> gavs = new HashSet<>();
+        gavs.add(gav1);
+        gavs.add(gav2);
+
+        Collection<CompletableFuture<MavenLookupResult>> results = lookupGenerator
+                .streamBestMatchMaven(gavs, PERSISTENT, false, Set.of(), Deadline.after(100));
+
+        assertEquals(2, results.size());
+        MavenLookupResult result1 = results.stream()
+                .filter(CompletableFuture::isDone)
+                .map(CompletableFuture::join)
+                .findFirst()
+                .get();
+        assertEquals(gav1, result1.getGav());
+        assertEquals("1.0.0.redhat-2", result1.getBestMatchVersion());
+        MavenLookupResult result2 = results.stream()
+                .map(CompletableFuture::join)
+                .filter(r -> gav2.equals(r.getGav()))
+                .findFirst()
+                .get();
+        assertEquals(LookupError.Type.DEADLINE_EXCEEDED, result2.getError().getType());
+        assertFalse(pending.isDone());
+    }
+
     @Test
     public void testNpm() throws CommunicationException {
         NPMPackage gav1 = new NPMPackage("foo-bar", "1.0.0");
@@ -105,7 +190,9 @@ public class LookupGeneratorTest {
         gavs.add(gav1);
         gavs.add(gav2);
 
-        Set<NPMLookupResult> results = lookupGenerator.lookupBestMatchNPM(gavs, PERSISTENT);
+        Set<NPMLookupResult> results = lookupGenerator
+                .lookupBestMatchNPM(gavs, PERSISTENT, false, Deadline.NONE)
+                .join();
 
         assertEquals(2, results.size());
         NPMLookupResult result1 = results.stream().filter(r -> gav1.equals(r.getNpmPackage())).findFirst().get();
@@ -115,12 +202,16 @@ public class LookupGeneratorTest {
     }
 
     private void preparePnc(GA ga, List<QualifiedVersion> versions) {
-        when(pncProductProvider.getAllVersions(eq(new MavenArtifact(new GAV(ga, "0.0.0")))))
-                .thenReturn(CompletableFuture.completedFuture(new HashSet<>(versions)));
+        preparePnc(ga, CompletableFuture.completedFuture(new HashSet<>(versions)));
+    }
+
+    private void preparePnc(GA ga, CompletableFuture<Set<QualifiedVersion>> versions) {
+        when(pncProductProvider.getAllVersions(eq(new MavenArtifact(new GAV(ga, "0.0.0"))), any(LookupContext.class)))
+                .thenReturn(versions);
     }
 
     private void preparePnc(String name, List<QualifiedVersion> versions) {
-        when(pncProductProvider.getAllVersions(eq(new NPMArtifact(name, "0.0.0"))))
+        when(pncProductProvider.getAllVersions(eq(new NPMArtifact(name, "0.0.0")), any(LookupContext.class)))
                 .thenReturn(CompletableFuture.completedFuture(new HashSet<>(versions)));
     }
 }
@@ -26,12 +26,12 @@ import org.jboss.da.model.rest.GA;
 import org.jboss.da.model.rest.GAV;
 import org.jboss.da.products.api.Artifact;
 import org.jboss.da.products.api.ArtifactType;
+import org.jboss.da.products.api.LookupContext;
 import org.jboss.da.products.api.MavenArtifact;
 import org.jboss.da.products.api.Product;
 import org.jboss.da.products.api.ProductArtifacts;
 import org.jboss.da.products.impl.AggregatedProductProvider;
 import org.jboss.da.products.impl.PncProductProvider;
-import org.jboss.da.products.impl.RepositoryProductProvider;
 import org.jboss.da.reports.api.ArtifactReport;
 import org.jboss.da.reports.backend.api.DependencyTreeGenerator;
 import org.jboss.da.reports.backend.impl.DependencyTreeGeneratorImpl;
@@ -53,6 +53,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -73,9 +74,6 @@ public class ReportsGeneratorImplTest {
     @Mock
     private AggregatedProductProvider productProvider;
 
-    @Mock
-    private RepositoryProductProvider repoProductProvider;
-
     @Mock
     private PncProductProvider pncProductProvider;
 
@@ -156,7 +154,8 @@ public class ReportsGeneratorImplTest {
             prodArts.add(new ProductArtifacts(w, artifacts));
         }
 
-        when(productProvider.getArtifacts(matchingGAV(gav))).thenReturn(CompletableFuture.completedFuture(prodArts));
+        when(productProvider.getArtifacts(matchingGAV(gav), any(LookupContext.class)))
+                .thenReturn(CompletableFuture.completedFuture(prodArts));
     }
 
     private Set<ProductArtifacts> toProductArtifacts(GA ga, List<String> versions) {
@@ -171,7 +170,7 @@ public class ReportsGeneratorImplTest {
             boolean blacklisted,
             List<String> versions,
             GAVDependencyTree dependencyTree) throws CommunicationException, FindGAVDependencyException {
-        when(productProvider.getArtifacts(matchingGAV(daCoreGAV)))
+        when(productProvider.getArtifacts(matchingGAV(daCoreGAV), any(LookupContext.class)))
                 .thenReturn(CompletableFuture.completedFuture(toProductArtifacts(daCoreGAV.getGA(), versions)));
 
         prepareProductProvider(versions, whitelisted, daCoreGAV);
@@ -190,12 +189,12 @@ public class ReportsGeneratorImplTest {
     private void prepareMulti() throws CommunicationException, FindGAVDependencyException {
         prepare(Collections.emptyList(), false, daCoreVersionsBest, daCoreNoDT);
 
-        when(productProvider.getArtifacts(matchingGAV(daUtilGAV))).thenReturn(
+        when(productProvider.getArtifacts(matchingGAV(daUtilGAV), any(LookupContext.class))).thenReturn(
                 CompletableFuture.completedFuture(toProductArtifacts(daUtilGAV.getGA(), daCoreVersionsBest)));
 
         when(blackArtifactService.isArtifactPresent(daUtilGAV)).thenReturn(false);
 
-        when(productProvider.getArtifacts(matchingGAV(daCommonGAV))).thenReturn(
+        when(productProvider.getArtifacts(matchingGAV(daCommonGAV), any(LookupContext.class))).thenReturn(
                 CompletableFuture.completedFuture(toProductArtifacts(daCommonGAV.getGA(), daCoreVersionsNoBest)));
         prepareProductProvider(daCoreVersionsNoBest, Collections.emptyList(), daCommonGAV);
         when(blackArtifactService.isArtifactPresent(daCommonGAV)).thenReturn(false);
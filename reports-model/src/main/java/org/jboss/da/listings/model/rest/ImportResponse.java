@@ -0,0 +1,32 @@
+package org.jboss.da.listings.model.rest;
+
+import com.fasterxml.jackson.annotation.JsonRootName;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Result of a bulk import of artifacts into a list.
+ */
+@JsonRootName(value = "import")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class ImportResponse {
+
+    /** Number of artifacts added to the list. */
+    @Getter
+    @Setter
+    protected int added;
+
+    /** Number of artifacts that were already in the list. */
+    @Getter
+    @Setter
+    protected int notModified;
+
+}
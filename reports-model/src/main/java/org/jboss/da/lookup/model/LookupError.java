@@ -0,0 +1,34 @@
+package org.jboss.da.lookup.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+/**
+ * Marks lookup result of an artifact that couldn't be resolved, while the results of other artifacts in the same
+ * request are returned. Requests can be retried with just the artifacts that have the error set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class LookupError {
+
+    public enum Type {
+        /** The artifact was not resolved before the request deadline expired. */
+        DEADLINE_EXCEEDED,
+        /** Communication with an external service failed while resolving the artifact. */
+        COMMUNICATION_FAIL,
+        /** Unexpected error while resolving the artifact. */
+        UNEXPECTED_SERVER_ERR
+    }
+
+    @NonNull
+    private Type type;
+
+    private String message;
+
+}
@@ -30,4 +30,7 @@ public class MavenLookupRequest {
     @JsonProperty(defaultValue = "false")
     private final boolean brewPullActive;
 
+    @JsonProperty(defaultValue = "false")
+    private final boolean partial;
+
 }
@@ -3,6 +3,7 @@ package org.jboss.da.lookup.model;
 import org.jboss.da.model.rest.GAV;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
 
 import lombok.AllArgsConstructor;
@@ -22,4 +23,11 @@ public class MavenLookupResult {
 
     private String bestMatchVersion;
 
+    /** Set when the artifact couldn't be resolved. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LookupError error;
+
+    public MavenLookupResult(GAV gav, String bestMatchVersion) {
+        this(gav, bestMatchVersion, null);
+    }
 }
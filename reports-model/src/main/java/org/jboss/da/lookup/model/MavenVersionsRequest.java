@@ -56,4 +56,7 @@ public class MavenVersionsRequest {
     @lombok.Builder.Default
     private final boolean brewPullActive = false;
 
+    @lombok.Builder.Default
+    private final boolean partial = false;
+
 }
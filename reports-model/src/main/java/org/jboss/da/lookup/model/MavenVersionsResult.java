@@ -16,6 +16,7 @@
 package org.jboss.da.lookup.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -42,4 +43,11 @@ public class MavenVersionsResult {
     @NonNull
     private List<String> availableVersions;
 
+    /** Set when the artifact couldn't be resolved. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LookupError error;
+
+    public MavenVersionsResult(GAV gav, List<String> availableVersions) {
+        this(gav, availableVersions, null);
+    }
 }
@@ -10,6 +10,7 @@ import org.jboss.da.model.rest.NPMPackage;
 import java.util.Set;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Data
 @Jacksonized
@@ -23,4 +24,7 @@ public class NPMLookupRequest {
     @NonNull
     private final String mode;
 
+    @JsonProperty(defaultValue = "false")
+    private final boolean partial;
+
 }
@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import lombok.NonNull;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
 
 import org.jboss.da.model.rest.NPMPackage;
@@ -21,4 +22,12 @@ public class NPMLookupResult {
     private NPMPackage npmPackage;
 
     private String bestMatchVersion;
+
+    /** Set when the artifact couldn't be resolved. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LookupError error;
+
+    public NPMLookupResult(NPMPackage npmPackage, String bestMatchVersion) {
+        this(npmPackage, bestMatchVersion, null);
+    }
 }
@@ -16,6 +16,7 @@
 package org.jboss.da.lookup.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -41,4 +42,12 @@ public class NPMVersionsResult {
 
     @NonNull
     private List<String> availableVersions;
+
+    /** Set when the artifact couldn't be resolved. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LookupError error;
+
+    public NPMVersionsResult(NPMPackage npmPackage, List<String> availableVersions) {
+        this(npmPackage, availableVersions, null);
+    }
 }
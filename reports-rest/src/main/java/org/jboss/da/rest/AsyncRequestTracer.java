@@ -0,0 +1,123 @@
+package org.jboss.da.rest;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import org.jboss.pnc.pncmetrics.MetricsConfiguration;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Traces and times the requests completed asynchronously. Annotations like {@code @WithSpan} end when the resource
+ * method returns, which is before the response of an asynchronous request is ready. The span and the timer started
+ * here end when the request completes instead.
+ */
+@ApplicationScoped
+public class AsyncRequestTracer {
+
+    private static final String METRICS_KEY = "rest";
+
+    private static final String METRICS_TIMER_KEY = ".timer";
+
+    private static final String METRICS_ERROR_KEY = ".errors";
+
+    private static final Tracer TRACER = GlobalOpenTelemetry.getTracer("org.jboss.da.rest");
+
+    @Inject
+    private MetricsConfiguration metricsConfiguration;
+
+    /**
+     * Starts the span and the timer of the request, they end when the returned trace ends.
+     *
+     * @param operation name of the operation, e.g. the resource class and method.
+     * @param request the request, recorded as the attribute of the span.
+     */
+    public Trace start(String operation, Object request) {
+        Span span = TRACER.spanBuilder(operation).setAttribute("request", String.valueOf(request)).startSpan();
+        MetricRegistry registry = metricsConfiguration.getMetricRegistry();
+        if (registry == null) {
+            return new Trace(span, null, null);
+        }
+        String metricsName = name(METRICS_KEY, operation);
+        return new Trace(
+                span,
+                registry.timer(metricsName + METRICS_TIMER_KEY).time(),
+                registry.meter(metricsName + METRICS_ERROR_KEY));
+    }
+
+    /**
+     * Starts the asynchronous call with its span as the current one and ends the trace when the call completes.
+     */
+    public <T> CompletionStage<T> trace(String operation, Object request, Supplier<CompletionStage<T>> call) {
+        Trace trace = start(operation, request);
+        CompletionStage<T> result;
+        try (Scope scope = trace.makeCurrent()) {
+            result = call.get();
+        } catch (RuntimeException ex) {
+            trace.end(ex);
+            throw ex;
+        }
+        return result.whenComplete((value, ex) -> trace.end(ex));
+    }
+
+    public static class Trace {
+
+        private final Span span;
+
+        private final Timer.Context timingContext;
+
+        private final Meter errors;
+
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        private Trace(Span span, Timer.Context timingContext, Meter errors) {
+            this.span = span;
+            this.timingContext = timingContext;
+            this.errors = errors;
+        }
+
+        /**
+         * Makes the span of the request the current one, so the spans of the work done for the request are its
+         * children.
+         */
+        public Scope makeCurrent() {
+            return span.makeCurrent();
+        }
+
+        /**
+         * Ends the span and stops the timer, only the first call has an effect.
+         *
+         * @param failure failure of the request, null when it succeeded.
+         */
+        public void end(Throwable failure) {
+            if (!ended.compareAndSet(false, true)) {
+                return;
+            }
+            if (failure != null) {
+                span.recordException(failure);
+                span.setStatus(StatusCode.ERROR);
+                if (errors != null) {
+                    errors.mark();
+                }
+            }
+            span.end();
+            if (timingContext != null) {
+                timingContext.stop();
+            }
+        }
+    }
+}
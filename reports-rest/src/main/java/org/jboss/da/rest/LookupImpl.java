@@ -1,11 +1,24 @@
 package org.jboss.da.rest;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.ws.rs.core.StreamingOutput;
 
-import org.jboss.da.common.CommunicationException;
+import org.jboss.da.common.util.Configuration;
+import org.jboss.da.common.util.ConfigurationParseException;
+import org.jboss.da.common.util.Deadline;
 import org.jboss.da.lookup.model.MavenLatestRequest;
 import org.jboss.da.lookup.model.MavenLatestResult;
 import org.jboss.da.lookup.model.MavenLookupRequest;
@@ -18,83 +31,204 @@ import org.jboss.da.lookup.model.NPMVersionsRequest;
 import org.jboss.da.lookup.model.NPMVersionsResult;
 import org.jboss.da.reports.api.LookupGenerator;
 import org.jboss.da.rest.api.Lookup;
-import org.jboss.pnc.pncmetrics.rest.TimedMetric;
 
-import io.opentelemetry.instrumentation.annotations.SpanAttribute;
-import io.opentelemetry.instrumentation.annotations.WithSpan;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.opentelemetry.context.Scope;
 import lombok.extern.slf4j.Slf4j;
 
 @ApplicationScoped
 @Slf4j
 public class LookupImpl implements Lookup {
 
+    /**
+     * Mapper configured like the one serializing the JSON responses, so the streamed results are serialized the same
+     * way.
+     */
+    private static final ObjectMapper MAPPER = new JacksonProvider().getMapper();
+
     @Inject
     private LookupGenerator lookupGenerator;
 
+    @Inject
+    private Configuration configuration;
+
+    @Inject
+    private AsyncRequestTracer tracer;
+
     @Override
-    @TimedMetric
-    @WithSpan()
-    public Set<MavenLookupResult> lookupMaven(@SpanAttribute(value = "request") MavenLookupRequest request)
-            throws CommunicationException {
+    public CompletionStage<Set<MavenLookupResult>> lookupMaven(MavenLookupRequest request) {
         log.info("Incoming request to /lookup/maven. Payload: " + request.toString());
-        Set<MavenLookupResult> result = lookupGenerator.lookupBestMatchMaven(
-                request.getArtifacts(),
-                request.getMode(),
-                request.isBrewPullActive(),
-                request.getStrategies());
-        log.info("Request to /lookup/maven completed successfully. Payload: " + request.toString());
-        return result;
+        return tracer.trace(
+                "LookupImpl.lookupMaven",
+                request,
+                () -> lookupGenerator
+                        .lookupBestMatchMaven(
+                                request.getArtifacts(),
+                                request.getMode(),
+                                request.isBrewPullActive(),
+                                request.getStrategies(),
+                                request.isPartial(),
+                                deadline())
+                        .whenComplete(logCompleted("/lookup/maven", request)));
     }
 
     @Override
-    @WithSpan()
-    public Set<MavenVersionsResult> versionsMaven(@SpanAttribute(value = "request") MavenVersionsRequest request)
-            throws CommunicationException {
+    public StreamingOutput lookupMavenNDJSON(MavenLookupRequest request) {
+        log.info("Incoming streaming request to /lookup/maven. Payload: " + request.toString());
+        return stream(
+                "LookupImpl.lookupMavenNDJSON",
+                "/lookup/maven",
+                request,
+                () -> lookupGenerator.streamBestMatchMaven(
+                        request.getArtifacts(),
+                        request.getMode(),
+                        request.isBrewPullActive(),
+                        request.getStrategies(),
+                        deadline()));
+    }
+
+    @Override
+    public CompletionStage<Set<MavenVersionsResult>> versionsMaven(MavenVersionsRequest request) {
         log.info("Incoming request to /lookup/maven/versions. Payload: " + request.toString());
-        Set<MavenVersionsResult> result = lookupGenerator.lookupVersionsMaven(
-                request.getArtifacts(),
-                request.getFilter(),
-                request.getDistanceRule(),
-                request.getMode(),
-                request.isBrewPullActive(),
-                request.isIncludeBad());
-        log.info("Request to /lookup/maven/versions completed successfully. Payload: " + request.toString());
-        return result;
+        return tracer.trace(
+                "LookupImpl.versionsMaven",
+                request,
+                () -> lookupGenerator
+                        .lookupVersionsMaven(
+                                request.getArtifacts(),
+                                request.getFilter(),
+                                request.getDistanceRule(),
+                                request.getMode(),
+                                request.isBrewPullActive(),
+                                request.isIncludeBad(),
+                                request.isPartial(),
+                                deadline())
+                        .whenComplete(logCompleted("/lookup/maven/versions", request)));
     }
 
     @Override
-    @WithSpan()
-    public Set<MavenLatestResult> lookupMaven(@SpanAttribute(value = "request") MavenLatestRequest request)
-            throws CommunicationException {
+    public CompletionStage<Set<MavenLatestResult>> lookupMaven(MavenLatestRequest request) {
         log.info("Incoming request to /lookup/maven/latest. Payload: " + request);
-        Set<MavenLatestResult> result = lookupGenerator.lookupLatestMaven(request.getArtifacts(), request.getMode());
-        log.info("Request to /lookup/maven/latest completed successfully. Payload: " + request);
-        return result;
+        return tracer.trace(
+                "LookupImpl.lookupMavenLatest",
+                request,
+                () -> lookupGenerator.lookupLatestMaven(request.getArtifacts(), request.getMode(), deadline())
+                        .whenComplete(logCompleted("/lookup/maven/latest", request)));
     }
 
     @Override
-    @TimedMetric
-    @WithSpan()
-    public Set<NPMLookupResult> lookupNPM(@SpanAttribute(value = "request") NPMLookupRequest request)
-            throws CommunicationException {
+    public CompletionStage<Set<NPMLookupResult>> lookupNPM(NPMLookupRequest request) {
         log.info("Incoming request to /lookup/npm. Payload: " + request.toString());
-        Set<NPMLookupResult> result = lookupGenerator.lookupBestMatchNPM(request.getPackages(), request.getMode());
-        log.info("Request to /lookup/npm completed successfully. Payload: " + request.toString());
-        return result;
+        return tracer.trace(
+                "LookupImpl.lookupNPM",
+                request,
+                () -> lookupGenerator
+                        .lookupBestMatchNPM(request.getPackages(), request.getMode(), request.isPartial(), deadline())
+                        .whenComplete(logCompleted("/lookup/npm", request)));
+    }
+
+    @Override
+    public StreamingOutput lookupNPMNDJSON(NPMLookupRequest request) {
+        log.info("Incoming streaming request to /lookup/npm. Payload: " + request.toString());
+        return stream(
+                "LookupImpl.lookupNPMNDJSON",
+                "/lookup/npm",
+                request,
+                () -> lookupGenerator.streamBestMatchNPM(request.getPackages(), request.getMode(), deadline()));
     }
 
     @Override
-    @WithSpan()
-    public Set<NPMVersionsResult> versionsNPM(@SpanAttribute(value = "request") NPMVersionsRequest request)
-            throws CommunicationException {
+    public CompletionStage<Set<NPMVersionsResult>> versionsNPM(NPMVersionsRequest request) {
         log.info("Incoming request to /lookup/npm/versions. Payload: " + request.toString());
-        Set<NPMVersionsResult> result = lookupGenerator.lookupVersionsNPM(
-                request.getPackages(),
-                request.getFilter(),
-                request.getDistanceRule(),
-                request.getMode(),
-                request.isIncludeBad());
-        log.info("Request to /lookup/npm/versions completed successfully. Payload: " + request.toString());
-        return result;
+        return tracer.trace(
+                "LookupImpl.versionsNPM",
+                request,
+                () -> lookupGenerator
+                        .lookupVersionsNPM(
+                                request.getPackages(),
+                                request.getFilter(),
+                                request.getDistanceRule(),
+                                request.getMode(),
+                                request.isIncludeBad(),
+                                deadline())
+                        .whenComplete(logCompleted("/lookup/npm/versions", request)));
+    }
+
+    private static <T> BiConsumer<T, Throwable> logCompleted(String endpoint, Object request) {
+        return (result, ex) -> {
+            if (ex == null) {
+                log.info("Request to " + endpoint + " completed successfully. Payload: " + request);
+            }
+        };
+    }
+
+    /**
+     * Starts the lookup and returns the output streaming its results. The request is traced and timed until all the
+     * results are written or the writing fails, not just until the resource method returns.
+     */
+    private <T> StreamingOutput stream(
+            String operation,
+            String endpoint,
+            Object request,
+            Supplier<Collection<CompletableFuture<T>>> lookup) {
+        AsyncRequestTracer.Trace trace = tracer.start(operation, request);
+        Collection<CompletableFuture<T>> results;
+        try (Scope scope = trace.makeCurrent()) {
+            results = lookup.get();
+        } catch (RuntimeException ex) {
+            trace.end(ex);
+            throw ex;
+        }
+        return output -> {
+            try {
+                writeResults(output, results);
+            } catch (IOException | RuntimeException ex) {
+                trace.end(ex);
+                throw ex;
+            }
+            trace.end(null);
+            log.info("Streaming request to " + endpoint + " completed successfully. Payload: " + request);
+        };
+    }
+
+    /**
+     * Writes the results as newline delimited JSON in the order they are resolved. The output is flushed whenever no
+     * other result is ready, so the client receives the results without waiting for the whole request. Results not
+     * written when the writing fails, e.g. because the client disconnected, are cancelled.
+     */
+    private static <T> void writeResults(OutputStream output, Collection<CompletableFuture<T>> results)
+            throws IOException {
+        BlockingQueue<T> resolved = new LinkedBlockingQueue<>();
+        results.forEach(f -> f.thenAccept(resolved::add));
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(output)) {
+            for (int i = 0; i < results.size(); i++) {
+                generator.writeObject(resolved.take());
+                generator.writeRaw('\n');
+                if (resolved.isEmpty()) {
+                    generator.flush();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            results.forEach(f -> f.cancel(false));
+            throw new InterruptedIOException("Interrupted while waiting for lookup results");
+        } catch (IOException | RuntimeException ex) {
+            results.forEach(f -> f.cancel(false));
+            throw ex;
+        }
+    }
+
+    /**
+     * Creates deadline of the request being processed, artifacts not resolved until the deadline are returned with an
+     * error.
+     */
+    private Deadline deadline() {
+        try {
+            return Deadline.after(configuration.getConfig().getLookupDeadline());
+        } catch (ConfigurationParseException ex) {
+            throw new IllegalStateException("Configuration failure, can't read lookup deadline", ex);
+        }
     }
 }
@@ -8,6 +8,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.jboss.da.listings.model.rest.ContainsResponse;
+import org.jboss.da.listings.model.rest.ImportResponse;
 import org.jboss.da.listings.model.rest.RestArtifact;
 import org.jboss.da.listings.model.rest.SuccessResponse;
 import org.jboss.da.model.rest.ErrorMessage;
@@ -21,9 +22,14 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
+import java.io.InputStream;
 import java.util.Collection;
 
+import static org.jboss.da.rest.api.MediaTypes.APPLICATION_NDJSON;
+import static org.jboss.da.rest.api.MediaTypes.APPLICATION_NDJSON_LOW_QS;
+
 /**
  *
  * @author Honza Brázdil &lt;jbrazdil@redhat.com&gt;
@@ -34,6 +40,8 @@ public interface BlackList {
 
     String GAV_JSON = "JSON object with keys 'groupId', 'artifactId', and 'version'";
 
+    String GAVS_JSON = "JSON array of " + GAV_JSON + "s or newline delimited stream of them";
+
     @POST
     @Path(value = "/gav")
     @Consumes(value = MediaType.APPLICATION_JSON)
@@ -42,6 +50,28 @@ public interface BlackList {
     @ApiResponse(content = @Content(schema = @Schema(implementation = SuccessResponse.class)))
     Response addBlackArtifact(@Parameter(description = GAV_JSON) RestArtifact artifact);
 
+    @POST
+    @Path(value = "/gavs")
+    @Consumes(value = { MediaType.APPLICATION_JSON, APPLICATION_NDJSON })
+    @Produces(value = MediaType.APPLICATION_JSON)
+    @Operation(summary = "Add artifacts to the blocklist in bulk")
+    @ApiResponse(content = @Content(schema = @Schema(implementation = ImportResponse.class)))
+    ImportResponse importBlackArtifacts(@Parameter(description = GAVS_JSON) InputStream artifacts);
+
+    @GET
+    @Path(value = "/export")
+    @Produces(value = MediaType.APPLICATION_JSON)
+    @Operation(summary = "Stream all artifacts in the blocklist as JSON array")
+    @ApiResponse(content = @Content(array = @ArraySchema(schema = @Schema(implementation = RestArtifact.class))))
+    StreamingOutput exportBlackArtifacts();
+
+    @GET
+    @Path(value = "/export")
+    @Produces(value = APPLICATION_NDJSON_LOW_QS)
+    @Operation(summary = "Stream all artifacts in the blocklist as newline delimited JSON")
+    @ApiResponse(content = @Content(schema = @Schema(implementation = RestArtifact.class)))
+    StreamingOutput exportBlackArtifactsNDJSON();
+
     @GET
     @Produces(value = MediaType.APPLICATION_JSON)
     @Operation(summary = "Get all artifacts in the blocklist")
@@ -1,12 +1,14 @@
 package org.jboss.da.rest.api;
 
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import javax.validation.Valid;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -14,7 +16,6 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.jboss.da.common.CommunicationException;
 import org.jboss.da.lookup.model.MavenLatestRequest;
 import org.jboss.da.lookup.model.MavenLatestResult;
 import org.jboss.da.lookup.model.MavenLookupRequest;
@@ -26,6 +27,8 @@ import org.jboss.da.lookup.model.NPMLookupResult;
 import org.jboss.da.lookup.model.NPMVersionsRequest;
 import org.jboss.da.lookup.model.NPMVersionsResult;
 
+import static org.jboss.da.rest.api.MediaTypes.APPLICATION_NDJSON_LOW_QS;
+
 /**
  *
  * @author Honza Brázdil &lt;jbrazdil@redhat.com&gt;
@@ -40,13 +43,22 @@ public interface Lookup {
     @Path(value = "/maven")
     @Operation(summary = "Finds best matching versions for given Maven artifact coordinates (GAV).")
     @ApiResponse(content = @Content(array = @ArraySchema(schema = @Schema(implementation = MavenLookupResult.class))))
-    Set<MavenLookupResult> lookupMaven(@Valid MavenLookupRequest request) throws CommunicationException;
+    CompletionStage<Set<MavenLookupResult>> lookupMaven(@Valid MavenLookupRequest request);
+
+    @POST
+    @Path(value = "/maven")
+    @Produces(value = APPLICATION_NDJSON_LOW_QS)
+    @Operation(
+            summary = "Finds best matching versions for given Maven artifact coordinates (GAV), streaming the results as newline delimited JSON.",
+            description = "Each result is written as soon as it is resolved. Artifacts that failed to resolve are written with an error.")
+    @ApiResponse(content = @Content(schema = @Schema(implementation = MavenLookupResult.class)))
+    StreamingOutput lookupMavenNDJSON(@Valid MavenLookupRequest request);
 
     @POST
     @Path(value = "/maven/versions")
     @Operation(summary = "Lookup and filter available versions for the given Maven artifact coordinates (GAV).")
     @ApiResponse(content = @Content(array = @ArraySchema(schema = @Schema(implementation = MavenLookupResult.class))))
-    Set<MavenVersionsResult> versionsMaven(@Valid MavenVersionsRequest request) throws CommunicationException;
+    CompletionStage<Set<MavenVersionsResult>> versionsMaven(@Valid MavenVersionsRequest request);
 
     @POST
     @Path(value = "/maven/latest")
@@ -54,18 +66,27 @@ public interface Lookup {
             summary = "Finds latest matching versions for given Maven artifact coordinates (GAV), including bad versions.",
             description = "This endpoint is used for version increment so it will search all possible places and qualities of artifacts, including deleted and blocklisted artifacts.")
     @ApiResponse(content = @Content(array = @ArraySchema(schema = @Schema(implementation = MavenLatestResult.class))))
-    Set<MavenLatestResult> lookupMaven(@Valid MavenLatestRequest request) throws CommunicationException;
+    CompletionStage<Set<MavenLatestResult>> lookupMaven(@Valid MavenLatestRequest request);
 
     @POST
     @Path(value = "/npm")
     @Operation(summary = "Finds best matching versions for given NPM artifact coordinates (name, version).")
     @ApiResponse(content = @Content(array = @ArraySchema(schema = @Schema(implementation = NPMLookupResult.class))))
-    Set<NPMLookupResult> lookupNPM(@Valid NPMLookupRequest request) throws CommunicationException;
+    CompletionStage<Set<NPMLookupResult>> lookupNPM(@Valid NPMLookupRequest request);
+
+    @POST
+    @Path(value = "/npm")
+    @Produces(value = APPLICATION_NDJSON_LOW_QS)
+    @Operation(
+            summary = "Finds best matching versions for given NPM artifact coordinates (name, version), streaming the results as newline delimited JSON.",
+            description = "Each result is written as soon as it is resolved. Packages that failed to resolve are written with an error.")
+    @ApiResponse(content = @Content(schema = @Schema(implementation = NPMLookupResult.class)))
+    StreamingOutput lookupNPMNDJSON(@Valid NPMLookupRequest request);
 
     @POST
     @Path(value = "/npm/versions")
     @Operation(summary = "Lookup and filter available versions for the given NPM artifact coordinates (name, version).")
     @ApiResponse(content = @Content(array = @ArraySchema(schema = @Schema(implementation = NPMVersionsResult.class))))
-    Set<NPMVersionsResult> versionsNPM(@Valid NPMVersionsRequest request) throws CommunicationException;
+    CompletionStage<Set<NPMVersionsResult>> versionsNPM(@Valid NPMVersionsRequest request);
 
 }
@@ -0,0 +1,21 @@
+package org.jboss.da.rest.api;
+
+/**
+ * Media types used by the REST API that are not defined in {@link javax.ws.rs.core.MediaType}.
+ */
+public final class MediaTypes {
+
+    /**
+     * Newline delimited JSON, stream of JSON objects each on its own line.
+     */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    /**
+     * {@link #APPLICATION_NDJSON} with lower quality, for endpoints producing plain JSON as well. Clients accepting any
+     * media type get JSON, newline delimited JSON is returned only when they ask for it.
+     */
+    public static final String APPLICATION_NDJSON_LOW_QS = APPLICATION_NDJSON + ";qs=0.5";
+
+    private MediaTypes() {
+    }
+}
@@ -14,6 +14,8 @@ import javax.ws.rs.ext.ExceptionMapper;
 import javax.ws.rs.ext.Provider;
 
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 import static org.jboss.da.model.rest.ErrorMessage.ErrorType.COMMUNICATION_FAIL;
 import static org.jboss.da.model.rest.ErrorMessage.ErrorType.ILLEGAL_ARGUMENTS;
@@ -29,6 +31,11 @@ public class AllExceptionsMapper implements ExceptionMapper<Exception> {
 
     @Override
     public Response toResponse(Exception e) {
+        boolean async = e instanceof CompletionException || e instanceof ExecutionException;
+        if (async && e.getCause() instanceof Exception) {
+            // failures of asynchronous endpoints are reported by their cause
+            return toResponse((Exception) e.getCause());
+        }
         if (e instanceof ValidationException) { // order of tests is important
             return ((ValidationException) e).getResponse();
         } else if (e instanceof org.jboss.pnc.common.alignment.ranking.exception.ValidationException) {
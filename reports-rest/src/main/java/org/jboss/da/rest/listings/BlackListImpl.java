@@ -4,21 +4,39 @@ import org.jboss.da.listings.api.model.BlackArtifact;
 import org.jboss.da.listings.api.service.ArtifactService;
 import org.jboss.da.listings.api.service.BlackArtifactService;
 import org.jboss.da.listings.model.rest.ContainsResponse;
+import org.jboss.da.listings.model.rest.ImportResponse;
 import org.jboss.da.listings.model.rest.RestArtifact;
 import org.jboss.da.listings.model.rest.SuccessResponse;
 import org.jboss.da.model.rest.ErrorMessage;
+import org.jboss.da.model.rest.GAV;
 
 import javax.inject.Inject;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.StreamSupport;
 
+import org.jboss.da.rest.JacksonProvider;
 import org.jboss.da.rest.api.BlackList;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+
 import io.opentelemetry.instrumentation.annotations.SpanAttribute;
 import io.opentelemetry.instrumentation.annotations.WithSpan;
 
@@ -28,6 +46,8 @@ import io.opentelemetry.instrumentation.annotations.WithSpan;
  */
 public class BlackListImpl implements BlackList {
 
+    private static final ObjectMapper MAPPER = new JacksonProvider().getMapper();
+
     @Inject
     private RestConvert convert;
 
@@ -42,6 +62,65 @@ public class BlackListImpl implements BlackList {
         return artifacts;
     }
 
+    @Override
+    @WithSpan()
+    public ImportResponse importBlackArtifacts(InputStream artifacts) {
+        try (MappingIterator<RestArtifact> it = MAPPER.readerFor(RestArtifact.class).readValues(artifacts)) {
+            Iterator<GAV> gavs = StreamSupport
+                    .stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED), false)
+                    .map(BlackListImpl::toGAV)
+                    .iterator();
+            Map<ArtifactService.ArtifactStatus, Integer> result = blackService.importArtifacts(gavs);
+            return new ImportResponse(
+                    result.get(ArtifactService.ArtifactStatus.ADDED),
+                    result.get(ArtifactService.ArtifactStatus.NOT_MODIFIED));
+        } catch (IOException | RuntimeJsonMappingException ex) {
+            throw new IllegalArgumentException("Failed to read artifacts: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    @WithSpan()
+    public StreamingOutput exportBlackArtifacts() {
+        return output -> writeArtifacts(output, false);
+    }
+
+    @Override
+    @WithSpan()
+    public StreamingOutput exportBlackArtifactsNDJSON() {
+        return output -> writeArtifacts(output, true);
+    }
+
+    private void writeArtifacts(OutputStream output, boolean ndjson) throws IOException {
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(output)) {
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+            blackService.exportArtifacts(a -> {
+                try {
+                    generator.writeObject(RestConvert.toRestArtifact(a));
+                    if (ndjson) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static GAV toGAV(RestArtifact artifact) {
+        if (artifact.getGroupId() == null || artifact.getArtifactId() == null || artifact.getVersion() == null) {
+            throw new IllegalArgumentException("Artifact " + artifact + " is missing groupId, artifactId or version.");
+        }
+        return new GAV(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion());
+    }
+
     @Override
     @WithSpan()
     public Response isBlackArtifactPresent(
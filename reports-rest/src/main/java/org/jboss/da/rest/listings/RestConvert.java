@@ -24,7 +24,7 @@ public class RestConvert {
         return artifacts.stream().map(RestConvert::toRestArtifact).collect(Collectors.toList());
     }
 
-    private static RestArtifact toRestArtifact(Artifact a) {
+    public static RestArtifact toRestArtifact(Artifact a) {
         RestArtifact ra = new RestArtifact();
         ra.setArtifactId(a.getGa().getArtifactId());
         ra.setGroupId(a.getGa().getGroupId());
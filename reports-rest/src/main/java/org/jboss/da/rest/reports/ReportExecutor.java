@@ -0,0 +1,87 @@
+package org.jboss.da.rest.reports;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import org.jboss.da.common.util.Configuration;
+import org.jboss.da.common.util.ConfigurationParseException;
+import org.jboss.pnc.pncmetrics.MetricsConfiguration;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the blocking generation of the reports. A report waits for the upstream calls, which run on the default managed
+ * executor, so the reports have their own bounded pool and can't occupy all the threads the upstream calls need.
+ * Reports over the pool size wait in a queue. The threads are created by the managed thread factory, so they have the
+ * container context.
+ */
+@ApplicationScoped
+public class ReportExecutor {
+
+    private static final String METRICS_KEY = "da.reports.executor";
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    @Inject
+    private Configuration configuration;
+
+    @Inject
+    private MetricsConfiguration metricsConfiguration;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        int threads;
+        try {
+            threads = configuration.getConfig().getReportThreads();
+        } catch (ConfigurationParseException ex) {
+            throw new IllegalStateException("Configuration failure, can't read report executor configuration", ex);
+        }
+        executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        registerMetrics();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Submits the report generation, the returned future can interrupt it.
+     */
+    public Future<?> submit(Runnable task) {
+        return executor.submit(task);
+    }
+
+    private void registerMetrics() {
+        MetricRegistry registry = metricsConfiguration.getMetricRegistry();
+        if (registry != null) {
+            register(registry, METRICS_KEY + ".active", executor::getActiveCount);
+            register(registry, METRICS_KEY + ".queued", () -> executor.getQueue().size());
+        }
+    }
+
+    private static void register(MetricRegistry registry, String name, Gauge<Integer> gauge) {
+        registry.remove(name);
+        registry.register(name, gauge);
+    }
+}
@@ -1,7 +1,6 @@
 package org.jboss.da.rest.reports;
 
-import io.opentelemetry.instrumentation.annotations.SpanAttribute;
-import io.opentelemetry.instrumentation.annotations.WithSpan;
+import io.opentelemetry.context.Scope;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -9,9 +8,6 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.apache.maven.scm.ScmException;
-import org.jboss.da.common.CommunicationException;
-import org.jboss.da.communication.pom.PomAnalysisException;
 import org.jboss.da.reports.model.request.AlignReportRequest;
 import org.jboss.da.reports.model.request.BuiltReportRequest;
 import org.jboss.da.reports.model.request.LookupGAVsRequest;
@@ -25,10 +21,10 @@ import org.jboss.da.reports.model.response.LookupReport;
 import org.jboss.da.reports.model.response.NPMLookupReport;
 import org.jboss.da.reports.model.response.NPMVersionsReport;
 import org.jboss.da.reports.model.response.Report;
+import org.jboss.da.rest.AsyncRequestTracer;
 import org.jboss.da.rest.facade.ReportsFacade;
-import org.jboss.da.validation.ValidationException;
-import org.jboss.pnc.pncmetrics.rest.TimedMetric;
 import org.slf4j.Logger;
+import org.slf4j.MDC;
 
 import javax.inject.Inject;
 import javax.validation.Valid;
@@ -36,11 +32,18 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.ConnectionCallback;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
 
 /**
  * Main end point for the reports
@@ -60,29 +63,34 @@ public class Reports {
     @Inject
     private ReportsFacade facade;
 
+    @Inject
+    private ReportExecutor reportExecutor;
+
+    @Inject
+    private AsyncRequestTracer tracer;
+
     @POST
     @Path("/scm")
     @Operation(summary = "Get dependency report for a project specified in a repository URL.")
     @ApiResponse(content = @Content(schema = @Schema(implementation = Report.class)))
-    @TimedMetric
-    @WithSpan()
-    public Response scmGenerator(
-            @SpanAttribute(value = "request") @Parameter(description = "scm information") SCMReportRequest request)
-            throws ScmException, PomAnalysisException, CommunicationException, ValidationException {
-        return Response.ok().entity(facade.scmReport(request)).build();
+    public void scmGenerator(
+            @Parameter(description = "scm information") SCMReportRequest request,
+            @Suspended AsyncResponse response) {
+        resume("scmGenerator", request, response, () -> Response.ok().entity(facade.scmReport(request)).build());
     }
 
     @POST
     @Path("/scm-advanced")
     @Operation(summary = "Get dependency report for a project specified in a repository URL.")
     @ApiResponse(content = @Content(schema = @Schema(implementation = AdvancedReport.class)))
-    @TimedMetric
-    @WithSpan()
-    public Response advancedScmGenerator(
-            @SpanAttribute(value = "request") @Parameter(description = "scm information") SCMReportRequest request)
-            throws ScmException, PomAnalysisException, CommunicationException, ValidationException {
-        return Response.ok().entity(facade.advancedScmReport(request)).build();
-
+    public void advancedScmGenerator(
+            @Parameter(description = "scm information") SCMReportRequest request,
+            @Suspended AsyncResponse response) {
+        resume(
+                "advancedScmGenerator",
+                request,
+                response,
+                () -> Response.ok().entity(facade.advancedScmReport(request)).build());
     }
 
     @POST
@@ -94,17 +102,16 @@ public class Reports {
     @ApiResponse(content = @Content(array = @ArraySchema(schema = @Schema(implementation = LookupReport.class))))
     @ApiResponse(responseCode = "502", description = "Communication with remote repository failed")
     @Tag(name = "deprecated")
-    @TimedMetric
-    @Valid
-    @WithSpan()
-    public Response lookupGav(
-            @SpanAttribute(value = "gavRequest") @Parameter(
-                    description = "JSON list of objects with keys 'groupId', 'artifactId', and 'version'") LookupGAVsRequest gavRequest)
-            throws CommunicationException {
+    public void lookupGav(
+            @Valid @Parameter(
+                    description = "JSON list of objects with keys 'groupId', 'artifactId', and 'version'") LookupGAVsRequest gavRequest,
+            @Suspended AsyncResponse response) {
         log.info("Incoming request to /lookup/gavs. Payload: " + gavRequest.toString());
-        List<LookupReport> lookupReportList = facade.gavsReport(gavRequest);
-        log.info("Request to /lookup/gavs completed successfully. Payload: " + gavRequest.toString());
-        return Response.status(Status.OK).entity(lookupReportList).build();
+        resume("lookupGav", gavRequest, response, () -> {
+            List<LookupReport> lookupReportList = facade.gavsReport(gavRequest);
+            log.info("Request to /lookup/gavs completed successfully. Payload: " + gavRequest.toString());
+            return Response.status(Status.OK).entity(lookupReportList).build();
+        });
     }
 
     @POST
@@ -116,17 +123,15 @@ public class Reports {
     @ApiResponse(content = @Content(array = @ArraySchema(schema = @Schema(implementation = NPMLookupReport.class))))
     @ApiResponse(responseCode = "502", description = "Communication with remote repository failed")
     @Tag(name = "deprecated")
-    @TimedMetric
-    @Valid
-    @WithSpan()
-    public Response lookupNPM(
-            @SpanAttribute(value = "request") @Parameter(
-                    description = "JSON object with list of package names") LookupNPMRequest request)
-            throws CommunicationException {
+    public void lookupNPM(
+            @Valid @Parameter(description = "JSON object with list of package names") LookupNPMRequest request,
+            @Suspended AsyncResponse response) {
         log.info("Incoming request to /lookup/npm. Payload: " + request.toString());
-        List<NPMLookupReport> lookupReportList = facade.lookupReport(request);
-        log.info("Request to /lookup/npm completed successfully. Payload: " + request.toString());
-        return Response.status(Status.OK).entity(lookupReportList).build();
+        resume("lookupNPM", request, response, () -> {
+            List<NPMLookupReport> lookupReportList = facade.lookupReport(request);
+            log.info("Request to /lookup/npm completed successfully. Payload: " + request.toString());
+            return Response.status(Status.OK).entity(lookupReportList).build();
+        });
     }
 
     @POST
@@ -134,28 +139,27 @@ public class Reports {
     @Operation(summary = "Lookup and filter versions for the list of provided NPM artifacts.")
     @ApiResponse(content = @Content(array = @ArraySchema(schema = @Schema(implementation = NPMVersionsReport.class))))
     @ApiResponse(responseCode = "502", description = "Communication with remote repository failed")
-    @TimedMetric
-    @Valid
-    @WithSpan()
-    public Response versionsNPM(
-            @SpanAttribute(value = "request") @Parameter(
-                    description = "JSON object with list of package names") VersionsNPMRequest request)
-            throws CommunicationException {
+    public void versionsNPM(
+            @Valid @Parameter(description = "JSON object with list of package names") VersionsNPMRequest request,
+            @Suspended AsyncResponse response) {
         log.info("Incoming request to /versions/npm. Payload: " + request.toString());
-        List<NPMVersionsReport> versionsReportList = facade.versionReport(request);
-        log.info("Request to /versions/npm completed successfully. Payload: " + request.toString());
-        return Response.status(Status.OK).entity(versionsReportList).build();
+        resume("versionsNPM", request, response, () -> {
+            List<NPMVersionsReport> versionsReportList = facade.versionReport(request);
+            log.info("Request to /versions/npm completed successfully. Payload: " + request.toString());
+            return Response.status(Status.OK).entity(versionsReportList).build();
+        });
     }
 
     @POST
     @Path("/align")
     @Operation(summary = "Get alignment report for project specified in a repository URL.")
     @ApiResponse(content = @Content(schema = @Schema(implementation = AlignReport.class)))
-    @TimedMetric
-    @WithSpan()
-    public Response alignReport(@SpanAttribute(value = "request") AlignReportRequest request)
-            throws ScmException, PomAnalysisException, CommunicationException, ValidationException {
-        return Response.status(Status.OK).entity(facade.alignReport(request)).build();
+    public void alignReport(AlignReportRequest request, @Suspended AsyncResponse response) {
+        resume(
+                "alignReport",
+                request,
+                response,
+                () -> Response.status(Status.OK).entity(facade.alignReport(request)).build());
     }
 
     @POST
@@ -164,11 +168,41 @@ public class Reports {
     @Produces(MediaType.APPLICATION_JSON)
     @Operation(summary = "Get built artifacts for project specified in a repository URL.")
     @ApiResponse(content = @Content(schema = @Schema(implementation = BuiltReport.class)))
-    @TimedMetric
-    @WithSpan()
-    public Response builtReport(@SpanAttribute(value = "request") BuiltReportRequest request)
-            throws ScmException, PomAnalysisException, CommunicationException, ValidationException {
-        return Response.status(Status.OK).entity(facade.builtReport(request)).build();
+    public void builtReport(BuiltReportRequest request, @Suspended AsyncResponse response) {
+        resume(
+                "builtReport",
+                request,
+                response,
+                () -> Response.status(Status.OK).entity(facade.builtReport(request)).build());
+    }
+
+    /**
+     * Generates the response on the report executor, so the request thread is not blocked while the report is being
+     * generated. The generation is interrupted when the client disconnects. The request is traced and timed until the
+     * report is generated.
+     */
+    private void resume(String method, Object request, AsyncResponse response, Callable<Response> report) {
+        AsyncRequestTracer.Trace trace = tracer.start(Reports.class.getSimpleName() + "." + method, request);
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        Future<?> future = reportExecutor.submit(() -> {
+            if (context != null) {
+                MDC.setContextMap(context);
+            }
+            try (Scope scope = trace.makeCurrent()) {
+                Response result = report.call();
+                trace.end(null);
+                response.resume(result);
+            } catch (Exception ex) {
+                trace.end(ex);
+                response.resume(ex);
+            } finally {
+                MDC.clear();
+            }
+        });
+        response.register((ConnectionCallback) disconnected -> {
+            future.cancel(true);
+            trace.end(new CancellationException("Client disconnected"));
+        });
     }
 
 }
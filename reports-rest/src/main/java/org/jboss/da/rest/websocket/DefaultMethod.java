@@ -2,22 +2,19 @@ package org.jboss.da.rest.websocket;
 
 import lombok.Getter;
 
-public class DefaultMethod<T, S, R> implements Method<T, S, R> {
+public class DefaultMethod<T, S> implements Method<T, S> {
 
     @Getter
     private final String name;
 
     private final Class<T> parameterClass;
 
-    private final Class<R> jsonClass;
-
     private final FF<T, S> method;
 
-    public DefaultMethod(String name, Class<T> parameterClass, Class<R> jsonClass, FF<T, S> method) {
+    public DefaultMethod(String name, Class<T> parameterClass, FF<T, S> method) {
         this.name = name;
         this.parameterClass = parameterClass;
         this.method = method;
-        this.jsonClass = jsonClass;
     }
 
     @Override
@@ -36,9 +33,4 @@ public class DefaultMethod<T, S, R> implements Method<T, S, R> {
         R apply(T t) throws Exception;
     }
 
-    @Override
-    public Class<R> getJsonOutputClass() {
-        return jsonClass;
-    }
-
 }
@@ -1,14 +1,25 @@
 package org.jboss.da.rest.websocket;
 
+import org.jboss.da.common.util.ConcurrencyLimiter;
+import org.jboss.da.reports.api.ProgressListener;
+import org.jboss.da.reports.api.ReportProgress;
 import org.jboss.pnc.pncmetrics.MetricsConfiguration;
-import org.jboss.weld.context.activator.ActivateRequestContext;
 import org.slf4j.Logger;
 
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.control.RequestContextController;
+import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
-import javax.websocket.RemoteEndpoint.Basic;
 import javax.websocket.Session;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
@@ -16,10 +27,8 @@ import com.codahale.metrics.Timer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.thetransactioncompany.jsonrpc2.JSONRPC2Error;
-import com.thetransactioncompany.jsonrpc2.JSONRPC2ParseException;
-import com.thetransactioncompany.jsonrpc2.JSONRPC2Request;
-import com.thetransactioncompany.jsonrpc2.JSONRPC2Response;
 
 import static com.codahale.metrics.MetricRegistry.name;
 
@@ -29,6 +38,13 @@ import static com.codahale.metrics.MetricRegistry.name;
  */
 public class DefaultWebsocketEndpointHandler implements WebsocketEndpointHandler {
 
+    /**
+     * Method cancelling a request of the session, its params contain the id of the request to cancel.
+     */
+    public static final String CANCEL_METHOD = "rpc.cancel";
+
+    private static final JSONRPC2Error CANCELLED = new JSONRPC2Error(-32800, "Request cancelled");
+
     private static final String METRICS_ALL_RATE_KEY = "ws.all.rate";
 
     private static final String METRICS_ALL_TIMER_KEY = "ws.all.timer";
@@ -37,6 +53,8 @@ public class DefaultWebsocketEndpointHandler implements WebsocketEndpointHandler
 
     private static final String METRICS_KEY = "ws";
 
+    private static final String METRICS_REQUEST_KEY = "JSONRPC2Request";
+
     private static final String METRICS_RATE_KEY = ".rate";
 
     private static final String METRICS_TIMER_KEY = ".timer";
@@ -52,17 +70,43 @@ public class DefaultWebsocketEndpointHandler implements WebsocketEndpointHandler
     @Inject
     private MetricsConfiguration metricsConfiguration;
 
+    @Inject
+    private Instance<RequestContextController> requestContextController;
+
+    @Inject
+    private WebsocketExecutor websocketExecutor;
+
     private Methods methods;
 
+    /**
+     * Limits the requests of the session in flight, the independent requests run concurrently and are answered in the
+     * order they complete.
+     */
+    private ConcurrencyLimiter limiter;
+
+    /**
+     * Requests of the session that are running or waiting to run, mapped by their id.
+     */
+    private final Map<JsonNode, Execution> running = new ConcurrentHashMap<>();
+
+    private JsonRpcWriter writer;
+
+    private WebsocketSender sender;
+
+    @PostConstruct
+    void init() {
+        writer = new JsonRpcWriter(mapper);
+        limiter = new ConcurrencyLimiter("websocket-session", websocketExecutor.getSessionLimit());
+    }
+
     @Override
     public void setMethods(Methods methods) {
         this.methods = methods;
     }
 
     @Override
-    @ActivateRequestContext
     public void onMessage(Session session, String msg) {
-        Basic basic = session.getBasicRemote();
+        WebsocketSender sender = getSender(session);
         MetricRegistry registry = metricsConfiguration.getMetricRegistry();
 
         Timer allTimer = registry.timer(METRICS_ALL_TIMER_KEY);
@@ -72,113 +116,223 @@ public class DefaultWebsocketEndpointHandler implements WebsocketEndpointHandler
         Timer.Context allTimingContext = allTimer.time();
         allMeter.mark();
 
+        JsonRpcRequest request;
         try {
-            JSONRPC2Request request = getRequest(basic, msg);
-            if (request == null) {
-                allErrors.mark();
-                return;
-            }
+            request = JsonRpcRequest.parse(mapper, msg);
+        } catch (JSONRPC2Error error) {
+            log.warn("Failed to parse JSON RPC message: " + error.getData());
+            sender.send(writer.error(NullNode.getInstance(), error));
+            allErrors.mark();
+            return;
+        }
 
-            String methodName = request.getMethod();
-            String metricsName = METRICS_KEY + name(request.getClass().getSimpleName(), methodName);
+        String methodName = request.getMethod();
+        String metricsName = METRICS_KEY + name(METRICS_REQUEST_KEY, methodName);
 
-            Timer timer = registry.timer(metricsName + METRICS_TIMER_KEY);
-            Meter meter = registry.meter(metricsName + METRICS_RATE_KEY);
-            Meter errors = registry.meter(metricsName + METRICS_ERROR_KEY);
+        Timer timer = registry.timer(metricsName + METRICS_TIMER_KEY);
+        Meter meter = registry.meter(metricsName + METRICS_RATE_KEY);
+        Meter errors = registry.meter(metricsName + METRICS_ERROR_KEY);
 
-            Timer.Context timingContext = timer.time();
-            meter.mark();
+        RequestMetrics metrics = new RequestMetrics(allTimingContext, timer.time(), allErrors, errors);
+        meter.mark();
 
-            if (!methods.contains(methodName)) {
-                log.warn("Failed to find JSON RPC method " + methodName + ".");
-                basic.sendText(new JSONRPC2Response(JSONRPC2Error.METHOD_NOT_FOUND, request.getID()).toString());
-                allErrors.mark();
-                errors.mark();
-                return;
-            }
+        if (CANCEL_METHOD.equals(methodName)) {
+            cancel(sender, request, metrics);
+            return;
+        }
 
-            JsonNode params = mapper.readTree(msg).get("params");
-            if (params == null) {
-                log.warn("Failed to parse JSON RPC parameters. Parameters are null.");
-                JSONRPC2Error error = JSONRPC2Error.INVALID_PARAMS;
-                error = error.setData("Parameter can't be null");
-                basic.sendText(new JSONRPC2Response(error, request.getID()).toString());
-                allErrors.mark();
-                errors.mark();
-                return;
-            }
+        if (!methods.contains(methodName)) {
+            log.warn("Failed to find JSON RPC method " + methodName + ".");
+            sender.send(writer.error(request.getId(), JSONRPC2Error.METHOD_NOT_FOUND));
+            metrics.error();
+            return;
+        }
 
-            Method method = methods.get(methodName);
-            Object hello;
-            try {
-                hello = mapper.treeToValue(params, method.getParameterClass());
-            } catch (JsonProcessingException ex) {
-                log.warn("Failed to parse JSON RPC parameters", ex);
-                JSONRPC2Error error = JSONRPC2Error.INVALID_PARAMS;
+        JsonNode params = request.getParams();
+        if (params == null) {
+            log.warn("Failed to parse JSON RPC parameters. Parameters are null.");
+            JSONRPC2Error error = JSONRPC2Error.INVALID_PARAMS;
+            error = error.setData("Parameter can't be null");
+            sender.send(writer.error(request.getId(), error));
+            metrics.error();
+            return;
+        }
+
+        Method method = methods.get(methodName);
+        Object hello;
+        try {
+            hello = mapper.treeToValue(params, method.getParameterClass());
+        } catch (JsonProcessingException ex) {
+            log.warn("Failed to parse JSON RPC parameters", ex);
+            JSONRPC2Error error = JSONRPC2Error.INVALID_PARAMS;
+            error = error.setData(ex.getMessage());
+            sender.send(writer.error(request.getId(), error));
+            metrics.error();
+            return;
+        }
+
+        submit(session, sender, request, method, hello, metrics);
+    }
+
+    @Override
+    public void onClose(Session session) {
+        running.values().forEach(Execution::cancel);
+    }
+
+    private synchronized WebsocketSender getSender(Session session) {
+        if (sender == null) {
+            sender = new WebsocketSender(session);
+        }
+        return sender;
+    }
+
+    /**
+     * Executes the request on the executor, so the session can receive other messages, e.g. to cancel the request,
+     * while the request runs. The response is correlated with the request by its id.
+     */
+    private void submit(
+            Session session,
+            WebsocketSender sender,
+            JsonRpcRequest request,
+            Method method,
+            Object params,
+            RequestMetrics metrics) {
+        JsonNode id = request.getId();
+        Execution execution = new Execution();
+        if (!id.isNull() && running.putIfAbsent(id, execution) != null) {
+            log.warn("JSON RPC request with id " + id + " is already in progress.");
+            JSONRPC2Error error = JSONRPC2Error.INVALID_REQUEST;
+            error = error.setData("Request with the same id is already in progress");
+            sender.send(writer.error(id, error));
+            metrics.error();
+            return;
+        }
+        Runnable task = () -> execution
+                .run(() -> execute(session, sender, request, method, params, execution, metrics));
+        CompletableFuture<Void> future = limiter
+                .submit(() -> execution.queuedOn(websocketExecutor.runAsync(session.getId(), task)));
+        execution.queuedOn(future).whenComplete((r, ex) -> {
+            if (!id.isNull()) {
+                running.remove(id, execution);
+            }
+            if (isCancellation(ex)) {
+                // cancelled before it started, answered right away instead of when it would be started
+                log.info("JSON RPC request with id " + id + " was cancelled before it started.");
+                sender.send(writer.error(id, CANCELLED));
+                metrics.error();
+            } else if (ex != null) {
+                log.error("Failed to execute method " + method, ex);
+                JSONRPC2Error error = JSONRPC2Error.INTERNAL_ERROR;
                 error = error.setData(ex.getMessage());
-                basic.sendText(new JSONRPC2Response(error, request.getID()).toString());
-                allErrors.mark();
-                errors.mark();
-                return;
+                sender.send(writer.error(id, error));
+                metrics.error();
             }
+        });
+    }
+
+    private static boolean isCancellation(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause instanceof CancellationException;
+    }
 
-            Object resp;
-            try {
-                resp = method.execute(hello);
-            } catch (Exception ex) {
+    private void execute(
+            Session session,
+            WebsocketSender sender,
+            JsonRpcRequest request,
+            Method method,
+            Object params,
+            Execution execution,
+            RequestMetrics metrics) {
+        Object resp;
+        RequestContextController requestContext = requestContextController.get();
+        requestContext.activate();
+        try {
+            ProgressListener progress = new ProgressNotifier(sender, writer, request.getId());
+            resp = ReportProgress.call(progress, () -> method.execute(params));
+        } catch (Exception ex) {
+            if (execution.isCancelled()) {
+                log.info("Execution of method " + method + " was cancelled.");
+                sender.send(writer.error(request.getId(), CANCELLED));
+            } else {
                 log.error("Exception while executing method " + method, ex);
                 JSONRPC2Error error = JSONRPC2Error.INTERNAL_ERROR;
                 error = error.setData(ex.getMessage());
-                basic.sendText(new JSONRPC2Response(error, request.getID()).toString());
-                allErrors.mark();
-                errors.mark();
-                return;
-            }
-
-            // Convert the response object to string and then to a Map (or Collection<Map>) that the
-            // JSONRPC2Response can actually serialize correctly back to json. (╯°□°）╯┻━┻
-            String stringMapped = mapper.writeValueAsString(resp);
-            Object objResp = mapper.readValue(stringMapped, method.getJsonOutputClass());
-            JSONRPC2Response response = new JSONRPC2Response(objResp, request.getID());
-
-            if (!session.isOpen()) {
-                log.warn("Session closed before response sent.");
-                allErrors.mark();
-                errors.mark();
-                return;
+                sender.send(writer.error(request.getId(), error));
             }
-            final String responseText = response.toJSONString();
-            basic.sendText(responseText);
+            metrics.error();
+            return;
+        } finally {
+            requestContext.deactivate();
+            requestContextController.destroy(requestContext);
+        }
 
-            allTimingContext.stop();
-            timingContext.stop();
+        if (!session.isOpen()) {
+            log.warn("Session closed before response sent.");
+            metrics.error();
+            return;
+        }
+        try {
+            sender.send(writer.result(request.getId(), resp));
+            metrics.stop();
         } catch (IOException ex) {
-            log.error("Failed to process websocket request", ex);
-            allErrors.mark();
+            log.error("Failed to serialize result of method " + method, ex);
+            JSONRPC2Error error = JSONRPC2Error.INTERNAL_ERROR;
+            error = error.setData(ex.getMessage());
+            sender.send(writer.error(request.getId(), error));
+            metrics.error();
         }
     }
 
-    private JSONRPC2Request getRequest(Basic remote, String msg) throws IOException {
+    /**
+     * Cancels the running or waiting request with the id given in the params. The result tells whether the request
+     * was cancelled, the cancelled request is answered by an error. A waiting request is removed from the queues and
+     * answered right away, a running one is answered when its thread is interrupted.
+     */
+    private void cancel(WebsocketSender sender, JsonRpcRequest request, RequestMetrics metrics) {
+        JsonNode id = request.getParams() == null ? null : request.getParams().get("id");
+        if (id == null || id.isNull()) {
+            log.warn("Failed to parse JSON RPC parameters. Id of the request to cancel is missing.");
+            JSONRPC2Error error = JSONRPC2Error.INVALID_PARAMS;
+            error = error.setData("Id of the request to cancel can't be null");
+            sender.send(writer.error(request.getId(), error));
+            metrics.error();
+            return;
+        }
+        Execution execution = running.get(id);
+        boolean cancelled = execution != null && execution.cancel();
         try {
-            return JSONRPC2Request.parse(msg);
-        } catch (JSONRPC2ParseException ex) {
-            JSONRPC2Error error;
-            switch (ex.getCauseType()) {
-                case JSONRPC2ParseException.PROTOCOL:
-                    error = JSONRPC2Error.INVALID_REQUEST;
-                    break;
-                case JSONRPC2ParseException.JSON:
-                    error = JSONRPC2Error.PARSE_ERROR;
-                    break;
-                default:
-                    log.warn("Unknown exception cause type " + ex.getCauseType() + ".");
-                    error = JSONRPC2Error.PARSE_ERROR;
-                    break;
-            }
-            error = error.setData(ex.getMessage());
-            remote.sendText(new JSONRPC2Response(error, null).toString());
-            log.warn("Failed to parse JSON RPC message", ex);
-            return null;
+            sender.send(writer.result(request.getId(), Collections.singletonMap("cancelled", cancelled)));
+            metrics.stop();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static class RequestMetrics {
+
+        private final Timer.Context allTimingContext;
+
+        private final Timer.Context timingContext;
+
+        private final Meter allErrors;
+
+        private final Meter errors;
+
+        RequestMetrics(Timer.Context allTimingContext, Timer.Context timingContext, Meter allErrors, Meter errors) {
+            this.allTimingContext = allTimingContext;
+            this.timingContext = timingContext;
+            this.allErrors = allErrors;
+            this.errors = errors;
+        }
+
+        void stop() {
+            allTimingContext.stop();
+            timingContext.stop();
+        }
+
+        void error() {
+            allErrors.mark();
+            errors.mark();
         }
     }
 }
@@ -0,0 +1,93 @@
+package org.jboss.da.rest.websocket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Execution of a JSON RPC request. The execution can be cancelled before it starts or while it runs. The futures the
+ * waiting execution is queued on are cancelled, so it is removed from the queues, the thread of a running execution is
+ * interrupted.
+ */
+class Execution {
+
+    private boolean cancelled;
+
+    private boolean finished;
+
+    private Thread thread;
+
+    private final List<Future<?>> queued = new ArrayList<>();
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Registers the future the execution waits on before it starts, e.g. the result of a limiter. The future is
+     * cancelled when the execution is cancelled before it starts.
+     *
+     * @return the future.
+     */
+    public <F extends Future<?>> F queuedOn(F future) {
+        boolean cancel;
+        synchronized (this) {
+            cancel = cancelled;
+            if (!cancel) {
+                queued.add(future);
+            }
+        }
+        if (cancel) {
+            future.cancel(false);
+        }
+        return future;
+    }
+
+    /**
+     * Cancels the execution. A waiting execution is removed from the queues, a running one has its thread interrupted.
+     *
+     * @return false when the execution was already cancelled or finished.
+     */
+    public boolean cancel() {
+        List<Future<?>> toCancel;
+        synchronized (this) {
+            if (cancelled || finished) {
+                return false;
+            }
+            cancelled = true;
+            if (thread != null) {
+                thread.interrupt();
+                return true;
+            }
+            toCancel = new ArrayList<>(queued);
+        }
+        // cancelled outside of the lock, the futures complete their dependents in this thread
+        toCancel.forEach(f -> f.cancel(false));
+        return true;
+    }
+
+    /**
+     * Runs the task in the current thread, so it can be interrupted when the execution is cancelled. The task is not
+     * run when the execution was cancelled before it started.
+     */
+    public void run(Runnable task) {
+        synchronized (this) {
+            if (cancelled) {
+                finished = true;
+                return;
+            }
+            thread = Thread.currentThread();
+            queued.clear();
+        }
+        try {
+            task.run();
+        } finally {
+            synchronized (this) {
+                thread = null;
+                finished = true;
+                // the interrupt of a cancelled execution must not affect the next task of the pooled thread
+                Thread.interrupted();
+            }
+        }
+    }
+}
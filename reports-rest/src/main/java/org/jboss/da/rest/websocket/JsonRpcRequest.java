@@ -0,0 +1,70 @@
+package org.jboss.da.rest.websocket;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Error;
+
+/**
+ * JSON RPC 2.0 request parsed by Jackson. The params are kept as a tree, so they can be read directly into the
+ * parameter class of the called method.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+class JsonRpcRequest {
+
+    private static final String VERSION = "2.0";
+
+    /**
+     * Id of the request, string, number or null node.
+     */
+    private final JsonNode id;
+
+    private final String method;
+
+    /**
+     * Params of the request, null when the request has none.
+     */
+    private final JsonNode params;
+
+    /**
+     * Parses and validates the request.
+     *
+     * @throws JSONRPC2Error parse error when the message is not JSON, invalid request error when the message is not
+     *         JSON RPC 2.0 request.
+     */
+    static JsonRpcRequest parse(ObjectMapper mapper, String msg) throws JSONRPC2Error {
+        JsonNode request;
+        try {
+            request = mapper.readTree(msg);
+        } catch (JsonProcessingException ex) {
+            throw JSONRPC2Error.PARSE_ERROR.setData(ex.getOriginalMessage());
+        }
+        if (request == null || !request.isObject()) {
+            throw JSONRPC2Error.INVALID_REQUEST.setData("JSON RPC request must be an object");
+        }
+        if (!VERSION.equals(request.path("jsonrpc").textValue())) {
+            throw JSONRPC2Error.INVALID_REQUEST.setData("Invalid or missing \"jsonrpc\" version, expected " + VERSION);
+        }
+        JsonNode method = request.get("method");
+        if (method == null || !method.isTextual()) {
+            throw JSONRPC2Error.INVALID_REQUEST.setData("Invalid or missing \"method\"");
+        }
+        JsonNode id = request.get("id");
+        if (id == null || !(id.isTextual() || id.isNumber() || id.isNull())) {
+            throw JSONRPC2Error.INVALID_REQUEST.setData("Invalid or missing \"id\"");
+        }
+        JsonNode params = request.get("params");
+        if (params != null && params.isNull()) {
+            params = null;
+        }
+        if (params != null && !params.isContainerNode()) {
+            throw JSONRPC2Error.INVALID_REQUEST.setData("\"params\" must be an object or an array");
+        }
+        return new JsonRpcRequest(id, method.textValue(), params);
+    }
+}
@@ -0,0 +1,94 @@
+package org.jboss.da.rest.websocket;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Error;
+
+/**
+ * Writes JSON RPC 2.0 messages with Jackson, the results are serialized straight from the objects returned by the
+ * methods. Each thread writes into its own buffer, which is reused for the next messages unless it grew too large.
+ */
+class JsonRpcWriter {
+
+    private static final int MAX_RETAINED_BUFFER = 1024 * 1024;
+
+    private static final ThreadLocal<StringWriter> BUFFERS = ThreadLocal.withInitial(StringWriter::new);
+
+    private final ObjectMapper mapper;
+
+    JsonRpcWriter(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    public String result(JsonNode id, Object result) throws IOException {
+        return write(id, generator -> {
+            generator.writeFieldName("result");
+            generator.writeObject(result);
+        });
+    }
+
+    public String error(JsonNode id, JSONRPC2Error error) {
+        try {
+            return write(id, generator -> {
+                generator.writeObjectFieldStart("error");
+                generator.writeNumberField("code", error.getCode());
+                generator.writeStringField("message", error.getMessage());
+                if (error.getData() != null) {
+                    generator.writeFieldName("data");
+                    generator.writeObject(error.getData());
+                }
+                generator.writeEndObject();
+            });
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public String notification(String method, Object params) {
+        try {
+            return write(null, generator -> {
+                generator.writeStringField("method", method);
+                generator.writeFieldName("params");
+                generator.writeObject(params);
+            });
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Writes the message with the given body.
+     *
+     * @param id id of the request, null for notification, JSON null is written when the id is null node.
+     */
+    private String write(JsonNode id, Body body) throws IOException {
+        StringWriter buffer = BUFFERS.get();
+        buffer.getBuffer().setLength(0);
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(buffer)) {
+            generator.writeStartObject();
+            generator.writeStringField("jsonrpc", "2.0");
+            body.write(generator);
+            if (id != null) {
+                generator.writeFieldName("id");
+                generator.writeTree(id);
+            }
+            generator.writeEndObject();
+        }
+        String message = buffer.toString();
+        if (buffer.getBuffer().capacity() > MAX_RETAINED_BUFFER) {
+            BUFFERS.remove();
+        }
+        return message;
+    }
+
+    @FunctionalInterface
+    private interface Body {
+
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
@@ -6,16 +6,13 @@ package org.jboss.da.rest.websocket;
  * 
  * @param <T> parameter type
  * @param <S> return type after method execution
- * @param <R> Json output type (e.g. Map, Set, ..)
  */
 
-public interface Method<T, S, R> {
+public interface Method<T, S> {
 
     public String getName();
 
     public Class<T> getParameterClass();
 
-    public Class<R> getJsonOutputClass();
-
     public S execute(T params) throws Exception;
 }
@@ -8,6 +8,6 @@ public interface Methods {
 
     boolean contains(String method);
 
-    Method<?, ?, ?> get(String method);
+    Method<?, ?> get(String method);
 
 }
@@ -0,0 +1,79 @@
+package org.jboss.da.rest.websocket;
+
+import org.jboss.da.reports.api.ProgressListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Sends the progress of a request as JSON RPC notifications to the session the request came from. The notification
+ * params contain the id of the request, the stage, its status and for the progress of the stage the number of done
+ * and total items. The progress of a stage is sent at most once in the interval and when the stage is complete. The
+ * progress of an incomplete stage is dropped while other message is being sent to the session, the next one supersedes
+ * it.
+ */
+class ProgressNotifier implements ProgressListener {
+
+    public static final String METHOD = "progress";
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final WebsocketSender sender;
+
+    private final JsonRpcWriter writer;
+
+    private final JsonNode requestId;
+
+    private long lastProgress = System.nanoTime() - INTERVAL;
+
+    ProgressNotifier(WebsocketSender sender, JsonRpcWriter writer, JsonNode requestId) {
+        this.sender = sender;
+        this.writer = writer;
+        this.requestId = requestId;
+    }
+
+    @Override
+    public void started(Stage stage) {
+        notify(stage, "STARTED");
+    }
+
+    @Override
+    public void progress(Stage stage, int done, int total) {
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (done < total && now - lastProgress < INTERVAL) {
+                return;
+            }
+            lastProgress = now;
+        }
+        Map<String, Object> params = params(stage, "IN_PROGRESS");
+        params.put("done", done);
+        params.put("total", total);
+        String notification = writer.notification(METHOD, params);
+        if (done < total) {
+            sender.sendIfIdle(notification);
+        } else {
+            sender.send(notification);
+        }
+    }
+
+    @Override
+    public void finished(Stage stage) {
+        notify(stage, "FINISHED");
+    }
+
+    private void notify(Stage stage, String status) {
+        sender.send(writer.notification(METHOD, params(stage, status)));
+    }
+
+    private Map<String, Object> params(Stage stage, String status) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("id", requestId);
+        params.put("stage", stage.name());
+        params.put("status", status);
+        return params;
+    }
+}
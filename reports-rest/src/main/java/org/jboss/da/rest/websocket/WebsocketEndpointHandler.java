@@ -6,6 +6,13 @@ public interface WebsocketEndpointHandler {
 
     public void onMessage(Session session, String msg);
 
+    /**
+     * Cancels the requests of the closed session.
+     * 
+     * @param session
+     */
+    public void onClose(Session session);
+
     /**
      * Provides the methods the instance can handle.
      * 
@@ -0,0 +1,141 @@
+package org.jboss.da.rest.websocket;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import org.jboss.da.common.json.DAConfig;
+import org.jboss.da.common.util.ConcurrencyLimiter;
+import org.jboss.da.common.util.Configuration;
+import org.jboss.da.common.util.ConfigurationParseException;
+import org.jboss.pnc.pncmetrics.MetricsConfiguration;
+import org.slf4j.MDC;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the JSON RPC requests received over websocket. The number of requests running at once is bounded across all the
+ * sessions, the waiting requests of different sessions take turns. Each session also limits its own requests in
+ * flight, see {@link #getSessionLimit()}. The logging context of the caller is propagated to the thread running the
+ * request.
+ *
+ * A request blocks while it waits for the upstream calls, which run on the default managed executor, so the requests
+ * run on their own pool and can't occupy the threads the upstream calls need. The pool has a thread for each request
+ * allowed to run at once, the threads are created by the managed thread factory, so they have the container context.
+ */
+@ApplicationScoped
+public class WebsocketExecutor {
+
+    private static final String METRICS_KEY = "ws.executor";
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    @Inject
+    private Configuration configuration;
+
+    @Inject
+    private MetricsConfiguration metricsConfiguration;
+
+    private ConcurrencyLimiter limiter;
+
+    private ThreadPoolExecutor executor;
+
+    private int sessionLimit;
+
+    @PostConstruct
+    void init() {
+        DAConfig config;
+        try {
+            config = configuration.getConfig();
+        } catch (ConfigurationParseException ex) {
+            throw new IllegalStateException("Configuration failure, can't read websocket executor configuration", ex);
+        }
+        int limit = config.getWebsocketConcurrencyLimit();
+        limiter = new ConcurrencyLimiter("websocket", limit);
+        if (limit > 0) {
+            executor = new ThreadPoolExecutor(
+                    limit,
+                    limit,
+                    60,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    threadFactory);
+            executor.allowCoreThreadTimeOut(true);
+        } else {
+            executor = new ThreadPoolExecutor(
+                    0,
+                    Integer.MAX_VALUE,
+                    60,
+                    TimeUnit.SECONDS,
+                    new SynchronousQueue<>(),
+                    threadFactory);
+        }
+        sessionLimit = config.getWebsocketSessionConcurrencyLimit();
+        registerMetrics();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the maximal number of requests of one session running at once, zero or less means no limit.
+     */
+    public int getSessionLimit() {
+        return sessionLimit;
+    }
+
+    /**
+     * Runs the task asynchronously when the limit allows it.
+     *
+     * @param sessionId id of the session the task belongs to.
+     * @param task the task to run.
+     * @return future completed when the task finishes.
+     */
+    public CompletableFuture<Void> runAsync(String sessionId, Runnable task) {
+        Runnable withContext = withLoggingContext(task);
+        return limiter.submit(sessionId, () -> CompletableFuture.runAsync(withContext, executor));
+    }
+
+    private static Runnable withLoggingContext(Runnable task) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return () -> {
+            if (context != null) {
+                MDC.setContextMap(context);
+            }
+            try {
+                task.run();
+            } finally {
+                MDC.clear();
+            }
+        };
+    }
+
+    private void registerMetrics() {
+        MetricRegistry registry = metricsConfiguration.getMetricRegistry();
+        if (registry != null) {
+            register(registry, METRICS_KEY + ".limit", limiter::getLimit);
+            register(registry, METRICS_KEY + ".active", limiter::getActive);
+            register(registry, METRICS_KEY + ".queued", limiter::getQueued);
+            register(registry, METRICS_KEY + ".threads", executor::getPoolSize);
+        }
+    }
+
+    private static void register(MetricRegistry registry, String name, Gauge<Integer> gauge) {
+        registry.remove(name);
+        registry.register(name, gauge);
+    }
+}
@@ -0,0 +1,83 @@
+package org.jboss.da.rest.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Sends messages to the websocket session without blocking the caller. The remote endpoint can't send concurrently,
+ * so the messages are queued and sent one after another. Only the messages that must be delivered, e.g. responses, are
+ * queued, so the queue is bounded by the requests in flight. Messages superseded by later ones, e.g. progress
+ * notifications, are dropped when they would have to wait, so a slow client can't make the queue grow.
+ */
+@Slf4j
+class WebsocketSender {
+
+    private final Session session;
+
+    private final Queue<String> queue = new ArrayDeque<>();
+
+    private boolean sending;
+
+    WebsocketSender(Session session) {
+        this.session = session;
+    }
+
+    public void send(String message) {
+        synchronized (this) {
+            if (sending) {
+                queue.add(message);
+                return;
+            }
+            sending = true;
+        }
+        sendAsync(message);
+    }
+
+    /**
+     * Sends the message only when no other message is being sent.
+     *
+     * @return false when the message was dropped.
+     */
+    public boolean sendIfIdle(String message) {
+        synchronized (this) {
+            if (sending) {
+                return false;
+            }
+            sending = true;
+        }
+        sendAsync(message);
+        return true;
+    }
+
+    private void sendAsync(String message) {
+        try {
+            session.getAsyncRemote().sendText(message, this::onSent);
+        } catch (RuntimeException ex) {
+            onSent(new SendResult(ex));
+        }
+    }
+
+    private void onSent(SendResult result) {
+        String next;
+        synchronized (this) {
+            if (!result.isOK()) {
+                log.warn("Failed to send websocket message to session " + session.getId() + ".", result.getException());
+                if (!session.isOpen()) {
+                    queue.clear();
+                }
+            }
+            next = queue.poll();
+            if (next == null) {
+                sending = false;
+            }
+        }
+        if (next != null) {
+            sendAsync(next);
+        }
+    }
+}
@@ -41,6 +41,7 @@ public class ReportsEndpoint {
     @OnClose
     public void onClose(Session session) {
         AuditLogger.LOG.info("Closed websocket communication with session id " + session.getId() + ".");
+        endpointHandler.onClose(session);
     }
 
 }
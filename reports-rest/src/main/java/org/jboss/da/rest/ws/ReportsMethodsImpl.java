@@ -18,24 +18,23 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 @ApplicationScoped
 @ReportsWebsocketMethods
 public class ReportsMethodsImpl implements Methods {
 
-    private final DefaultMethod<SCMReportRequest, Report, Map> SCM;
+    private final DefaultMethod<SCMReportRequest, Report> SCM;
 
-    private final DefaultMethod<SCMReportRequest, AdvancedReport, Map> SCM_ADVANCED;
+    private final DefaultMethod<SCMReportRequest, AdvancedReport> SCM_ADVANCED;
 
-    private final DefaultMethod<BuiltReportRequest, Set<BuiltReport>, Set> BUILT;
+    private final DefaultMethod<BuiltReportRequest, Set<BuiltReport>> BUILT;
 
-    private final DefaultMethod<AlignReportRequest, AlignReport, Map> ALIGN;
+    private final DefaultMethod<AlignReportRequest, AlignReport> ALIGN;
 
-    private final DefaultMethod<LookupGAVsRequest, List<LookupReport>, List> LOOKUP_GAV;
+    private final DefaultMethod<LookupGAVsRequest, List<LookupReport>> LOOKUP_GAV;
 
-    private final HashMap<String, Method<?, ?, ?>> methods = new HashMap<>();
+    private final HashMap<String, Method<?, ?>> methods = new HashMap<>();
 
     @Inject
     public ReportsMethodsImpl(ReportsFacade facade) {
@@ -44,39 +43,34 @@ public class ReportsMethodsImpl implements Methods {
                 new DefaultMethod<>(
                         "reports.scm",
                         SCMReportRequest.class,
-                        Map.class,
                         params -> facade.scmReport(params)));
 
         SCM_ADVANCED = put(
                 new DefaultMethod<>(
                         "reports.scmAdvanced",
                         SCMReportRequest.class,
-                        Map.class,
                         params -> facade.advancedScmReport(params)));
 
         BUILT = put(
                 new DefaultMethod<>(
                         "reports.built",
                         BuiltReportRequest.class,
-                        Set.class,
                         params -> facade.builtReport(params)));
 
         ALIGN = put(
                 new DefaultMethod<>(
                         "reports.align",
                         AlignReportRequest.class,
-                        Map.class,
                         params -> facade.alignReport(params)));
 
         LOOKUP_GAV = put(
                 new DefaultMethod<>(
                         "reports.lookup.gav",
                         LookupGAVsRequest.class,
-                        List.class,
                         params -> facade.gavsReport(params)));
     }
 
-    private <T, S, R> DefaultMethod<T, S, R> put(DefaultMethod<T, S, R> method) {
+    private <T, S> DefaultMethod<T, S> put(DefaultMethod<T, S> method) {
         methods.put(method.getName(), method);
         return method;
     }
@@ -87,7 +81,7 @@ public class ReportsMethodsImpl implements Methods {
     }
 
     @Override
-    public Method<?, ?, ?> get(String method) {
+    public Method<?, ?> get(String method) {
         return methods.get(method);
     }
 }
@@ -0,0 +1,108 @@
+package org.jboss.da.rest;
+
+import org.jboss.da.common.json.DAConfig;
+import org.jboss.da.common.util.Configuration;
+import org.jboss.da.common.util.ConfigurationParseException;
+import org.jboss.da.lookup.model.MavenLookupRequest;
+import org.jboss.da.lookup.model.MavenLookupResult;
+import org.jboss.da.model.rest.GAV;
+import org.jboss.da.reports.api.LookupGenerator;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import io.opentelemetry.context.Scope;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LookupImplTest {
+
+    private static final GAV GAV = new GAV("org.foo", "bar", "1.0.0");
+
+    @Mock
+    private LookupGenerator lookupGenerator;
+
+    @Mock
+    private Configuration configuration;
+
+    @Mock
+    private AsyncRequestTracer tracer;
+
+    @Mock
+    private AsyncRequestTracer.Trace trace;
+
+    @InjectMocks
+    private LookupImpl lookup;
+
+    private final CompletableFuture<MavenLookupResult> result = new CompletableFuture<>();
+
+    private final MavenLookupRequest request = MavenLookupRequest.builder()
+            .artifacts(Collections.singleton(GAV))
+            .mode("PERSISTENT")
+            .build();
+
+    @Before
+    public void setUp() throws ConfigurationParseException {
+        when(configuration.getConfig()).thenReturn(new DAConfig());
+        when(tracer.start(anyString(), any())).thenReturn(trace);
+        when(trace.makeCurrent()).thenReturn(mock(Scope.class));
+        when(lookupGenerator.streamBestMatchMaven(any(), any(), anyBoolean(), any(), any()))
+                .thenReturn(Collections.singletonList(result));
+    }
+
+    @Test
+    public void testStreamingTraceEndsWhenResultsAreWritten() throws IOException {
+        StreamingOutput output = lookup.lookupMavenNDJSON(request);
+        verify(trace, never()).end(any());
+
+        result.complete(new MavenLookupResult(GAV, "1.0.0.redhat-1"));
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        output.write(written);
+
+        verify(trace).end(null);
+        String line = written.toString("UTF-8");
+        assertTrue(line.endsWith("\n"));
+        assertEquals(1, line.split("\n").length);
+    }
+
+    @Test
+    public void testStreamingTraceEndsWhenWritingFails() {
+        StreamingOutput output = lookup.lookupMavenNDJSON(request);
+        result.complete(new MavenLookupResult(GAV, "1.0.0.redhat-1"));
+        OutputStream disconnected = new OutputStream() {
+
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        try {
+            output.write(disconnected);
+            fail("Writing should have failed.");
+        } catch (IOException ex) {
+            verify(trace).end(ex);
+        }
+    }
+}
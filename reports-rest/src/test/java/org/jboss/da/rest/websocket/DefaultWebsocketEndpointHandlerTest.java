@@ -0,0 +1,288 @@
+package org.jboss.da.rest.websocket;
+
+import org.jboss.pnc.pncmetrics.MetricsConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.Logger;
+
+import javax.enterprise.context.control.RequestContextController;
+import javax.enterprise.inject.Instance;
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DefaultWebsocketEndpointHandlerTest {
+
+    private static final int CANCELLED = -32800;
+
+    private static final int INVALID_REQUEST = -32600;
+
+    @Mock
+    private Logger log;
+
+    @Spy
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Mock
+    private MetricsConfiguration metricsConfiguration;
+
+    @Mock
+    private Instance<RequestContextController> requestContextController;
+
+    @Mock
+    private RequestContextController requestContext;
+
+    @Mock
+    private WebsocketExecutor websocketExecutor;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private RemoteEndpoint.Async remote;
+
+    @InjectMocks
+    private DefaultWebsocketEndpointHandler handler;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final BlockingQueue<JsonNode> sent = new LinkedBlockingQueue<>();
+
+    /**
+     * Released by every started execution of the blocking method.
+     */
+    private final Semaphore started = new Semaphore(0);
+
+    /**
+     * Latches awaited by the executions of the await method, mapped by the name given in its params.
+     */
+    private final Map<String, CountDownLatch> latches = new ConcurrentHashMap<>();
+
+    private final Map<String, Method<?, ?>> methods = new HashMap<>();
+
+    @Before
+    public void setUp() throws IOException {
+        when(metricsConfiguration.getMetricRegistry()).thenReturn(new MetricRegistry());
+        when(requestContextController.get()).thenReturn(requestContext);
+        when(websocketExecutor.getSessionLimit()).thenReturn(1);
+        when(websocketExecutor.runAsync(anyString(), any(Runnable.class))).thenAnswer(invocation -> {
+            Runnable task = (Runnable) invocation.getArguments()[1];
+            return CompletableFuture.runAsync(task, executor);
+        });
+        when(session.getId()).thenReturn("session");
+        when(session.isOpen()).thenReturn(true);
+        when(session.getAsyncRemote()).thenReturn(remote);
+        doAnswer(invocation -> {
+            sent.add(mapper.readTree((String) invocation.getArguments()[0]));
+            ((SendHandler) invocation.getArguments()[1]).onResult(new SendResult());
+            return null;
+        }).when(remote).sendText(anyString(), any(SendHandler.class));
+
+        methods.put("block", new DefaultMethod<>("block", JsonNode.class, params -> {
+            started.release();
+            new CountDownLatch(1).await();
+            return "unreachable";
+        }));
+        methods.put("await", new DefaultMethod<>("await", JsonNode.class, params -> {
+            String latch = params.path("latch").textValue();
+            started.release();
+            latches.get(latch).await();
+            return latch;
+        }));
+        handler.init();
+        handler.setMethods(new Methods() {
+
+            @Override
+            public boolean contains(String method) {
+                return methods.containsKey(method);
+            }
+
+            @Override
+            public Method<?, ?> get(String method) {
+                return methods.get(method);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testCancelRunningRequest() throws Exception {
+        handler.onMessage(session, request(1, "block"));
+        assertTrue(started.tryAcquire(5, TimeUnit.SECONDS));
+
+        handler.onMessage(session, cancel(2, 1));
+
+        Map<String, JsonNode> responses = responses(2);
+        assertEquals(CANCELLED, responses.get("1").path("error").path("code").intValue());
+        assertTrue(responses.get("2").path("result").path("cancelled").booleanValue());
+    }
+
+    @Test
+    public void testCancelQueuedRequestIsAnsweredRightAway() throws Exception {
+        latches.put("first", new CountDownLatch(1));
+        latches.put("second", new CountDownLatch(1));
+        handler.onMessage(session, await(1, "first"));
+        assertTrue(started.tryAcquire(5, TimeUnit.SECONDS));
+        // waits behind the running one, the session allows one request in flight
+        handler.onMessage(session, request(2, "block"));
+
+        handler.onMessage(session, cancel(3, 2));
+
+        // answered while the first request still runs
+        Map<String, JsonNode> responses = responses(2);
+        assertEquals(CANCELLED, responses.get("2").path("error").path("code").intValue());
+        assertTrue(responses.get("3").path("result").path("cancelled").booleanValue());
+
+        // the id of the cancelled request is free and the cancelled request doesn't hold the session limit
+        handler.onMessage(session, await(2, "second"));
+        latches.get("first").countDown();
+        assertEquals("first", responses(1).get("1").path("result").textValue());
+        assertTrue(started.tryAcquire(5, TimeUnit.SECONDS));
+        latches.get("second").countDown();
+        assertEquals("second", responses(1).get("2").path("result").textValue());
+        assertEquals("the cancelled request must not run", 0, started.availablePermits());
+    }
+
+    @Test
+    public void testCancelRequestWaitingForExecutor() throws Exception {
+        CompletableFuture<Void> waiting = new CompletableFuture<>();
+        when(websocketExecutor.runAsync(anyString(), any(Runnable.class))).thenReturn(waiting);
+        handler.onMessage(session, request(1, "block"));
+
+        handler.onMessage(session, cancel(2, 1));
+
+        Map<String, JsonNode> responses = responses(2);
+        assertEquals(CANCELLED, responses.get("1").path("error").path("code").intValue());
+        assertTrue(responses.get("2").path("result").path("cancelled").booleanValue());
+        assertTrue("the request must leave the executor queue", waiting.isCancelled());
+    }
+
+    @Test
+    public void testResponsesInCompletionOrder() throws Exception {
+        when(websocketExecutor.getSessionLimit()).thenReturn(2);
+        handler.init();
+        latches.put("first", new CountDownLatch(1));
+        latches.put("second", new CountDownLatch(1));
+
+        handler.onMessage(session, await(1, "first"));
+        handler.onMessage(session, await(2, "second"));
+        assertTrue(started.tryAcquire(2, 5, TimeUnit.SECONDS));
+
+        latches.get("second").countDown();
+        JsonNode response = sent.poll(5, TimeUnit.SECONDS);
+        assertNotNull("missing response", response);
+        assertEquals(2, response.path("id").intValue());
+        assertEquals("second", response.path("result").textValue());
+
+        latches.get("first").countDown();
+        response = sent.poll(5, TimeUnit.SECONDS);
+        assertNotNull("missing response", response);
+        assertEquals(1, response.path("id").intValue());
+        assertEquals("first", response.path("result").textValue());
+    }
+
+    @Test
+    public void testRejectDuplicateId() throws Exception {
+        handler.onMessage(session, request(1, "block"));
+        assertTrue(started.tryAcquire(5, TimeUnit.SECONDS));
+
+        handler.onMessage(session, request(1, "block"));
+
+        JsonNode response = sent.poll(5, TimeUnit.SECONDS);
+        assertNotNull("missing response", response);
+        assertEquals(1, response.path("id").intValue());
+        assertEquals(INVALID_REQUEST, response.path("error").path("code").intValue());
+        assertFalse("the duplicate request must not run", started.tryAcquire(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testLimitRequestsInFlight() throws Exception {
+        latches.put("first", new CountDownLatch(1));
+        latches.put("second", new CountDownLatch(1));
+
+        handler.onMessage(session, await(1, "first"));
+        assertTrue(started.tryAcquire(5, TimeUnit.SECONDS));
+        handler.onMessage(session, await(2, "second"));
+        assertFalse("the session allows one request in flight", started.tryAcquire(200, TimeUnit.MILLISECONDS));
+
+        latches.get("first").countDown();
+        assertEquals("first", responses(1).get("1").path("result").textValue());
+        assertTrue("the queued request starts after the first", started.tryAcquire(5, TimeUnit.SECONDS));
+
+        latches.get("second").countDown();
+        assertEquals("second", responses(1).get("2").path("result").textValue());
+    }
+
+    @Test
+    public void testCancelUnknownRequest() throws Exception {
+        handler.onMessage(session, cancel(1, 42));
+
+        Map<String, JsonNode> responses = responses(1);
+        assertFalse(responses.get("1").path("result").path("cancelled").booleanValue());
+    }
+
+    private static String request(int id, String method) {
+        return "{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"method\":\"" + method + "\",\"params\":{}}";
+    }
+
+    private static String await(int id, String latch) {
+        return "{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"method\":\"await\",\"params\":{\"latch\":\"" + latch
+                + "\"}}";
+    }
+
+    private static String cancel(int id, int requestId) {
+        return "{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"method\":\"" + DefaultWebsocketEndpointHandler.CANCEL_METHOD
+                + "\",\"params\":{\"id\":" + requestId + "}}";
+    }
+
+    /**
+     * Waits for the responses sent to the session and maps them by their id.
+     */
+    private Map<String, JsonNode> responses(int count) throws InterruptedException {
+        Map<String, JsonNode> responses = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            JsonNode response = sent.poll(5, TimeUnit.SECONDS);
+            assertNotNull("missing response", response);
+            responses.put(response.path("id").asText(), response);
+        }
+        return responses;
+    }
+}
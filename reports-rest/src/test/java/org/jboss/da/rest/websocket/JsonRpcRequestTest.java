@@ -0,0 +1,81 @@
+package org.jboss.da.rest.websocket;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Error;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonRpcRequestTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testStringId() throws JSONRPC2Error {
+        JsonRpcRequest request = parse("{\"jsonrpc\":\"2.0\",\"id\":\"abc\",\"method\":\"m\",\"params\":{\"a\":1}}");
+
+        assertEquals("abc", request.getId().textValue());
+        assertEquals("m", request.getMethod());
+        assertEquals(1, request.getParams().path("a").intValue());
+    }
+
+    @Test
+    public void testNumberId() throws JSONRPC2Error {
+        JsonRpcRequest request = parse("{\"jsonrpc\":\"2.0\",\"id\":7,\"method\":\"m\",\"params\":[1,2]}");
+
+        assertTrue(request.getId().isNumber());
+        assertEquals(7, request.getId().intValue());
+        assertTrue(request.getParams().isArray());
+    }
+
+    @Test
+    public void testNullId() throws JSONRPC2Error {
+        JsonRpcRequest request = parse("{\"jsonrpc\":\"2.0\",\"id\":null,\"method\":\"m\"}");
+
+        assertTrue(request.getId().isNull());
+        assertNull(request.getParams());
+    }
+
+    @Test
+    public void testNullParams() throws JSONRPC2Error {
+        JsonRpcRequest request = parse("{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"m\",\"params\":null}");
+
+        assertNull(request.getParams());
+    }
+
+    @Test
+    public void testMalformedJson() {
+        assertRejected("{\"jsonrpc\":\"2.0\",", JSONRPC2Error.PARSE_ERROR);
+    }
+
+    @Test
+    public void testInvalidEnvelopes() {
+        assertRejected("[]", JSONRPC2Error.INVALID_REQUEST);
+        assertRejected("\"request\"", JSONRPC2Error.INVALID_REQUEST);
+        assertRejected("{\"id\":1,\"method\":\"m\"}", JSONRPC2Error.INVALID_REQUEST);
+        assertRejected("{\"jsonrpc\":\"1.0\",\"id\":1,\"method\":\"m\"}", JSONRPC2Error.INVALID_REQUEST);
+        assertRejected("{\"jsonrpc\":\"2.0\",\"id\":1}", JSONRPC2Error.INVALID_REQUEST);
+        assertRejected("{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":5}", JSONRPC2Error.INVALID_REQUEST);
+        assertRejected("{\"jsonrpc\":\"2.0\",\"method\":\"m\"}", JSONRPC2Error.INVALID_REQUEST);
+        assertRejected("{\"jsonrpc\":\"2.0\",\"id\":{},\"method\":\"m\"}", JSONRPC2Error.INVALID_REQUEST);
+        assertRejected("{\"jsonrpc\":\"2.0\",\"id\":true,\"method\":\"m\"}", JSONRPC2Error.INVALID_REQUEST);
+        assertRejected("{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"m\",\"params\":5}", JSONRPC2Error.INVALID_REQUEST);
+    }
+
+    private JsonRpcRequest parse(String message) throws JSONRPC2Error {
+        return JsonRpcRequest.parse(mapper, message);
+    }
+
+    private void assertRejected(String message, JSONRPC2Error expected) {
+        try {
+            parse(message);
+            fail("Request " + message + " should be rejected");
+        } catch (JSONRPC2Error error) {
+            assertEquals(message, expected.getCode(), error.getCode());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.jboss.da.rest.websocket;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Error;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JsonRpcWriterTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final JsonRpcWriter writer = new JsonRpcWriter(mapper);
+
+    @Test
+    public void testResultWithStringId() throws IOException {
+        JsonNode response = read(writer.result(new TextNode("abc"), Collections.singletonMap("a", 1)));
+
+        assertEquals("2.0", response.path("jsonrpc").textValue());
+        assertEquals("abc", response.path("id").textValue());
+        assertEquals(1, response.path("result").path("a").intValue());
+        assertFalse(response.has("error"));
+    }
+
+    @Test
+    public void testResultWithNumberId() throws IOException {
+        JsonNode response = read(writer.result(new IntNode(7), "done"));
+
+        assertTrue(response.path("id").isNumber());
+        assertEquals(7, response.path("id").intValue());
+        assertEquals("done", response.path("result").textValue());
+    }
+
+    @Test
+    public void testResultWithNullId() throws IOException {
+        JsonNode response = read(writer.result(NullNode.getInstance(), null));
+
+        assertTrue(response.has("id"));
+        assertTrue(response.path("id").isNull());
+        assertTrue(response.has("result"));
+        assertTrue(response.path("result").isNull());
+    }
+
+    @Test
+    public void testError() throws IOException {
+        JsonNode response = read(writer.error(new IntNode(3), JSONRPC2Error.INVALID_PARAMS.setData("bad")));
+
+        assertEquals(3, response.path("id").intValue());
+        assertEquals(JSONRPC2Error.INVALID_PARAMS.getCode(), response.path("error").path("code").intValue());
+        assertEquals(JSONRPC2Error.INVALID_PARAMS.getMessage(), response.path("error").path("message").textValue());
+        assertEquals("bad", response.path("error").path("data").textValue());
+        assertFalse(response.has("result"));
+    }
+
+    @Test
+    public void testErrorWithoutData() throws IOException {
+        JsonNode response = read(writer.error(NullNode.getInstance(), JSONRPC2Error.PARSE_ERROR));
+
+        assertTrue(response.path("id").isNull());
+        assertEquals(JSONRPC2Error.PARSE_ERROR.getCode(), response.path("error").path("code").intValue());
+        assertFalse(response.path("error").has("data"));
+    }
+
+    @Test
+    public void testNotification() throws IOException {
+        JsonNode notification = read(writer.notification("progress", Collections.singletonMap("done", 2)));
+
+        assertEquals("2.0", notification.path("jsonrpc").textValue());
+        assertEquals("progress", notification.path("method").textValue());
+        assertEquals(2, notification.path("params").path("done").intValue());
+        assertFalse(notification.has("id"));
+    }
+
+    @Test
+    public void testBufferIsReusedForNextMessage() throws IOException {
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 2 * 1024 * 1024; i++) {
+            large.append('x');
+        }
+        writer.result(new IntNode(1), large.toString());
+
+        JsonNode response = read(writer.result(new IntNode(2), "small"));
+
+        assertEquals(2, response.path("id").intValue());
+        assertEquals("small", response.path("result").textValue());
+    }
+
+    private JsonNode read(String message) throws IOException {
+        return mapper.readTree(message);
+    }
+}
@@ -0,0 +1,59 @@
+package org.jboss.da.rest.websocket;
+
+import org.jboss.da.reports.api.ProgressListener.Stage;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.IntNode;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.contains;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProgressNotifierTest {
+
+    @Mock
+    private WebsocketSender sender;
+
+    @Test
+    public void testProgressIsThrottled() {
+        ProgressNotifier notifier = new ProgressNotifier(sender, new JsonRpcWriter(new ObjectMapper()), new IntNode(1));
+
+        notifier.progress(Stage.RESOLUTION, 1, 10);
+        notifier.progress(Stage.RESOLUTION, 2, 10);
+        notifier.progress(Stage.RESOLUTION, 3, 10);
+
+        verify(sender, times(1)).sendIfIdle(anyString());
+        verify(sender).sendIfIdle(contains("\"done\":1,"));
+        verify(sender, never()).send(anyString());
+    }
+
+    @Test
+    public void testCompletedProgressIsAlwaysSent() {
+        ProgressNotifier notifier = new ProgressNotifier(sender, new JsonRpcWriter(new ObjectMapper()), new IntNode(1));
+
+        notifier.progress(Stage.RESOLUTION, 1, 10);
+        notifier.progress(Stage.RESOLUTION, 10, 10);
+
+        verify(sender).sendIfIdle(contains("\"done\":1,"));
+        verify(sender).send(contains("\"done\":10,"));
+    }
+
+    @Test
+    public void testStageChangesAreNotDropped() {
+        ProgressNotifier notifier = new ProgressNotifier(sender, new JsonRpcWriter(new ObjectMapper()), new IntNode(1));
+
+        notifier.started(Stage.ANALYSIS);
+        notifier.finished(Stage.ANALYSIS);
+
+        verify(sender).send(contains("\"status\":\"STARTED\""));
+        verify(sender).send(contains("\"status\":\"FINISHED\""));
+        verify(sender, never()).sendIfIdle(anyString());
+    }
+}
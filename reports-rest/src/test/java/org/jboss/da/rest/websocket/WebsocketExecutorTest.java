@@ -0,0 +1,99 @@
+package org.jboss.da.rest.websocket;
+
+import org.jboss.da.common.json.DAConfig;
+import org.jboss.da.common.util.Configuration;
+import org.jboss.da.common.util.ConfigurationParseException;
+import org.jboss.pnc.pncmetrics.MetricsConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.MDC;
+
+import javax.enterprise.concurrent.ManagedThreadFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WebsocketExecutorTest {
+
+    private static final String THREAD_NAME = "websocket-test";
+
+    @Mock
+    private ManagedThreadFactory threadFactory;
+
+    @Mock
+    private Configuration configuration;
+
+    @Mock
+    private MetricsConfiguration metricsConfiguration;
+
+    @InjectMocks
+    private WebsocketExecutor websocketExecutor;
+
+    @Before
+    public void setUp() throws ConfigurationParseException {
+        DAConfig config = new DAConfig();
+        config.setWebsocketConcurrencyLimit(1);
+        when(configuration.getConfig()).thenReturn(config);
+        when(threadFactory.newThread(any(Runnable.class)))
+                .thenAnswer(invocation -> new Thread((Runnable) invocation.getArguments()[0], THREAD_NAME));
+        websocketExecutor.init();
+    }
+
+    @After
+    public void tearDown() {
+        websocketExecutor.shutdown();
+        MDC.clear();
+    }
+
+    @Test
+    public void testRunsOnOwnThreadsWithLoggingContext() throws Exception {
+        AtomicReference<String> thread = new AtomicReference<>();
+        AtomicReference<String> context = new AtomicReference<>();
+
+        MDC.put("test-key", "request");
+        CompletableFuture<Void> result = websocketExecutor.runAsync("session", () -> {
+            thread.set(Thread.currentThread().getName());
+            context.set(MDC.get("test-key"));
+        });
+        MDC.clear();
+        result.get(5, TimeUnit.SECONDS);
+
+        assertEquals(THREAD_NAME, thread.get());
+        assertEquals("request", context.get());
+    }
+
+    @Test
+    public void testLimitsRequestsAcrossSessions() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch secondStarted = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = websocketExecutor.runAsync("first", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CompletableFuture<Void> second = websocketExecutor.runAsync("second", secondStarted::countDown);
+
+        assertFalse("the limit allows one request at once", secondStarted.await(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertTrue(secondStarted.await(0, TimeUnit.SECONDS));
+    }
+}
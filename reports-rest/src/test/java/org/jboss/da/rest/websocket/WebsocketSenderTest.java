@@ -0,0 +1,83 @@
+package org.jboss.da.rest.websocket;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WebsocketSenderTest {
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private RemoteEndpoint.Async remote;
+
+    private final List<String> sent = new ArrayList<>();
+
+    private final List<SendHandler> handlers = new ArrayList<>();
+
+    private WebsocketSender sender;
+
+    @Before
+    public void setUp() {
+        when(session.getAsyncRemote()).thenReturn(remote);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            sent.add((String) invocation.getArguments()[0]);
+            handlers.add((SendHandler) invocation.getArguments()[1]);
+            return null;
+        }).when(remote).sendText(anyString(), any(SendHandler.class));
+        sender = new WebsocketSender(session);
+    }
+
+    @Test
+    public void testMessagesAreSentOneAfterAnother() {
+        sender.send("first");
+        sender.send("second");
+        assertEquals(Collections.singletonList("first"), sent);
+
+        handlers.get(0).onResult(new SendResult());
+        assertEquals(Arrays.asList("first", "second"), sent);
+    }
+
+    @Test
+    public void testDroppableMessageIsDroppedWhileSending() {
+        sender.send("response");
+        assertFalse(sender.sendIfIdle("progress"));
+
+        handlers.get(0).onResult(new SendResult());
+        assertTrue(sender.sendIfIdle("next progress"));
+        assertEquals(Arrays.asList("response", "next progress"), sent);
+    }
+
+    @Test
+    public void testQueueIsClearedWhenSessionCloses() {
+        sender.send("first");
+        sender.send("second");
+        when(session.isOpen()).thenReturn(false);
+
+        handlers.get(0).onResult(new SendResult(new IllegalStateException("closed")));
+        assertEquals(Collections.singletonList("first"), sent);
+    }
+}
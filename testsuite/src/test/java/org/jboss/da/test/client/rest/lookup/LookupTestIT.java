@@ -1,11 +1,17 @@
 package org.jboss.da.test.client.rest.lookup;
 
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
 import org.jboss.da.test.client.rest.AbstractRestReportsTest;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class LookupTestIT extends AbstractRestReportsTest {
 
@@ -16,6 +22,8 @@ public class LookupTestIT extends AbstractRestReportsTest {
     private static final String PATH_LOOKUP_NPM = "/lookup/npm";
     private static final String PATH_NPM_VERSIONS = "/lookup/npm/versions";
 
+    private static final MediaType APPLICATION_NDJSON = new MediaType("application", "x-ndjson");
+
     @Test
     public void testGavLookupSingle() throws Exception {
         Response response = assertResponseForRequest(PATH_LOOKUP_MAVEN, "guava13");
@@ -75,4 +83,35 @@ public class LookupTestIT extends AbstractRestReportsTest {
         Response response = assertResponseForRequest(PATH_LOOKUP_NPM, "jquery151");
         assertEquals(200, response.getStatus());
     }
+
+    @Test
+    public void testGavLookupAcceptingAnyTypeReturnsJson() throws Exception {
+        Response response = postAccepting(PATH_LOOKUP_MAVEN, "guava13", MediaType.WILDCARD_TYPE);
+        assertEquals(200, response.getStatus());
+        assertTrue(MediaType.APPLICATION_JSON_TYPE.isCompatible(response.getMediaType()));
+    }
+
+    @Test
+    public void testNPMLookupAcceptingAnyTypeReturnsJson() throws Exception {
+        Response response = postAccepting(PATH_LOOKUP_NPM, "jquery151", MediaType.WILDCARD_TYPE);
+        assertEquals(200, response.getStatus());
+        assertTrue(MediaType.APPLICATION_JSON_TYPE.isCompatible(response.getMediaType()));
+    }
+
+    @Test
+    public void testGavLookupStreamsNDJSON() throws Exception {
+        Response response = postAccepting(PATH_LOOKUP_MAVEN, "guava13", APPLICATION_NDJSON);
+        assertEquals(200, response.getStatus());
+        assertTrue(APPLICATION_NDJSON.isCompatible(response.getMediaType()));
+
+        // each line holds one result serialized the same way as in the JSON response
+        String[] lines = response.readEntity(String.class).trim().split("\n");
+        String expected = FileUtils.readFileToString(getJsonResponseFile(PATH_LOOKUP_MAVEN, "guava13"), ENCODING);
+        assertEqualsJson(expected.trim(), "[" + String.join(",", lines) + "]");
+    }
+
+    private Response postAccepting(String endpoint, String requestFile, MediaType accept) throws IOException {
+        String entity = FileUtils.readFileToString(getJsonRequestFile(endpoint, requestFile), ENCODING);
+        return createWebTarget(endpoint).request(accept).post(Entity.json(entity));
+    }
 }
@@ -60,6 +60,15 @@ public class RestApiReportsRemoteTestIT extends AbstractRestReportsTest {
         assertEquals(200, response.getStatus());
     }
 
+    @Test
+    public void testGavLookupWithoutModeIsRejected() throws Exception {
+        // the mode is required
+        String json = "{\"gavs\": [{\"groupId\": \"com.google.guava\", \"artifactId\": \"guava\", "
+                + "\"version\": \"13.0.1\"}]}";
+        Response response = createClientRequest(PATH_LOOKUP_GAVS).post(Entity.json(json));
+        assertEquals(400, response.getStatus());
+    }
+
     @Test
     public void testGavLookupSingleTemporary() throws Exception {
         Response response = assertResponseForRequest(PATH_LOOKUP_GAVS, "guava13Temp");
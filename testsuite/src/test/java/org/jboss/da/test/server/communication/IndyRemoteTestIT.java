@@ -35,7 +35,7 @@ public class IndyRemoteTestIT extends AbstractServerTest {
         GA ga = new GA("org.jboss.ballroom", "ballroom");
         List<String> ballroomTest = Arrays
                 .asList(new String[] { "1.3.0.Final-redhat-1", "1.4.0.Final-redhat-1", "1.6.0.Final-redhat-1" });
-        List<String> result = indyConnector.getVersionsOfGA(ga);
+        List<String> result = indyConnector.getVersionsOfGA(ga).join();
         assertTrue(result.size() > 0);
         // future releases might make the size of result to be bigger
         assertTrue(ballroomTest.size() <= result.size());
@@ -97,7 +97,7 @@ public class IndyRemoteTestIT extends AbstractServerTest {
                         "3.2.1",
                         "3.3.0",
                         "3.3.1" });
-        List<String> result = indyConnector.getVersionsOfNpm("jquery");
+        List<String> result = indyConnector.getVersionsOfNpm("jquery").join();
         assertEquals(jqueryVersions.size(), result.size());
         assertTrue(result.containsAll(jqueryVersions));
     }